@@ -482,7 +482,7 @@ public class Facade implements IFacade {
 	
 	@Override
 	public int getNbWormsOfTeam(Team team) throws ModelException, MustNotImplementException {
-		return team.getAlphabeticalListTeamRoster().size();
+		return team.getNumberOfWorms();
 	}
 	
 	@Override
@@ -4,6 +4,7 @@ import be.kuleuven.cs.som.annotate.*;
 import worms.exceptions.InvalidLocationException;
 import worms.exceptions.InvalidRadiusException;
 import worms.model.ShapeHelp.Circle;
+import worms.model.ShapeHelp.Geometry;
 import worms.model.ShapeHelp.Rectangle;
 import worms.model.values.*;
 
@@ -39,7 +40,7 @@ public abstract class GameObject{
 	 */
 	@Raw
 	protected GameObject(Location location, Radius radius, World world) throws InvalidLocationException,InvalidRadiusException {
-		this.setGameObjectTypeID(new GameObjectTypeID(this.getClass().isAnonymousClass() ? (Class<? extends GameObject>)this.getClass().getSuperclass():this.getClass()));
+		this.setGameObjectTypeID(TYPE_IDS.get(this.getClass()));
 		
 		if(!isValidRadius(radius)) {
 			throw new InvalidRadiusException(radius);
@@ -90,6 +91,9 @@ public abstract class GameObject{
 			//throw new InvalidLocationException(location);
 		}
 		this.location = location;
+		if(this.getWorld() != null) {
+			this.getWorld().updateGameObjectBounds(this);
+		}
 	}
 
 	/**
@@ -170,6 +174,9 @@ public abstract class GameObject{
 		}
 		this.radius = radius;
 		this.generateMass();
+		if(this.getWorld() != null) {
+			this.getWorld().updateGameObjectBounds(this);
+		}
 	}
 	
 	/**
@@ -195,6 +202,9 @@ public abstract class GameObject{
 	public void grow(Location location, double modifier) throws InvalidRadiusException{
 		this.radius = new Radius(this.getRadius().getRadius()*modifier >= this.getRadius().getMinRadius() ? this.getRadius().getRadius()*modifier : this.getRadius().getMinRadius(),this.getRadius().getMinRadius());
 		this.location = location;
+		if(this.getWorld() != null) {
+			this.getWorld().updateGameObjectBounds(this);
+		}
 //		if(!isValidRadius(new Radius(this.getRadius().getRadius()*GROWTH_MODIFIER))) {
 //			throw new InvalidRadiusException(new Radius(this.getRadius().getRadius()*GROWTH_MODIFIER));
 //		}
@@ -299,6 +309,18 @@ public abstract class GameObject{
 	 */
 	private GameObjectTypeID goID;
 	
+	/**
+	 * The shared type ID of every class of gameObjects, looked up once per class.
+	 * Anonymous classes share the type ID of the class they extend.
+	 */
+	private static final ClassValue<GameObjectTypeID> TYPE_IDS = new ClassValue<GameObjectTypeID>() {
+		@SuppressWarnings("unchecked")
+		@Override
+		protected GameObjectTypeID computeValue(Class<?> type) {
+			return GameObjectTypeID.getTypeIDOf((Class<? extends GameObject>)(type.isAnonymousClass() ? type.getSuperclass() : type));
+		}
+	};
+	
 	/**
 	 * Sets the world of this gameObject.
 	 * 
@@ -384,10 +406,8 @@ public abstract class GameObject{
 	 * @return | result == Circle(this).overlaps(Circle(other))
 	 */
 	public boolean overlapsWith(GameObject other) {
-		Circle thisSurface = new Circle(this);
-		Circle otherSurface = new Circle(other);
-		
-		return thisSurface.overlaps(otherSurface);
+		return Geometry.circlesOverlap(this.getLocation().getX(), this.getLocation().getY(), this.getRadius().getRadius(),
+				other.getLocation().getX(), other.getLocation().getY(), other.getRadius().getRadius());
 	}
 	
 	/**
@@ -397,9 +417,8 @@ public abstract class GameObject{
 	 * @return | result == Circle(this).overlaps(Circle(other))
 	 */
 	public boolean overlapsWith(Circle other) {
-		Circle thisSurface = new Circle(this);
-		
-		return thisSurface.overlaps(other);
+		return Geometry.circlesOverlap(this.getLocation().getX(), this.getLocation().getY(), this.getRadius().getRadius(),
+				other.getCenter().getX(), other.getCenter().getY(), other.getRadius().getRadius());
 	}
 	
 	/**
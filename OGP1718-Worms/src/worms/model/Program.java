@@ -1,33 +1,51 @@
 package worms.model;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Stack;
+import java.util.Set;
 
 import be.kuleuven.cs.som.annotate.*;
 import worms.internal.gui.game.IActionHandler;
 import worms.parser.procedures.BaseProcedure;
 import worms.parser.statements.BaseStatement;
-import worms.parser.statements.StateSequence;
-import worms.parser.statements.StateWhile;
+import worms.parser.statements.ProgramCode;
 
 public class Program {
 	
-	public Program(List<BaseProcedure> procs, BaseStatement main) {
+	/**
+	 * Creates a new program with the given procedures and main statement.
+	 * The variables of the program are given by their names, in the order of their slots:
+	 * the expressions of the program read and write the variable with name variableNames[slot] through its slot.
+	 * 
+	 * @param procs
+	 * @param main
+	 * @param variableNames
+	 */
+	public Program(List<BaseProcedure> procs, BaseStatement main, String[] variableNames) {
 		this.procedures = new HashMap<String, BaseProcedure>();
-		this.globalVariables = new HashMap<String, Object>();
 		
 		for (BaseProcedure baseProcedure : procs) {
 			this.procedures.put(baseProcedure.getProcedureName(), baseProcedure);
 		}
 		
-		if(main instanceof StateSequence) {
-			mainSequence = (StateSequence)main;
-		}else {
-			mainSequence = new StateSequence(main.getSource(), main);
+		this.variableNames = variableNames.clone();
+		this.variableSlots = new HashMap<String, Integer>();
+		this.variables = new Object[variableNames.length];
+		this.shadowsProcedure = new boolean[variableNames.length];
+		for (int slot = 0; slot < variableNames.length; slot++) {
+			this.variableSlots.put(variableNames[slot], slot);
+			this.shadowsProcedure[slot] = this.procedures.containsKey(variableNames[slot]);
 		}
+		Arrays.fill(this.variables, UNASSIGNED);
+		
+		this.main = main;
+		this.code = new ProgramCode(this.procedures, main);
 	}
 	
 	private IActionHandler actionHandler;
@@ -46,15 +64,117 @@ public class Program {
 		return procedures;
 	}
 	
-	private final StateSequence mainSequence;
+	private final BaseStatement main;
+	
+	@Basic @Raw @Immutable
+	public BaseStatement getMain() {
+		return main;
+	}
+	
+	/**
+	 * The flattened statements of this program, which also remember where an interrupted execution stopped.
+	 */
+	private final ProgramCode code;
 	
-	private final Map<String, Object> globalVariables;
+	@Basic @Raw @Immutable
+	public ProgramCode getCode() {
+		return code;
+	}
 	
+	/**
+	 * Returns the variables that have been given a value, by name.
+	 * The map is a read-only view on the variables of this program, following every assignment.
+	 */
 	@Basic @Raw @Immutable
 	public Map<String, Object> getGlobals(){
-		return globalVariables;
+		return globals;
+	}
+	
+	/**
+	 * Returns the value of the variable in the given slot.
+	 * 
+	 * @param slot
+	 * 
+	 * @throws IllegalArgumentException
+	 * 		| !getGlobals().containsKey(variableNames[slot])
+	 */
+	public Object readVariable(int slot) throws IllegalArgumentException {
+		Object value = this.variables[slot];
+		if(value == UNASSIGNED) {
+			throw new IllegalArgumentException("Variable " + this.variableNames[slot] + " has no value.");
+		}
+		return value;
+	}
+	
+	/**
+	 * Gives the variable in the given slot the given value.
+	 * 
+	 * @param slot
+	 * @param value
+	 * 
+	 * @post | new.getGlobals().get(variableNames[slot]) == value
+	 * 
+	 * @throws IllegalArgumentException
+	 * 		| getProcedures().containsKey(variableNames[slot])
+	 */
+	public void assignVariable(int slot, Object value) throws IllegalArgumentException {
+		if(this.shadowsProcedure[slot]) {
+			throw new IllegalArgumentException("Variable " + this.variableNames[slot] + " has the name of a procedure.");
+		}
+		this.variables[slot] = value;
 	}
 	
+	/**
+	 * The names of the variables of this program, by slot.
+	 */
+	private final String[] variableNames;
+	
+	/**
+	 * The slot of every variable of this program, by name.
+	 */
+	private final Map<String, Integer> variableSlots;
+	
+	/**
+	 * The values of the variables of this program, by slot. Variables that haven't been assigned yet hold UNASSIGNED.
+	 */
+	private final Object[] variables;
+	
+	/**
+	 * Whether the variable in a slot has the name of a procedure, and thus can't be assigned.
+	 */
+	private final boolean[] shadowsProcedure;
+	
+	/**
+	 * Marks variables without a value, which differ from variables holding null.
+	 */
+	private static final Object UNASSIGNED = new Object();
+	
+	private final Map<String, Object> globals = new AbstractMap<String, Object>() {
+		
+		@Override
+		public boolean containsKey(Object key) {
+			Integer slot = variableSlots.get(key);
+			return slot != null && variables[slot] != UNASSIGNED;
+		}
+		
+		@Override
+		public Object get(Object key) {
+			Integer slot = variableSlots.get(key);
+			return slot == null || variables[slot] == UNASSIGNED ? null : variables[slot];
+		}
+		
+		@Override
+		public Set<Entry<String, Object>> entrySet() {
+			Set<Entry<String, Object>> entries = new LinkedHashSet<Entry<String, Object>>();
+			for (int slot = 0; slot < variables.length; slot++) {
+				if(variables[slot] != UNASSIGNED) {
+					entries.add(new SimpleImmutableEntry<String, Object>(variableNames[slot], variables[slot]));
+				}
+			}
+			return Collections.unmodifiableSet(entries);
+		}
+	};
+	
 	private List<Object> printLog = new ArrayList<Object>();
 	
 	public void addToPrintLog(Object string){
@@ -68,11 +188,11 @@ public class Program {
 	
 	public List<Object> doStartExecution() throws IllegalStateException{
 		
-		if(mainSequence == null) {
-			throw new IllegalStateException("mainSequence does not exist in program.");
+		if(code == null) {
+			throw new IllegalStateException("code does not exist in program.");
 		}
 
-		mainSequence.execute(this,null);
+		code.run(this);
 
 		if(this.isInterrupted) {
 			this.setInterrupted(false);
@@ -106,7 +226,6 @@ public class Program {
 	
 	public void interruptProgram() {
 		System.out.println("Program should break");
-		mainSequence.interrupt();
 		this.setInterrupted(true);
 		if(this.getProgramHolder().getWorld()!=null && this.getProgramHolder().getWorld().getIsGameActive()) {
 			this.getProgramHolder().getWorld().endFirstPlayerWormTurn();
@@ -124,24 +243,5 @@ public class Program {
 	public void setInterrupted(boolean isInterrupted) {
 		this.isInterrupted = isInterrupted;
 	}
-	
-	@Basic
-	public BaseProcedure popLastCalledProc() {
-		return lastCalledProc.pop();
-	}
-
-	
-	public BaseProcedure getLastCalledProc() {
-		if(lastCalledProc.isEmpty()) {
-			return null;
-		}
-		return lastCalledProc.peek();
-	}
-
-	public void setLastCalledProc(BaseProcedure lastCalledProc) {
-		this.lastCalledProc.push(lastCalledProc);
-	}
-
-	private Stack<BaseProcedure> lastCalledProc = new Stack<BaseProcedure>();
 
 }
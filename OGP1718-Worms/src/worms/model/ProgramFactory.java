@@ -1,7 +1,11 @@
 package worms.model;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import be.kuleuven.cs.som.annotate.*;
 import worms.exceptions.NotEnoughAPException;
 import worms.parser.expressions.LambdaExpression;
 import worms.parser.procedures.BaseProcedure;
@@ -14,6 +18,8 @@ import worms.parser.statements.StatePrint;
 import worms.parser.statements.StateProcedure;
 import worms.parser.statements.StateSequence;
 import worms.parser.statements.StateWhile;
+import worms.parser.statements.StatementCompiler;
+import worms.parser.statements.StatementOptimizer;
 import worms.programs.IProgramFactory;
 import worms.programs.SourceLocation;
 import worms.util.ModelException;
@@ -21,10 +27,127 @@ import worms.util.MustNotImplementException;
 
 public class ProgramFactory implements IProgramFactory<LambdaExpression, BaseStatement, BaseProcedure, Program> {
 
+	/**
+	 * Creates a new program factory, creating programs that are interpreted.
+	 */
+	public ProgramFactory() {
+		this(false);
+	}
+	
+	/**
+	 * Creates a new program factory, creating programs that are compiled wherever they can be, if compiling is set.
+	 * 
+	 * @param compiling
+	 * 
+	 * @post | new.isCompiling() == compiling
+	 */
+	public ProgramFactory(boolean compiling) {
+		this.setCompiling(compiling);
+	}
+	
+	/**
+	 * Returns whether this factory compiles the programs it creates, wherever they can be.
+	 * 
+	 * @see StatementCompiler
+	 */
+	@Basic
+	public boolean isCompiling() {
+		return this.compiling;
+	}
+	
+	/**
+	 * Sets whether this factory compiles the programs it creates from now on.
+	 * 
+	 * @param compiling
+	 * 
+	 * @post | new.isCompiling() == compiling
+	 */
+	public void setCompiling(boolean compiling) {
+		this.compiling = compiling;
+	}
+	
+	private boolean compiling;
+	
+	/**
+	 * Returns whether this factory optimizes the programs it creates.
+	 * An optimized program has its constant subexpressions folded, its unreachable if and else bodies
+	 * and never executed loops dropped, and its sequences of a single statement replaced by that statement.
+	 * 
+	 * @see StatementOptimizer
+	 */
+	@Basic
+	public boolean isOptimizing() {
+		return this.optimizing;
+	}
+	
+	/**
+	 * Sets whether this factory optimizes the expressions and programs it creates from now on.
+	 * 
+	 * @param optimizing
+	 * 
+	 * @post | new.isOptimizing() == optimizing
+	 */
+	public void setOptimizing(boolean optimizing) {
+		this.optimizing = optimizing;
+	}
+	
+	private boolean optimizing = true;
 
 	@Override
 	public Program createProgram(List<BaseProcedure> procs, BaseStatement main) throws ModelException {
-		return new Program(procs, main);
+		if(this.isOptimizing()) {
+			procs = StatementOptimizer.optimize(procs);
+			main = StatementOptimizer.optimize(main);
+		}
+		if(this.isCompiling()) {
+			StatementCompiler compiler = new StatementCompiler(procs);
+			procs = compiler.getProcedures();
+			main = compiler.compile(main);
+		}
+		String[] variableNames = this.variableSlots.keySet().toArray(new String[0]);
+		//The program takes the slots handed out so far, the next program starts over.
+		this.variableSlots.clear();
+		return new Program(procs, main, variableNames);
+	}
+	
+	/**
+	 * Returns the slot of the variable with the given name in the program being created,
+	 * handing out the next free slot to a name seen for the first time.
+	 * 
+	 * @param variableName
+	 */
+	private int getVariableSlot(String variableName) {
+		Integer slot = this.variableSlots.get(variableName);
+		if(slot == null) {
+			slot = this.variableSlots.size();
+			this.variableSlots.put(variableName, slot);
+		}
+		return slot;
+	}
+	
+	/**
+	 * The slots of the variables of the program being created, in the order they were handed out.
+	 */
+	private final Map<String, Integer> variableSlots = new LinkedHashMap<String, Integer>();
+	
+	/**
+	 * Returns the given expression, made up of the given operands.
+	 * If this factory is optimizing and all operands are constant, the expression is evaluated right away
+	 * and its value returned as a constant. Expressions that fail to evaluate are left for the program to fail on.
+	 * 
+	 * @param expression
+	 * 		An expression whose value depends on nothing but its operands.
+	 * @param operands
+	 */
+	private LambdaExpression fold(LambdaExpression expression, LambdaExpression... operands) {
+		if(this.isOptimizing() && Arrays.stream(operands).allMatch(LambdaExpression::isConstant)) {
+			try {
+				return LambdaExpression.ofConstant(expression.getExpression().getExpressionResult(null));
+			} catch (RuntimeException e) {
+				//Left unfolded, so it fails where and when the program evaluates it.
+			}
+		}
+		return expression.withOperands(operands);
 	}
 	
 	/**
@@ -53,7 +176,8 @@ public class ProgramFactory implements IProgramFactory<LambdaExpression, BaseSta
 	@Override
 	public BaseStatement createAssignmentStatement(String variableName, LambdaExpression value,
 			SourceLocation sourceLocation) throws ModelException {
-		LambdaExpression assignment = new LambdaExpression((p) -> LambdaExpression.VARIABLE_ASSIGN.set(p,variableName, value));
+		int slot = this.getVariableSlot(variableName);
+		LambdaExpression assignment = new LambdaExpression((p) -> LambdaExpression.VARIABLE_ASSIGN.set(p,slot, value)).withOperands(value);
 		StateAssignment assigner = new StateAssignment(sourceLocation, assignment);
 		return assigner;
 	}
@@ -61,7 +185,7 @@ public class ProgramFactory implements IProgramFactory<LambdaExpression, BaseSta
 	@Override
 	public BaseStatement createPrintStatement(LambdaExpression value, SourceLocation sourceLocation)
 			throws ModelException {
-		LambdaExpression printer = new LambdaExpression((p) -> LambdaExpression.PRINTER.set(p,value));
+		LambdaExpression printer = new LambdaExpression((p) -> LambdaExpression.PRINTER.set(p,value)).withOperands(value);
 		return new StatePrint(sourceLocation, printer);
 	}
 
@@ -97,7 +221,7 @@ public class ProgramFactory implements IProgramFactory<LambdaExpression, BaseSta
 //			}
 			return null;
 		};
-		return new StateAction(location, new LambdaExpression((p) -> turnExpression.set(p, angle)));
+		return new StateAction(location, new LambdaExpression((p) -> turnExpression.set(p, angle)).withOperands(angle));
 	}
 
 	@Override
@@ -220,29 +344,30 @@ public class ProgramFactory implements IProgramFactory<LambdaExpression, BaseSta
 	@Override
 	public LambdaExpression createReadVariableExpression(String variableName, SourceLocation sourceLocation)
 			throws ModelException {
-		return new LambdaExpression((p)->LambdaExpression.VARIABLE_READ.set(p,variableName));
+		int slot = this.getVariableSlot(variableName);
+		return new LambdaExpression((p)->LambdaExpression.VARIABLE_READ.set(p,slot));
 	}
 
 	@Override
 	public LambdaExpression createDoubleLiteralExpression(double value, SourceLocation location) throws ModelException {
-		return new LambdaExpression((p) -> LambdaExpression.LITERAL_DOUBLE.set(p,value));
+		return LambdaExpression.ofConstant(value);
 	}
 
 	@Override
 	public LambdaExpression createBooleanLiteralExpression(boolean value, SourceLocation location)
 			throws ModelException {
-		return new LambdaExpression((p) -> LambdaExpression.LITERAL_BOOLEAN.set(p,value));
+		return LambdaExpression.ofConstant(value);
 	}
 
 	@Override
 	public LambdaExpression createNullExpression(SourceLocation location) throws ModelException {
-		return new LambdaExpression((p) -> LambdaExpression.LITERAL_NULL.set(p,null));
+		return LambdaExpression.ofConstant(null);
 	}
 
 	@Override
 	public LambdaExpression createGetDirectionExpression(LambdaExpression entity, SourceLocation location)
 			throws ModelException, MustNotImplementException {
-		return new LambdaExpression((p) -> LambdaExpression.GET_SELF_DIRECTION.set(p,null));
+		return LambdaExpression.ofDouble(LambdaExpression.GET_SELF_DIRECTION).withOperands(entity);
 	}
 	
 	@Override
@@ -253,49 +378,49 @@ public class ProgramFactory implements IProgramFactory<LambdaExpression, BaseSta
 	@Override
 	public LambdaExpression createAdditionExpression(LambdaExpression left, LambdaExpression right,
 			SourceLocation location) throws ModelException {
-		return new LambdaExpression((p) -> LambdaExpression.ADDITION.set(p,left,right));
+		return this.fold(LambdaExpression.ofDouble((p) -> LambdaExpression.ADDITION.set(p,left,right)), left, right);
 	}
 
 	@Override
 	public LambdaExpression createAndExpression(LambdaExpression left, LambdaExpression right,
 			SourceLocation sourceLocation) throws ModelException {
-		return new LambdaExpression((p)-> LambdaExpression.LOGIC_AND.set(p, left,right));
+		return this.fold(LambdaExpression.ofBoolean((p)-> LambdaExpression.LOGIC_AND.set(p, left,right)), left, right);
 	}
 	
 	@Override
 	public LambdaExpression createOrExpression(LambdaExpression left, LambdaExpression right,
 			SourceLocation sourceLocation) throws ModelException {
-		return new LambdaExpression((p)-> LambdaExpression.LOGIC_OR.set(p, left,right));
+		return this.fold(LambdaExpression.ofBoolean((p)-> LambdaExpression.LOGIC_OR.set(p, left,right)), left, right);
 	}
 
 	@Override
 	public LambdaExpression createNotExpression(LambdaExpression expression, SourceLocation sourceLocation)
 			throws ModelException {
-		return new LambdaExpression((p)-> LambdaExpression.LOGIC_NOT.set(p, expression));
+		return this.fold(LambdaExpression.ofBoolean((p)-> LambdaExpression.LOGIC_NOT.set(p, expression)), expression);
 	}
 
 	@Override
 	public LambdaExpression createEqualityExpression(LambdaExpression left, LambdaExpression right,
 			SourceLocation location) throws ModelException {
-		return new LambdaExpression((p)-> LambdaExpression.LOGIC_EQUALITY.set(p, left,right));
+		return this.fold(LambdaExpression.ofBoolean((p)-> LambdaExpression.LOGIC_EQUALITY.set(p, left,right)), left, right);
 	}
 	
 	@Override
 	public LambdaExpression createInequalityExpression(LambdaExpression left, LambdaExpression right,
 			SourceLocation location) throws ModelException {
-		return new LambdaExpression((p)-> LambdaExpression.LOGIC_INEQUALITY.set(p, left,right));
+		return this.fold(LambdaExpression.ofBoolean((p)-> LambdaExpression.LOGIC_INEQUALITY.set(p, left,right)), left, right);
 	}
 
 	@Override
 	public LambdaExpression createLessThanExpression(LambdaExpression left, LambdaExpression right,
 			SourceLocation location) {
-		return new LambdaExpression((p)-> LambdaExpression.LOGIC_LESS_THAN.set(p, left,right));
+		return this.fold(LambdaExpression.ofBoolean((p)-> LambdaExpression.LOGIC_LESS_THAN.set(p, left,right)), left, right);
 	}
 	
 	@Override
 	public LambdaExpression createGreaterThanExpression(LambdaExpression left, LambdaExpression right,
 			SourceLocation location) {
-		return new LambdaExpression((p)-> LambdaExpression.LOGIC_GREATER_THAN.set(p, left,right));
+		return this.fold(LambdaExpression.ofBoolean((p)-> LambdaExpression.LOGIC_GREATER_THAN.set(p, left,right)), left, right);
 	}
 
 	/**
@@ -310,36 +435,36 @@ public class ProgramFactory implements IProgramFactory<LambdaExpression, BaseSta
 	@Override
 	public LambdaExpression createSearchObjectExpression(LambdaExpression angleDelta, SourceLocation sourceLocation)
 			throws ModelException {
-		return new LambdaExpression((p) -> LambdaExpression.SEARCH_OBJECT.set(p, angleDelta));
+		return new LambdaExpression((p) -> LambdaExpression.SEARCH_OBJECT.set(p, angleDelta)).withOperands(angleDelta);
 	}
 
 	@Override
 	public LambdaExpression createDistanceExpression(LambdaExpression entity, SourceLocation sourceLocation)
 			throws ModelException {
-		return new LambdaExpression((p) -> LambdaExpression.DISTANCE_FROM.set(p, entity));
+		return LambdaExpression.ofDouble((p) -> LambdaExpression.DISTANCE_FROM.set(p, entity)).withOperands(entity);
 	}
 
 	@Override
 	public LambdaExpression createIsWormExpression(LambdaExpression entity, SourceLocation sourceLocation)
 			throws ModelException {
-		return new LambdaExpression((p) -> LambdaExpression.IS_WORM.set(p, entity));
+		return this.fold(LambdaExpression.ofBoolean((p) -> LambdaExpression.IS_WORM.set(p, entity)), entity);
 	}
 
 	@Override
 	public LambdaExpression createIsFoodExpression(LambdaExpression entity, SourceLocation sourceLocation)
 			throws ModelException, MustNotImplementException {
-		return new LambdaExpression((p) -> LambdaExpression.IS_FOOD.set(p, entity));
+		return this.fold(LambdaExpression.ofBoolean((p) -> LambdaExpression.IS_FOOD.set(p, entity)), entity);
 	}
 	
 	@Override
 	public LambdaExpression createIsProjectileExpression(LambdaExpression entity, SourceLocation sourceLocation)
 			throws ModelException, MustNotImplementException {
-		return new LambdaExpression((p) -> LambdaExpression.IS_PROJECTILE.set(p, entity));
+		return this.fold(LambdaExpression.ofBoolean((p) -> LambdaExpression.IS_PROJECTILE.set(p, entity)), entity);
 	}
 	
 	@Override
 	public LambdaExpression createSameTeamExpression(LambdaExpression entity, SourceLocation sourceLocation)
 			throws ModelException, MustNotImplementException {
-		return new LambdaExpression((p) -> LambdaExpression.SAME_TEAM.set(p,entity));
+		return LambdaExpression.ofBoolean((p) -> LambdaExpression.SAME_TEAM.set(p,entity)).withOperands(entity);
 	}
 }
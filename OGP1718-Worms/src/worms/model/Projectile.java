@@ -1,10 +1,13 @@
 package worms.model;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import worms.exceptions.InvalidLocationException;
 import worms.exceptions.InvalidRadiusException;
 import worms.model.ShapeHelp.Circle;
+import worms.model.ShapeHelp.Rectangle;
+import worms.model.ShapeHelp.Trajectory;
 import worms.model.interfaces.IJumpable;
 import worms.model.values.Direction;
 import worms.model.values.Location;
@@ -227,18 +230,9 @@ public class Projectile extends GameObject implements IJumpable {
 			throw new InvalidLocationException(tmp);
 		}
 		
-		ArrayList<Worm> hitWorms = new ArrayList<Worm>();
-		for (double i = 0.0; i < jumpTime; i+=timeStep) {
-			for (Object worm : this.getWorld().getAllObjectsOfType(Worm.class)) {
-				if(worm instanceof Worm) {
-					if(!hitWorms.contains(worm)&&((Worm) worm).overlapsWith(new Circle(new Location(jumpStep(i)),this.getRadius()))) {
-					//	((Worm) worm).overlapsWith(new Circle(new Location(jumpStep(i)),this.getRadius()));
-						((Worm) worm).hitByProjectile(this);
-						//((Worm) worm).setHitPoints(new HP(BigInteger.valueOf(this.getHitPoints() - this.getHitPoints())));
-						hitWorms.add(((Worm) worm));
-					}
-				}
-			}
+		List<Worm> hitWorms = this.getWormsHitDuringJump(jumpTime, timeStep);
+		for (Worm worm : hitWorms) {
+			worm.hitByProjectile(this);
 		}
 		
 		this.setLocation(tmp);	
@@ -270,35 +264,141 @@ public class Projectile extends GameObject implements IJumpable {
 	}
 	
 	private double getLastPassableJumpStepTime(double jumpTime, double deltaT) {
+		World world = this.getWorld();
+		Radius radius = this.getRadius();
+		double r = radius.getRadius();
+		//Where the surface grown by 10 percent fits, this projectile is passable and not adjacent to terrain.
+		Radius grownRadius = new Radius(r * 1.1d);
+		double jumpSpeedMagnitude = this.getJumpSpeed();
+		double speedX = jumpSpeedMagnitude * Math.cos(this.getDirection().getAngle());
+		double speedY = jumpSpeedMagnitude * Math.sin(this.getDirection().getAngle());
 		double lastAdjacentTime = 0.0;
-		Location wormLoc = new Location(this.jumpStep(lastAdjacentTime));
-		boolean bHitSomething = false;
-		while (this.getWorld().isPassable(wormLoc, this.getRadius()) && this.getWorld().fullyContains(new Circle(wormLoc,this.getRadius()).getBoundingRectangle())) {
-			if(this.getWorld().isAdjacantToImpassableTerrain(wormLoc, this.getRadius())) {
+		//The position checked lags one step behind lastAdjacentTime, except at the very start.
+		double positionTime = 0.0;
+		//The last step the terrain was looked at, and how far the grown surface can travel from there.
+		double anchorX = 0, anchorY = 0, clearance = 0;
+		while (true) {
+			//Same position as jumpStep(positionTime), without creating a location for every step.
+			double x = this.getX()+(speedX*positionTime);
+			double y = this.getY()+((speedY*positionTime) - ((1D/2D)*World.getGravity()*Math.pow(positionTime,2)));
+			//The bounding rectangle of this projectile must lie within the world.
+			double left = x - r;
+			double bottom = y - r;
+			if(!(left >= 0 && bottom >= 0 && world.getWorldWidth() >= left + r * 2 && world.getWorldHeight() >= bottom + r * 2)) {
 				break;
 			}
-			//GHOSTBULLETBUSTERS
-			for (Object worm : this.getWorld().getAllObjectsOfType(Worm.class)) {
-				if(worm instanceof Worm) {
-					if(((Worm) worm).overlapsWith(new Circle(wormLoc,this.getRadius()))) {
-						//bHitSomething = true;
-						//break;
-					}
+			if(!(Math.max(Math.abs(x - anchorX), Math.abs(y - anchorY)) < clearance)) {
+				Location wormLoc = new Location(x, y);
+				anchorX = x;
+				anchorY = y;
+				clearance = world.getClearance(wormLoc, grownRadius);
+				if(clearance == 0 && (!world.isPassable(wormLoc, radius) || world.isAdjacantToImpassableTerrain(wormLoc, radius))) {
+					break;
 				}
 			}
-			if(bHitSomething) {
-				lastAdjacentTime+=deltaT;
-				break;
-			}
-			wormLoc = new Location(this.jumpStep(lastAdjacentTime));
+			positionTime = lastAdjacentTime;
 			lastAdjacentTime+=deltaT;
 		}
 
-		
-
 		return lastAdjacentTime;
 	}
 	
+	/**
+	 * Returns the worms this projectile hits while jumping for the given time in steps of the given time step,
+	 * in the order they are hit. A worm is hit at the first step at which it overlaps this projectile;
+	 * worms hit at the same step are in the order the world lists them for the flight.
+	 * 
+	 * Only worms near the flight of this projectile are looked up, through the spatial hash of the world,
+	 * and each of those is only checked during the times it is within reach of the trajectory.
+	 * The time steps themselves are still walked one by one, adding timeStep each time, so that the times
+	 * checked are exactly those of the flight. That walk takes a single addition per step outside
+	 * the times a worm is within reach, but it does make the cost grow with the duration of the flight.
+	 * 
+	 * @param jumpTime
+	 * @param timeStep
+	 * 
+	 * @return | for each worm in result
+	 * 		   |	for some i in [0, jumpTime[ stepping by timeStep
+	 * 		   |		worm.overlapsWith(new Circle(new Location(this.jumpStep(i)), this.getRadius()))
+	 * 		   | for each worm in this.getWorld().getAllObjectsOfType(Worm.class)
+	 * 		   |	if for some i in [0, jumpTime[ stepping by timeStep
+	 * 		   |		worm.overlapsWith(new Circle(new Location(this.jumpStep(i)), this.getRadius())) then
+	 * 		   |	result.contains(worm)
+	 */
+	private List<Worm> getWormsHitDuringJump(double jumpTime, double timeStep) {
+		List<Worm> hitWorms = new ArrayList<Worm>();
+		if(!(jumpTime > 0)) {
+			return hitWorms;
+		}
+		Trajectory trajectory = this.getTrajectory();
+		double r = this.getRadius().getRadius();
+		
+		//Broad phase: worms whose bounding rectangle meets the region this projectile flies through.
+		Rectangle flight = trajectory.getBoundingRectangle(0, jumpTime, r + CONTACT_MARGIN);
+		List<Worm> worms = this.getWorld().queryRectangle(flight, Worm.class);
+		List<double[]> windows = new ArrayList<double[]>();
+		for (int index = 0; index < worms.size(); index++) {
+			Worm worm = worms.get(index);
+			//Narrow phase: the times the trajectory passes within reach of this worm.
+			double[] times = trajectory.getTimesWithin(worm.getLocation(), r + worm.getRadius().getRadius() + CONTACT_MARGIN, 0, jumpTime);
+			for (int i = 0; i < times.length; i += 2) {
+				windows.add(new double[] { times[i] - 2 * timeStep, times[i + 1] + 2 * timeStep, index });
+			}
+		}
+		windows.sort((first, second) -> Double.compare(first[0], second[0]));
+		
+		//Walk the time steps like the flight itself does, and only check the worms within reach at each step.
+		boolean[] isHit = new boolean[worms.size()];
+		List<double[]> activeWindows = new ArrayList<double[]>();
+		int nextWindow = 0;
+		for (double i = 0.0; i < jumpTime && (nextWindow < windows.size() || !activeWindows.isEmpty()); i+=timeStep) {
+			final double time = i;
+			while(nextWindow < windows.size() && windows.get(nextWindow)[0] <= time) {
+				activeWindows.add(windows.get(nextWindow++));
+			}
+			activeWindows.removeIf(window -> window[1] < time);
+			if(activeWindows.isEmpty()) {
+				continue;
+			}
+			activeWindows.sort((first, second) -> Double.compare(first[2], second[2]));
+			Circle surface = new Circle(new Location(jumpStep(time)),this.getRadius());
+			for (double[] window : activeWindows) {
+				int index = (int)window[2];
+				if(!isHit[index] && worms.get(index).overlapsWith(surface)) {
+					isHit[index] = true;
+					hitWorms.add(worms.get(index));
+				}
+			}
+		}
+		return hitWorms;
+	}
+	
+	/**
+	 * Returns the speed this projectile is launched at, which its trajectory, its jump steps and its hits all follow.
+	 * 
+	 * @return | result == getProjectileForce() / (getMass() / 1000) * 0.5
+	 */
+	private double getJumpSpeed() {
+		return this.getProjectileForce() / (this.getMass()/1000d) * 0.5;
+	}
+	
+	/**
+	 * Returns the trajectory this projectile follows when it jumps. Up to rounding, its positions are those of jumpStep.
+	 * 
+	 * @return | result.getStart() == this.getLocation() && result.getGravity() == World.getGravity()
+	 */
+	public Trajectory getTrajectory() {
+		double jumpSpeedMagnitude = this.getJumpSpeed();
+		return new Trajectory(this.getLocation(), jumpSpeedMagnitude * Math.cos(this.getDirection().getAngle()),
+				jumpSpeedMagnitude * Math.sin(this.getDirection().getAngle()), World.getGravity());
+	}
+	
+	/**
+	 * The distance beyond touching at which a worm is still considered within reach of a projectile.
+	 * Overlap is decided on distances rounded to 4 decimals, this keeps those borderline cases in reach.
+	 */
+	private final static double CONTACT_MARGIN = 1e-3;
+	
 	public double[] jumpStep(double deltaTime) throws InvalidLocationException,IllegalArgumentException,RuntimeException{
 //		if(!(this.getDirection().getAngle() >= 0 && this.getDirection().getAngle() <= Math.PI)) {
 //			throw new RuntimeException("The direction of the worm trying to jump is invalid. Not equal or larger than 0 and less than 2*PI." + this.getDirection().toString());
@@ -306,8 +406,7 @@ public class Projectile extends GameObject implements IJumpable {
 //		if(this.getProjectileForce() == 8.5d) {
 //			this.setProjectileForce(7.5d);
 //		}
-		double jumpSpeedMagnitude = this.getProjectileForce() / (this.getMass()/1000d);
-		jumpSpeedMagnitude*=0.5;
+		double jumpSpeedMagnitude = this.getJumpSpeed();
 		
 		//speed in air
 		double speedX = jumpSpeedMagnitude * Math.cos(this.getDirection().getAngle());
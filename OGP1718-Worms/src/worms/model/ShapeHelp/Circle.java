@@ -3,7 +3,6 @@ package worms.model.ShapeHelp;
 import be.kuleuven.cs.som.annotate.Basic;
 import worms.exceptions.InvalidRadiusException;
 import worms.model.GameObject;
-import worms.model.World;
 import worms.model.values.*;
 
 /**
@@ -103,10 +102,7 @@ public class Circle extends Shape {
 	 * 			| result == sqrt(square(point.getX() - getCenter().getX()) + square(point.getY() - getCenter().getY())) <= this.getRadius().getRadius()
 	 */
 	public boolean contains(Location point) {
-		double deltaX = point.getX() - getCenter().getX();
-		double deltaY = point.getY() - getCenter().getY();
-		double distance = Math.sqrt(Math.pow(deltaX, 2) + Math.pow(deltaY,2));
-		return distance <= this.getRadius().getRadius();
+		return Geometry.circleContainsPoint(getCenter().getX(), getCenter().getY(), this.getRadius().getRadius(), point.getX(), point.getY());
 	}
 	
 	/**
@@ -119,11 +115,8 @@ public class Circle extends Shape {
 	 * 			|				 <= (this.getRadius().getRadius() + c.getRadius().getRadius())
 	 */
 	public boolean contains(Circle c) {
-		double deltaX = c.getCenter().getX() - getCenter().getX();
-		double deltaY = c.getCenter().getY() - getCenter().getY();
-		double distance = Math.sqrt(Math.pow(deltaX, 2) + Math.pow(deltaY,2));
-		distance = Math.abs(distance);
-		return distance <= (this.getRadius().getRadius() + c.getRadius().getRadius());
+		return Geometry.circlesTouch(getCenter().getX(), getCenter().getY(), this.getRadius().getRadius(),
+				c.getCenter().getX(), c.getCenter().getY(), c.getRadius().getRadius());
 	}
 	
 	/**
@@ -136,16 +129,8 @@ public class Circle extends Shape {
 	 * 			|				 < (this.getRadius().getRadius() + c.getRadius().getRadius())	 
 	 */
 	public boolean overlaps(Circle c) {
-		double deltaX = c.getCenter().getX() - getCenter().getX();
-		double deltaY = c.getCenter().getY() - getCenter().getY();
-		double distance = Math.sqrt(Math.pow(deltaX, 2) + Math.pow(deltaY,2));
-		distance = Math.abs(distance);
-		distance = World.roundingHelper(distance, 4);
-		double other = World.roundingHelper((this.getRadius().getRadius() + c.getRadius().getRadius()),4);
-//		if(other == distance) {
-//			return false;
-//		}
-		return distance < World.roundingHelper((this.getRadius().getRadius() + c.getRadius().getRadius()),4);
+		return Geometry.circlesOverlap(getCenter().getX(), getCenter().getY(), this.getRadius().getRadius(),
+				c.getCenter().getX(), c.getCenter().getY(), c.getRadius().getRadius());
 	}
 	
 	/**
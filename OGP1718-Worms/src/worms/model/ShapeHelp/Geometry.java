@@ -0,0 +1,125 @@
+package worms.model.ShapeHelp;
+
+/**
+ * The geometry behind circles and rectangles, working on plain coordinates.
+ * Every check takes the centres, radii and sizes as doubles and compares squared distances,
+ * so that callers holding the numbers already don't need to create any shapes or locations.
+ *
+ * Rectangles are given by the coordinates of their corner with the smallest coordinates, followed by their width and height,
+ * in the same way as Rectangle keeps them.
+ *
+ * @author bernd
+ *
+ */
+public final class Geometry {
+
+	private Geometry() {
+	}
+
+	/**
+	 * The precision overlapping circles are decided at: distances and radii are compared after rounding to this precision.
+	 */
+	public static final double TOLERANCE = 1e-4;
+
+	/**
+	 * Checks whether the point with the given coordinates lies within the circle with the given centre and radius.
+	 *
+	 * @param centerX
+	 * @param centerY
+	 * @param radius
+	 * @param pointX
+	 * @param pointY
+	 * @return | result == square(pointX - centerX) + square(pointY - centerY) <= square(radius)
+	 */
+	public static boolean circleContainsPoint(double centerX, double centerY, double radius, double pointX, double pointY) {
+		double deltaX = pointX - centerX;
+		double deltaY = pointY - centerY;
+		return deltaX * deltaX + deltaY * deltaY <= radius * radius;
+	}
+
+	/**
+	 * Checks whether the two circles with the given centres and radii touch or overlap.
+	 *
+	 * @return | result == square(x2 - x1) + square(y2 - y1) <= square(radius1 + radius2)
+	 */
+	public static boolean circlesTouch(double x1, double y1, double radius1, double x2, double y2, double radius2) {
+		double deltaX = x2 - x1;
+		double deltaY = y2 - y1;
+		double radii = radius1 + radius2;
+		return deltaX * deltaX + deltaY * deltaY <= radii * radii;
+	}
+
+	/**
+	 * Checks whether the two circles with the given centres and radii overlap, deciding at a precision of TOLERANCE:
+	 * circles that only touch after rounding don't overlap.
+	 *
+	 * @return | result == round(sqrt(square(x2 - x1) + square(y2 - y1)), TOLERANCE) < round(radius1 + radius2, TOLERANCE)
+	 */
+	public static boolean circlesOverlap(double x1, double y1, double radius1, double x2, double y2, double radius2) {
+		double deltaX = x2 - x1;
+		double deltaY = y2 - y1;
+		//Rounding moves the distance and the sum of the radii by at most half of TOLERANCE each,
+		//so outside of a band of ROUNDING_BAND around the sum the answer is known without rounding.
+		double squaredDistance = deltaX * deltaX + deltaY * deltaY;
+		double radii = radius1 + radius2;
+		if(squaredDistance >= (radii + ROUNDING_BAND) * (radii + ROUNDING_BAND)) {
+			return false;
+		}
+		if(radii > ROUNDING_BAND && squaredDistance <= (radii - ROUNDING_BAND) * (radii - ROUNDING_BAND)) {
+			return true;
+		}
+		return round(Math.sqrt(squaredDistance)) < round(radii);
+	}
+
+	/**
+	 * The distance from the sum of the radii beyond which circlesOverlap doesn't need to round.
+	 * Twice the largest change rounding can make, for safety against the error on the squares.
+	 */
+	private static final double ROUNDING_BAND = 2 * TOLERANCE;
+
+	/**
+	 * Rounds the given number to a multiple of TOLERANCE, the way World.roundingHelper rounds to 4 decimals.
+	 */
+	private static double round(double d) {
+		return Math.round(d * SCALE) / SCALE;
+	}
+
+	/**
+	 * The inverse of TOLERANCE, as an exact power of ten.
+	 */
+	private static final double SCALE = 1e4;
+
+	/**
+	 * Checks whether the point with the given coordinates lies within the given rectangle, edges included.
+	 *
+	 * @return | result == x <= pointX && pointX <= x + width && y <= pointY && pointY <= y + height
+	 */
+	public static boolean rectangleContainsPoint(double x, double y, double width, double height, double pointX, double pointY) {
+		return pointX >= x && pointX <= x + width && pointY >= y && pointY <= y + height;
+	}
+
+	/**
+	 * Checks whether the two given rectangles share more than an edge.
+	 *
+	 * @return | result == x1 < x2 + width2 && x1 + width1 > x2 && y1 < y2 + height2 && y1 + height1 > y2
+	 */
+	public static boolean rectanglesIntersect(double x1, double y1, double width1, double height1,
+			double x2, double y2, double width2, double height2) {
+		return x1 < x2 + width2 && x1 + width1 > x2 && y1 < y2 + height2 && y1 + height1 > y2;
+	}
+
+	/**
+	 * Checks whether the given rectangle and the circle with the given centre and radius share more than a point,
+	 * by measuring the distance from the centre to the point of the rectangle closest to it.
+	 *
+	 * @return | let closestX = max(x, min(centerX, x + width)) in
+	 * 		   | let closestY = max(y, min(centerY, y + height)) in
+	 * 		   | result == square(centerX - closestX) + square(centerY - closestY) < square(radius)
+	 */
+	public static boolean rectangleIntersectsCircle(double x, double y, double width, double height,
+			double centerX, double centerY, double radius) {
+		double deltaX = centerX - Math.max(x, Math.min(centerX, x + width));
+		double deltaY = centerY - Math.max(y, Math.min(centerY, y + height));
+		return deltaX * deltaX + deltaY * deltaY < radius * radius;
+	}
+}
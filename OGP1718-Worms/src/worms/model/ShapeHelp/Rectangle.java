@@ -77,12 +77,8 @@ public class Rectangle extends Shape {
 	 * 			|	&& loc.getY() <= this.getCenter().getY() + this.getSize().getY()
 	 */
 	public boolean containsPoint(Location loc) {
-		if(loc.getX() >= this.getCenter().getX() && loc.getX() <= this.getCenter().getX() + this.getSize().getX()) {
-			if(loc.getY() >= this.getCenter().getY() && loc.getY() <= this.getCenter().getY() + this.getSize().getY()) {
-				return true;
-			}
-		}
-		return false;
+		return Geometry.rectangleContainsPoint(this.getCenter().getX(), this.getCenter().getY(), this.getSize().getX(), this.getSize().getY(),
+				loc.getX(), loc.getY());
 	}
 
 	/**
@@ -103,25 +99,22 @@ public class Rectangle extends Shape {
 				&& (this.getCenter().getY()+this.getSize().getY()) >= (boundingRectangle.getCenter().getY() + boundingRectangle.getSize().getY());
 	}
 	
-	//TODO
+	/**
+	 * Checks whether this rectangle and a given circle share more than a point.
+	 * 
+	 * @param c
+	 * @return	| let closest = Location(max(this.getCenter().getX(), min(c.getCenter().getX(), this.getCenter().getX() + this.getSize().getX())),
+	 * 			|		max(this.getCenter().getY(), min(c.getCenter().getY(), this.getCenter().getY() + this.getSize().getY()))) in
+	 * 			| result == closest.getDistanceFrom(c.getCenter()) < c.getRadius().getRadius()
+	 */
 	public boolean intersects(Circle c) {
-		if(this.fullyContains(c.getBoundingRectangle())) {
-			return true;
-		}
-		for (double x = 0; x < this.getSize().getX(); x+=this.getSize().getY()/10) {
-			for (double y = 0;  y < this.getSize().getY(); y+=this.getSize().getY()/10) {
-				Location loc = new Location(this.getCenter().getX()+x, this.getCenter().getY()+y);
-				if(loc.getDistanceFrom(c.getCenter())<c.getRadius().getRadius()) {
-					return true;
-				}
-			}
-		}
-		return false;
+		return Geometry.rectangleIntersectsCircle(this.getCenter().getX(), this.getCenter().getY(), this.getSize().getX(), this.getSize().getY(),
+				c.getCenter().getX(), c.getCenter().getY(), c.getRadius().getRadius());
 	}
 
 	public boolean intersects(Rectangle r) {
-		return this.getCenter().getX() < r.getCenter().getX() + r.getSize().getX() && this.getCenter().getX() + this.getSize().getX() > r.getCenter().getX() &&
-				this.getCenter().getY() < r.getCenter().getY() + r.getSize().getY() && this.getCenter().getY() + this.getSize().getY() > r.getCenter().getY();
+		return Geometry.rectanglesIntersect(this.getCenter().getX(), this.getCenter().getY(), this.getSize().getX(), this.getSize().getY(),
+				r.getCenter().getX(), r.getCenter().getY(), r.getSize().getX(), r.getSize().getY());
 	}
 	
 	//TODO
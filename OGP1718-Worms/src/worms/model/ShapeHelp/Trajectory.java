@@ -0,0 +1,210 @@
+package worms.model.ShapeHelp;
+
+import be.kuleuven.cs.som.annotate.*;
+import worms.model.values.Location;
+
+/**
+ * A class describing the ballistic path of a point: it leaves a given start with a given velocity
+ * and is pulled down by a given gravity. The horizontal position is linear in time, the vertical position quadratic.
+ *
+ * @author bernd
+ *
+ * @invar | getGravity() > 0
+ */
+@Value
+public class Trajectory {
+
+	/**
+	 * Creates a new trajectory.
+	 *
+	 * @param start
+	 * @param speedX
+	 * @param speedY
+	 * @param gravity
+	 *
+	 * @post | new.getStart() == start
+	 * @post | new.getSpeedX() == speedX
+	 * @post | new.getSpeedY() == speedY
+	 * @post | new.getGravity() == gravity
+	 *
+	 * @throws IllegalArgumentException
+	 * 		| start == null || !(gravity > 0) || Double.isNaN(speedX) || Double.isNaN(speedY)
+	 */
+	public Trajectory(Location start, double speedX, double speedY, double gravity) throws IllegalArgumentException {
+		if(start == null || !(gravity > 0) || Double.isNaN(speedX) || Double.isNaN(speedY)) {
+			throw new IllegalArgumentException("Invalid trajectory.");
+		}
+		this.start = start;
+		this.speedX = speedX;
+		this.speedY = speedY;
+		this.gravity = gravity;
+	}
+
+	/**
+	 * Returns the location this trajectory starts from.
+	 */
+	@Basic @Immutable
+	public Location getStart() {
+		return this.start;
+	}
+
+	/**
+	 * Returns the horizontal speed along this trajectory.
+	 */
+	@Basic @Immutable
+	public double getSpeedX() {
+		return this.speedX;
+	}
+
+	/**
+	 * Returns the initial vertical speed along this trajectory.
+	 */
+	@Basic @Immutable
+	public double getSpeedY() {
+		return this.speedY;
+	}
+
+	/**
+	 * Returns the gravity pulling down along this trajectory.
+	 */
+	@Basic @Immutable
+	public double getGravity() {
+		return this.gravity;
+	}
+
+	/**
+	 * Returns the horizontal position at the given time.
+	 *
+	 * @param time
+	 * @return | result == getStart().getX() + getSpeedX() * time
+	 */
+	public double getX(double time) {
+		return start.getX() + speedX * time;
+	}
+
+	/**
+	 * Returns the vertical position at the given time.
+	 *
+	 * @param time
+	 * @return | result == getStart().getY() + getSpeedY() * time - getGravity() / 2 * time * time
+	 */
+	public double getY(double time) {
+		return start.getY() + speedY * time - gravity / 2 * time * time;
+	}
+
+	/**
+	 * Returns the smallest rectangle holding every position of this trajectory between the given times,
+	 * grown by the given margin on all sides.
+	 *
+	 * @param timeMin
+	 * @param timeMax
+	 * @param margin
+	 *
+	 * @return | for each time in [timeMin, timeMax]
+	 * 		   |	result.getCenter().getX() + margin <= getX(time) <= result.getCenter().getX() + result.getSize().getX() - margin
+	 * 		   |	result.getCenter().getY() + margin <= getY(time) <= result.getCenter().getY() + result.getSize().getY() - margin
+	 *
+	 * @throws IllegalArgumentException
+	 * 		| !(timeMin <= timeMax) || !(margin > 0)
+	 */
+	public Rectangle getBoundingRectangle(double timeMin, double timeMax, double margin) throws IllegalArgumentException {
+		if(!(timeMin <= timeMax) || !(margin > 0)) {
+			throw new IllegalArgumentException("Invalid bounds for a trajectory.");
+		}
+		double xMin = Math.min(getX(timeMin), getX(timeMax));
+		double xMax = Math.max(getX(timeMin), getX(timeMax));
+		double yMin = Math.min(getY(timeMin), getY(timeMax));
+		double yMax = Math.max(getY(timeMin), getY(timeMax));
+		double apex = speedY / gravity;
+		if(apex > timeMin && apex < timeMax) {
+			yMax = Math.max(yMax, getY(apex));
+		}
+		return new Rectangle(new Location(xMin - margin, yMin - margin), new Location(xMax - xMin + 2 * margin, yMax - yMin + 2 * margin));
+	}
+
+	/**
+	 * Returns the time intervals between the given times during which this trajectory lies within
+	 * the given distance of the given centre along both axes. Every moment this trajectory is
+	 * closer to the centre than the distance lies in one of these intervals.
+	 * The result holds the start and end of each interval in turn, in increasing order; there are at most two intervals.
+	 *
+	 * @param center
+	 * @param distance
+	 * @param timeMin
+	 * @param timeMax
+	 *
+	 * @return | for each time in [timeMin, timeMax]
+	 * 		   |	if Math.abs(getX(time) - center.getX()) < distance && Math.abs(getY(time) - center.getY()) < distance then
+	 * 		   |		for some i in [0, result.length / 2[
+	 * 		   |			result[2 * i] <= time <= result[2 * i + 1]
+	 */
+	public double[] getTimesWithin(Location center, double distance, double timeMin, double timeMax) {
+		//Horizontally: a single interval, the path is a straight line.
+		double low = timeMin, high = timeMax;
+		if(speedX == 0) {
+			if(!(Math.abs(start.getX() - center.getX()) < distance)) {
+				return NO_TIMES;
+			}
+		}else {
+			double enter = (center.getX() - distance - start.getX()) / speedX;
+			double leave = (center.getX() + distance - start.getX()) / speedX;
+			low = Math.max(low, Math.min(enter, leave));
+			high = Math.min(high, Math.max(enter, leave));
+		}
+		//Above the bottom of the square: between the roots, the path is a downward parabola.
+		double[] above = getTimesAt(center.getY() - distance);
+		if(above == null) {
+			return NO_TIMES;
+		}
+		low = Math.max(low, above[0]);
+		high = Math.min(high, above[1]);
+		if(!(low <= high)) {
+			return NO_TIMES;
+		}
+		//Below the top of the square: outside of the roots.
+		double[] over = getTimesAt(center.getY() + distance);
+		if(over == null || over[1] <= low || over[0] >= high) {
+			return new double[] { low, high };
+		}
+		if(over[0] <= low && over[1] >= high) {
+			return NO_TIMES;
+		}
+		if(over[0] <= low) {
+			return new double[] { over[1], high };
+		}
+		if(over[1] >= high) {
+			return new double[] { low, over[0] };
+		}
+		return new double[] { low, over[0], over[1], high };
+	}
+
+	/**
+	 * Returns the two times at which this trajectory passes the given height, the earliest first,
+	 * or null if it never reaches that height.
+	 */
+	private double[] getTimesAt(double height) {
+		//gravity/2 t^2 - speedY t + (height - startY) = 0
+		double a = gravity / 2;
+		double b = -speedY;
+		double c = height - start.getY();
+		double discriminant = b * b - 4 * a * c;
+		if(discriminant < 0) {
+			return null;
+		}
+		double root = Math.sqrt(discriminant);
+		return new double[] { (-b - root) / (2 * a), (-b + root) / (2 * a) };
+	}
+
+	/**
+	 * An empty set of time intervals.
+	 */
+	private static final double[] NO_TIMES = new double[0];
+
+	private final Location start;
+
+	private final double speedX;
+
+	private final double speedY;
+
+	private final double gravity;
+}
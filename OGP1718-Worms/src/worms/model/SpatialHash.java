@@ -0,0 +1,324 @@
+package worms.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.function.Predicate;
+
+import be.kuleuven.cs.som.annotate.*;
+import worms.model.ShapeHelp.Circle;
+import worms.model.ShapeHelp.Geometry;
+import worms.model.ShapeHelp.Rectangle;
+import worms.model.values.Location;
+import worms.model.values.Radius;
+
+/**
+ * A uniform grid of square cells over the plane, holding game objects in every cell their bounding rectangle covers.
+ * Looking up the objects near a location only visits the cells around it, so the cost of a lookup
+ * depends on how crowded that part of the world is, and not on the number of objects in the world.
+ *
+ * @invar | getCellSize() > 0
+ *
+ * @author bernd
+ *
+ */
+public class SpatialHash {
+
+	/**
+	 * Creates an empty spatial hash with cells of the given size.
+	 *
+	 * @param cellSize
+	 *
+	 * @post | new.getCellSize() == cellSize
+	 * @post | new.size() == 0
+	 *
+	 * @throws IllegalArgumentException
+	 * 		| !(cellSize > 0) || Double.isInfinite(cellSize)
+	 */
+	public SpatialHash(double cellSize) throws IllegalArgumentException {
+		if(!(cellSize > 0) || Double.isInfinite(cellSize)) {
+			throw new IllegalArgumentException("Invalid cell size " + cellSize);
+		}
+		this.cellSize = cellSize;
+	}
+
+	/**
+	 * Returns the length of the sides of the cells of this spatial hash.
+	 */
+	@Basic @Immutable
+	public double getCellSize() {
+		return this.cellSize;
+	}
+
+	/**
+	 * Returns the number of objects in this spatial hash.
+	 */
+	@Basic
+	public int size() {
+		return this.ranges.size();
+	}
+
+	/**
+	 * Checks whether this spatial hash holds the given object.
+	 *
+	 * @param gameObject
+	 */
+	@Basic
+	public boolean contains(GameObject gameObject) {
+		return this.ranges.containsKey(gameObject);
+	}
+
+	/**
+	 * Adds the given object to this spatial hash, in the cells covered by its current location and radius.
+	 * Nothing happens if this spatial hash already holds the object.
+	 *
+	 * @param gameObject
+	 *
+	 * @post | new.contains(gameObject)
+	 */
+	public void add(GameObject gameObject) {
+		if(this.contains(gameObject)) {
+			return;
+		}
+		int[] range = getCellRange(gameObject.getLocation(), gameObject.getRadius().getRadius());
+		this.ranges.put(gameObject, range);
+		for (int cx = range[0]; cx <= range[2]; cx++) {
+			for (int cy = range[1]; cy <= range[3]; cy++) {
+				this.cells.computeIfAbsent(getKey(cx, cy), key -> new ArrayList<GameObject>(4)).add(gameObject);
+			}
+		}
+	}
+
+	/**
+	 * Removes the given object from this spatial hash. Nothing happens if this spatial hash doesn't hold the object.
+	 *
+	 * @param gameObject
+	 *
+	 * @post | !new.contains(gameObject)
+	 */
+	public void remove(GameObject gameObject) {
+		int[] range = this.ranges.remove(gameObject);
+		if(range == null) {
+			return;
+		}
+		for (int cx = range[0]; cx <= range[2]; cx++) {
+			for (int cy = range[1]; cy <= range[3]; cy++) {
+				Long key = getKey(cx, cy);
+				List<GameObject> cell = this.cells.get(key);
+				removeIdentical(cell, gameObject);
+				if(cell.isEmpty()) {
+					this.cells.remove(key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Moves the given object to the cells covered by its current location and radius.
+	 * Only objects this spatial hash already holds are moved.
+	 *
+	 * @param gameObject
+	 *
+	 * @effect | if this.contains(gameObject) then
+	 * 		   |	this.remove(gameObject) && this.add(gameObject)
+	 */
+	public void update(GameObject gameObject) {
+		int[] range = this.ranges.get(gameObject);
+		if(range == null) {
+			return;
+		}
+		int[] newRange = getCellRange(gameObject.getLocation(), gameObject.getRadius().getRadius());
+		if(!Arrays.equals(range, newRange)) {
+			this.remove(gameObject);
+			this.add(gameObject);
+		}
+	}
+
+	/**
+	 * Returns the objects of the given type in this spatial hash that overlap the circle with the given centre and radius.
+	 * The type is matched the way World.getAllObjectsOfType matches it.
+	 *
+	 * @param center
+	 * @param radius
+	 * @param type
+	 *
+	 * @return | for each gameObject in result
+	 * 		   |	this.contains(gameObject) && gameObject.getTypeID().getGameObjectType() == type
+	 * 		   |	&& gameObject.overlapsWith(new Circle(center, radius))
+	 * 		   | for each gameObject in this
+	 * 		   |	if gameObject.getTypeID().getGameObjectType() == type && gameObject.overlapsWith(new Circle(center, radius)) then
+	 * 		   |		result.contains(gameObject)
+	 */
+	public <T extends GameObject> List<T> queryCircle(Location center, Radius radius, Class<? extends GameObject> type) {
+		Circle surface = new Circle(center, radius);
+		//Overlap is decided on rounded distances, so reach a little further than the radius.
+		return query(getCellRange(center, radius.getRadius() + QUERY_MARGIN), type, gameObject -> gameObject.overlapsWith(surface));
+	}
+
+	/**
+	 * Returns the objects of the given type in this spatial hash whose bounding rectangle shares more than a point
+	 * with the given rectangle. The type is matched the way World.getAllObjectsOfType matches it.
+	 *
+	 * @param rectangle
+	 * @param type
+	 *
+	 * @return | for each gameObject in result
+	 * 		   |	this.contains(gameObject) && gameObject.getTypeID().getGameObjectType() == type
+	 * 		   |	&& rectangle.intersects(new Circle(gameObject).getBoundingRectangle())
+	 * 		   | for each gameObject in this
+	 * 		   |	if gameObject.getTypeID().getGameObjectType() == type
+	 * 		   |	&& rectangle.intersects(new Circle(gameObject).getBoundingRectangle()) then
+	 * 		   |		result.contains(gameObject)
+	 */
+	public <T extends GameObject> List<T> queryRectangle(Rectangle rectangle, Class<? extends GameObject> type) {
+		double x = rectangle.getCenter().getX();
+		double y = rectangle.getCenter().getY();
+		double width = rectangle.getSize().getX();
+		double height = rectangle.getSize().getY();
+		int[] range = new int[] { getCell(x), getCell(y), getCell(x + width), getCell(y + height) };
+		return query(range, type, gameObject -> {
+			double radius = gameObject.getRadius().getRadius();
+			return Geometry.rectanglesIntersect(x, y, width, height,
+					gameObject.getLocation().getX() - radius, gameObject.getLocation().getY() - radius, 2 * radius, 2 * radius);
+		});
+	}
+
+	/**
+	 * Returns the objects of the given type in this spatial hash that lie in the given range of cells and pass the given test.
+	 * The range is given as the lowest and highest cell along both axes: { xMin, yMin, xMax, yMax }.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T extends GameObject> List<T> query(int[] range, Class<? extends GameObject> type, Predicate<GameObject> test) {
+		List<T> result = new ArrayList<T>();
+		if(((long)range[2] - range[0] + 1) * ((long)range[3] - range[1] + 1) > this.ranges.size()) {
+			//A query covering more cells than there are objects is answered faster by looking at every object.
+			for (GameObject gameObject : this.ranges.keySet()) {
+				if(gameObject.getTypeID().getGameObjectType() == type && test.test(gameObject)) {
+					result.add((T)gameObject);
+				}
+			}
+			return result;
+		}
+		for (int cx = range[0]; cx <= range[2]; cx++) {
+			for (int cy = range[1]; cy <= range[3]; cy++) {
+				List<GameObject> cell = this.cells.get(getKey(cx, cy));
+				if(cell == null) {
+					continue;
+				}
+				for (GameObject gameObject : cell) {
+					//An object covering several cells is only reported from the first cell it shares with the query.
+					int[] objectRange = this.ranges.get(gameObject);
+					if(cx != Math.max(range[0], objectRange[0]) || cy != Math.max(range[1], objectRange[1])) {
+						continue;
+					}
+					if(gameObject.getTypeID().getGameObjectType() == type && test.test(gameObject)) {
+						result.add((T)gameObject);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the objects of the given type in this spatial hash, other than the given object, that overlap the given object.
+	 *
+	 * @param gameObject
+	 * @param type
+	 *
+	 * @return | for each other in result
+	 * 		   |	this.contains(other) && other != gameObject && other.getTypeID().getGameObjectType() == type
+	 * 		   |	&& gameObject.overlapsWith(other)
+	 * 		   | for each other in this
+	 * 		   |	if other != gameObject && other.getTypeID().getGameObjectType() == type && gameObject.overlapsWith(other) then
+	 * 		   |		result.contains(other)
+	 */
+	public <T extends GameObject> List<T> queryOverlapping(GameObject gameObject, Class<? extends GameObject> type) {
+		List<T> result = this.queryCircle(gameObject.getLocation(), gameObject.getRadius(), type);
+		removeIdentical(result, gameObject);
+		return result;
+	}
+
+	/**
+	 * Returns an object in this spatial hash whose surface contains the point with the given coordinates,
+	 * leaving out the given object, or null if there is none. Only the objects in the cell of the point are looked at;
+	 * of several objects containing the point, the one that entered that cell first is returned.
+	 *
+	 * @param pointX
+	 * @param pointY
+	 * @param excluded
+	 *
+	 * @return | if result != null then
+	 * 		   |	this.contains(result) && result != excluded && result.getSurface().contains(new Location(pointX, pointY))
+	 * 		   | for each gameObject in this
+	 * 		   |	if gameObject != excluded && gameObject.getSurface().contains(new Location(pointX, pointY)) then
+	 * 		   |		result != null
+	 */
+	public GameObject findContaining(double pointX, double pointY, GameObject excluded) {
+		//An object containing the point covers it with its bounding rectangle, and so covers the cell of the point.
+		List<GameObject> cell = this.cells.get(getKey(getCell(pointX), getCell(pointY)));
+		if(cell == null) {
+			return null;
+		}
+		for (GameObject gameObject : cell) {
+			if(gameObject != excluded && Geometry.circleContainsPoint(gameObject.getLocation().getX(), gameObject.getLocation().getY(),
+					gameObject.getRadius().getRadius(), pointX, pointY)) {
+				return gameObject;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the cells covered by the bounding rectangle of the circle with the given centre and radius,
+	 * as the lowest and highest cell along both axes: { xMin, yMin, xMax, yMax }.
+	 */
+	private int[] getCellRange(Location center, double radius) {
+		return new int[] { getCell(center.getX() - radius), getCell(center.getY() - radius),
+				getCell(center.getX() + radius), getCell(center.getY() + radius) };
+	}
+
+	private int getCell(double coordinate) {
+		return (int)Math.max(-MAX_CELL, Math.min(MAX_CELL, Math.floor(coordinate / this.cellSize)));
+	}
+
+	/**
+	 * The highest cell coordinate in use. Coordinates further out share the outermost cells.
+	 */
+	private static final int MAX_CELL = 1 << 30;
+
+	private static Long getKey(int cx, int cy) {
+		return ((long)cx << 32) | (cy & 0xffffffffL);
+	}
+
+	/**
+	 * Removes the given object itself from the given list, ignoring objects that are merely equal to it.
+	 */
+	private static void removeIdentical(List<? extends GameObject> cell, GameObject gameObject) {
+		for (int i = 0; i < cell.size(); i++) {
+			if(cell.get(i) == gameObject) {
+				cell.remove(i);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * The distance beyond the radius of a query at which objects are still looked at.
+	 */
+	private static final double QUERY_MARGIN = 1e-3;
+
+	private final double cellSize;
+
+	/**
+	 * The objects in every non-empty cell, keyed by the coordinates of the cell.
+	 */
+	private final HashMap<Long, List<GameObject>> cells = new HashMap<Long, List<GameObject>>();
+
+	/**
+	 * The cells covered by every object of this spatial hash.
+	 */
+	private final IdentityHashMap<GameObject, int[]> ranges = new IdentityHashMap<GameObject, int[]>();
+}
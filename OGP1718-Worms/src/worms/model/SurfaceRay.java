@@ -0,0 +1,132 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.*;
+import worms.exceptions.InvalidRadiusException;
+import worms.model.ShapeHelp.Circle;
+import worms.model.values.Direction;
+import worms.model.values.Location;
+import worms.model.values.Radius;
+
+/**
+ * A circular surface swept along a straight ray through the terrain of a world.
+ * Passability along the ray is answered by conservative advancement: every full check also asks the world
+ * how far the surface can travel from that point while staying passable, and points within that clearance
+ * are passable without looking at the terrain again. Only close to impassable terrain is every point checked.
+ *
+ * Points on the ray are computed exactly like a worm steps in a direction, so a march over the same
+ * distances gives the same locations and the same answers as checking every location separately.
+ *
+ * @invar | getWorld() != null
+ *
+ * @author bernd
+ *
+ */
+public class SurfaceRay {
+
+	/**
+	 * Creates a ray for a surface with the given radius, leaving the given origin in the given direction.
+	 *
+	 * @param world
+	 * @param origin
+	 * @param direction
+	 * @param radius
+	 *
+	 * @post | new.getWorld() == world
+	 * @post | new.getOrigin() == origin
+	 * @post | new.getRadius() == radius
+	 *
+	 * @throws IllegalArgumentException
+	 * 		| world == null
+	 * @throws InvalidRadiusException
+	 * 		| !Circle.isValidRadius(radius)
+	 */
+	public SurfaceRay(World world, Location origin, Direction direction, Radius radius) throws IllegalArgumentException, InvalidRadiusException {
+		if(world == null) {
+			throw new IllegalArgumentException("A ray needs a world to travel through.");
+		}
+		if(!Circle.isValidRadius(radius)) {
+			throw new InvalidRadiusException(radius);
+		}
+		this.world = world;
+		this.origin = origin;
+		this.radius = radius;
+		this.cos = Math.cos(direction.getAngle());
+		this.sin = Math.sin(direction.getAngle());
+	}
+
+	/**
+	 * Returns the world this ray travels through.
+	 */
+	@Basic @Immutable
+	public World getWorld() {
+		return this.world;
+	}
+
+	/**
+	 * Returns the location this ray leaves from.
+	 */
+	@Basic @Immutable
+	public Location getOrigin() {
+		return this.origin;
+	}
+
+	/**
+	 * Returns the radius of the surface swept along this ray.
+	 */
+	@Basic @Immutable
+	public Radius getRadius() {
+		return this.radius;
+	}
+
+	/**
+	 * Returns the location at the given distance along this ray.
+	 *
+	 * @param distance
+	 *
+	 * @return | result.getX() == Math.cos(direction.getAngle()) * distance + getOrigin().getX()
+	 * 		   | result.getY() == Math.sin(direction.getAngle()) * distance + getOrigin().getY()
+	 */
+	public Location getLocation(double distance) {
+		return new Location(cos * distance + origin.getX(), sin * distance + origin.getY());
+	}
+
+	/**
+	 * Checks whether the surface is passable at the given distance along this ray.
+	 *
+	 * @param distance
+	 *
+	 * @return | result == getWorld().isPassable(getLocation(distance), getRadius())
+	 */
+	public boolean isPassable(double distance) {
+		double x = cos * distance + origin.getX();
+		double y = sin * distance + origin.getY();
+		if(Math.max(Math.abs(x - anchorX), Math.abs(y - anchorY)) < clearance) {
+			return true;
+		}
+		Location location = new Location(x, y);
+		double newClearance = world.getClearance(location, radius);
+		if(newClearance > 0) {
+			this.anchorX = x;
+			this.anchorY = y;
+			this.clearance = newClearance;
+			return true;
+		}
+		return world.isPassable(location, radius);
+	}
+
+	private final World world;
+
+	private final Location origin;
+
+	private final Radius radius;
+
+	private final double cos;
+
+	private final double sin;
+
+	/**
+	 * The last point found to have a clearance, and that clearance. Every point closer to the anchor
+	 * than the clearance along both axes is passable.
+	 */
+	private double anchorX, anchorY, clearance = 0;
+}
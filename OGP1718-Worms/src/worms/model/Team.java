@@ -1,10 +1,13 @@
 package worms.model;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 import be.kuleuven.cs.som.annotate.*;
 import worms.model.values.Name;
@@ -84,9 +87,20 @@ public class Team {
 	 */
 	private final boolean hasWorldAssigned;
 	/**
-	 * All the living worms in this team.
+	 * All the living worms in this team, by name. Names are unique within a team, so this also keeps them in alphabetical order.
+	 * 
+	 * @invar | for each name in teamRoster.keySet()
+	 * 		  |		teamRoster.get(name).getName().equals(name) && teamRoster.get(name).getTeam() == this
 	 */
-	private ArrayList <Worm> teamRoster = new ArrayList<Worm>();
+	private TreeMap<String, Worm> teamRoster = new TreeMap<String, Worm>();
+	
+	/**
+	 * The masses of the worms in this team, each with the number of worms that have it.
+	 * 
+	 * @invar | for each mass in teamMasses.keySet()
+	 * 		  |		teamMasses.get(mass) == number of worm in teamRoster.values() with worm.getMass() == mass
+	 */
+	private TreeMap<Double, Integer> teamMasses = new TreeMap<Double, Integer>();
 	/**
 	 * The world, if any, this team is created in.
 	 */
@@ -114,26 +128,19 @@ public class Team {
 	 * @post | worm.getTeam == this
 	 */
 	public void addWorm(Worm ... worms) throws IllegalArgumentException {
+		Set<Worm> added = Collections.newSetFromMap(new IdentityHashMap<Worm, Boolean>());
+		Set<String> addedNames = new HashSet<String>();
 		for (Worm worm : worms) {
 			
 			if(worm.isTerminated())
 				throw new IllegalArgumentException("Given worm was terminated");
 			
-			if(Arrays.stream(worms).filter(w->w == worm).collect(Collectors.toList()).size() > 1) {
+			if(!added.add(worm)) {
 				throw new IllegalArgumentException();
 			}
 			
-			for (Worm teamWorm : teamRoster) {
-				if(!worm.hasCorrectTeamMass(teamWorm)) {
-					throw new IllegalArgumentException();
-				}
-			}
-			for (Worm otherWorm : worms) {
-				if(otherWorm != worm) {
-					if(otherWorm.hasTheSameNameAs(worm)) {
-						throw new IllegalArgumentException();
-					}
-				}
+			if(!addedNames.add(worm.getName())) {
+				throw new IllegalArgumentException();
 			}
 			
 			if(worm.getTeam() != null) {
@@ -144,52 +151,22 @@ public class Team {
 				throw new IllegalArgumentException("Worm cannot be added to the team.");
 			}
 		}
-
-		
 		
 		for (Worm worm : worms) {
-			if(teamRoster.isEmpty()) {
-				worm.setTeam(this);
-				teamRoster.add(worm);
-			}else {
-				int index = sortInTeamRoster(worm);
-				worm.setTeam(this);
-				teamRoster.add(index, worm);
-			}
+			worm.setTeam(this);
+			teamRoster.put(worm.getName(), worm);
+			addMass(worm.getMass());
 		}
 	}
+	
 	/**
 	 * Returns the index position for a given worm that will be added to this team.
 	 * 
 	 * @param worm
-	 * @return |while(low <= high) then
-	 * 		   | mid = (low+high)/2
-	 * 		   | if mid.getName().compareTo(worm.getName) == 0 then
-	 * 		   | 	return mid
-	 * 		   | else if mid.getName().compareTo(worm.getName) < 0 then
-	 * 		   | 	low = mid+1
-	 * 		   | else if mid.getName().compareTo(worm.getName) > 0 then
-	 * 		   | 	high = mid - 1
-	 * 		   |return low
+	 * @return | result == number of name in teamRoster.keySet() with name.compareTo(worm.getName()) < 0
 	 */
 	public int sortInTeamRoster(Worm worm) {
-		int low = 0;
-		int high = teamRoster.size() -1;
-
-		while(low <= high) {
-			int mid = (low+high)/2;
-			if(teamRoster.get(mid).getName().compareTo(worm.getName()) == 0){
-				return mid;
-			}
-			else if(teamRoster.get(mid).getName().compareTo(worm.getName()) < 0){
-				low = mid+1;
-			}
-			else if(teamRoster.get(mid).getName().compareTo(worm.getName()) > 0){
-				high = mid -1;
-			}
-
-		}
-		return low;
+		return teamRoster.headMap(worm.getName()).size();
 	}
 
 	/**
@@ -199,6 +176,8 @@ public class Team {
 	 * @throws IllegalArgumentException
 	 * 		   worm == null || worm.getTeam != this || for (worm : worms)
 	 * 											       |worm.getTeam != this
+	 * @throws IllegalArgumentException
+	 * 		| !this.hasAsWorm(worm)
 	 * @post the given worm will be removed from this team.
 	 * 		|!teamRoster.contains(worm)
 	 */
@@ -210,24 +189,113 @@ public class Team {
 			if(worm.getTeam()!=this) {
 				throw new IllegalArgumentException("Wrong team");
 			}
+			if(!hasAsWorm(worm)) {
+				throw new IllegalArgumentException("Given worm was not part of this team");
+			}
 		}
 		
 		for (Worm worm : worms) {
-			try
-			{
-				int index = sortInTeamRoster(worm);
-				teamRoster.remove(index);
+			if(teamRoster.remove(worm.getName(), worm)) {
+				removeMass(worm.getMass());
 				worm.setTeam(null);
-				//teamRoster.remove(sortInTeamRoster(worm));
-			}
-			catch (Exception e)
-			{
-				throw new IllegalArgumentException("Given worm was not part of this team");
 			}
 		}
 
 	}
 	
+	/**
+	 * Checks whether the given worm is in this team.
+	 * 
+	 * @param worm
+	 * @return | result == getAlphabeticalListTeamRoster().contains(worm)
+	 */
+	public boolean hasAsWorm(Worm worm) {
+		return worm != null && teamRoster.get(worm.getName()) == worm;
+	}
+	
+	/**
+	 * Returns the number of worms in this team.
+	 * 
+	 * @return | result == getAlphabeticalListTeamRoster().size()
+	 */
+	public int getNumberOfWorms() {
+		return teamRoster.size();
+	}
+	
+	/**
+	 * Returns the mass of the lightest worm in this team, or positive infinity if this team has no worms.
+	 * 
+	 * @return | for each worm in getAlphabeticalListTeamRoster()
+	 * 		   |	result <= worm.getMass()
+	 */
+	public double getMinimumMass() {
+		return teamMasses.isEmpty() ? Double.POSITIVE_INFINITY : teamMasses.firstKey();
+	}
+	
+	/**
+	 * Returns the mass of the heaviest worm in this team, or negative infinity if this team has no worms.
+	 * 
+	 * @return | for each worm in getAlphabeticalListTeamRoster()
+	 * 		   |	result >= worm.getMass()
+	 */
+	public double getMaximumMass() {
+		return teamMasses.isEmpty() ? Double.NEGATIVE_INFINITY : teamMasses.lastKey();
+	}
+	
+	/**
+	 * Checks whether worms with masses between the given lightest and heaviest mass can be in one team.
+	 * Every pair of worms in a team must pass Worm.hasCorrectTeamMass, which comes down to the heaviest worm
+	 * weighing less than twice the lightest one.
+	 * 
+	 * @param minMass
+	 * @param maxMass
+	 * @return | result == !(minMass <= maxMass) || !(maxMass >= 2*minMass)
+	 */
+	private static boolean fitsTeamMass(double minMass, double maxMass) {
+		return !(minMass <= maxMass) || !(maxMass >= 2*minMass);
+	}
+	
+	/**
+	 * Counts a worm of the given mass in teamMasses.
+	 */
+	private void addMass(double mass) {
+		teamMasses.merge(mass, 1, Integer::sum);
+	}
+	
+	/**
+	 * Stops counting a worm of the given mass in teamMasses.
+	 */
+	private void removeMass(double mass) {
+		teamMasses.computeIfPresent(mass, (key, count) -> count == 1 ? null : count - 1);
+	}
+	
+	/**
+	 * Keeps the roster up to date with a worm of this team changing its name. Worms call this whenever their name changes.
+	 * 
+	 * @param worm
+	 * @param oldName
+	 * 
+	 * @post | new.hasAsWorm(worm)
+	 */
+	void updateWormName(Worm worm, String oldName) {
+		if(teamRoster.remove(oldName, worm)) {
+			teamRoster.put(worm.getName(), worm);
+		}
+	}
+	
+	/**
+	 * Keeps the masses up to date with a worm of this team changing its mass. Worms call this whenever their mass changes.
+	 * 
+	 * @param worm
+	 * @param oldMass
+	 */
+	void updateWormMass(Worm worm, double oldMass) {
+		if(hasAsWorm(worm)) {
+			removeMass(oldMass);
+			addMass(worm.getMass());
+		}
+	}
+	
 	/**
 	 * Checks whether all worms currently in this team are valid within this team.
 	 * 
@@ -258,17 +326,25 @@ public class Team {
 	 * 			| result == true
 	 */
 	public boolean canHaveWormInTeam(Worm other) {
-		for (Worm worm : teamRoster) {
-			if(other != worm) {
-				if(!worm.hasCorrectTeamMass(other)) {
-					return false;
-				}
-				if(other.hasTheSameNameAs(worm)) {
-					return false;
-				}
-			}
+		Worm namesake = teamRoster.get(other.getName());
+		if(namesake != null && namesake != other) {
+			return false;
 		}
-		return true;
+		//Checking against the lightest and the heaviest worm covers every worm in between.
+		return canHaveMass(other.getMass());
+	}
+	
+	/**
+	 * Checks whether a worm of this team can take the given name.
+	 * 
+	 * @param worm
+	 * @param name
+	 * @return | result == for each other in getAlphabeticalListTeamRoster()
+	 * 		   |	other == worm || !other.getName().equals(name)
+	 */
+	public boolean canRenameWorm(Worm worm, String name) {
+		Worm namesake = teamRoster.get(name);
+		return namesake == null || namesake == worm;
 	}
 	
 	/**
@@ -276,77 +352,86 @@ public class Team {
 	 */
 	@Basic
 	public List<Worm> getAlphabeticalListTeamRoster() {
-		return new ArrayList<Worm>(teamRoster);
+		return new ArrayList<Worm>(teamRoster.values());
 	}
 	/**
-	 * Places all worms from one team to this team.
+	 * Places all worms from one team to this team. Either all worms move, or nothing changes.
+	 * The worms of the given team are checked against the worms of this team, not against each other.
+	 * Both teams are validated once, against the names and the mass bounds of this team, after which the worms of the
+	 * smaller roster are inserted into the larger one, taking time O(m log(n+m)) for a smaller team of m worms.
+	 * 
 	 * @param team The team of which all its worms have to merge with this team.
 	 * @throws IllegalArgumentException
-	 * 			team == null || worm.isTerminated || !worm.hasCorrectTeamMass || worm.hasSameNameAs(teamRoster.getAllWorms)
+	 * 			team == null || team == this
+	 * @throws IllegalArgumentException
+	 * 			| for some worm in team.getAlphabeticalListTeamRoster()
+	 * 			|	!this.canHaveWormInTeam(worm)
 	 * @post 
-	 * 		|for (worm : team)
-	 * 		|	this.addWorm(worm)
-	 * 		|	team.removeWorm(worm)
-	 * 		|this.mergeTeams(team)
-	 * 		|team.getAllWorms == null
+	 * 		| for each worm in team.getAlphabeticalListTeamRoster()
+	 * 		|	new.hasAsWorm(worm) && worm.getTeam() == this
+	 * 		| (new team).getNumberOfWorms() == 0
 	 * 
 	 */
 	public void mergeTeams(Team team) throws IllegalArgumentException {
-		ArrayList<Worm> teamRosterCopy = new ArrayList<Worm>();		
 		if(team == null) {
 			throw new IllegalArgumentException("Team to be merged is null");
 		}
-		if(team.equals(this) == false) {
-			teamRosterCopy = new ArrayList<Worm>(team.getAlphabeticalListTeamRoster());	
-			if(!teamRosterCopy.isEmpty()) {
-				Team fromTeam = teamRosterCopy.get(0).getTeam();
-				try {
-					fromTeam.removeWorm(teamRosterCopy.toArray(new Worm[teamRosterCopy.size()]));
-					for (Worm worm : teamRosterCopy) {
-						worm.setTeam(null);
-					}
-					this.addWorm(teamRosterCopy.toArray(new Worm[teamRosterCopy.size()]));
-					
-				} catch (Exception e) {
-					for (Worm worm : teamRosterCopy) {
-						team.addWorm(teamRosterCopy.toArray(new Worm[teamRosterCopy.size()]));
-						worm.setTeam(fromTeam); //FIx original team
-						throw e;
-					}
-				}
-
+		if(team == this) {
+			throw new IllegalArgumentException("Both teams are the same team. Merging won't be able to.");
+		}
+		if(team.teamRoster.isEmpty()) {
+			return;
+		}
+		
+		//Checking the lightest and the heaviest incoming worm covers every incoming worm in between.
+		if(!canHaveMass(team.getMinimumMass()) || !canHaveMass(team.getMaximumMass())) {
+			throw new IllegalArgumentException("Worms of the given team don't fit the masses of this team.");
+		}
+		TreeMap<String, Worm> larger = this.teamRoster;
+		TreeMap<String, Worm> smaller = team.teamRoster;
+		if(smaller.size() > larger.size()) {
+			larger = team.teamRoster;
+			smaller = this.teamRoster;
+		}
+		for (String name : smaller.keySet()) {
+			if(larger.containsKey(name)) {
+				throw new IllegalArgumentException("Both teams have a worm named " + name);
 			}
-			
-//			for (Worm worm : team.teamRoster) {
-//				teamRosterCopy.add(worm);
-//			}
-//			for (Worm w : teamRosterCopy) {
-//				if(w == null) {
-//					return;
-//				}
-//				if(w.isTerminated()) {
-//					return;
-//				}
-//			}
-//			
-//			for (Worm worm : teamRosterCopy) {
-//				team.removeWorm(worm);
-//				try {
-//					this.addWorm(worm);	
-//				} catch (Exception e) {
-//					for(Worm w : teamRosterCopy) {
-//						this.removeWorm(w);
-//						team.addWorm(w);
-//					}
-//					return;
-//				}	
-//			}
 		}
-		if (team.equals(this) != false) {
-			throw new IllegalArgumentException("Both teams are the same team. Merging won't be able to.");
+		
+		List<Worm> movedWorms = new ArrayList<Worm>(team.teamRoster.values());
+		larger.putAll(smaller);
+		this.teamRoster = larger;
+		this.teamMasses = mergeMasses(this.teamMasses, team.teamMasses);
+		team.teamRoster = new TreeMap<String, Worm>();
+		team.teamMasses = new TreeMap<Double, Integer>();
+		for (Worm worm : movedWorms) {
+			worm.setTeam(this);
 		}
+	}
 	
-}
+	/**
+	 * Checks whether a worm of the given mass passes Worm.hasCorrectTeamMass against every worm of this team.
+	 * 
+	 * @param mass
+	 * @return | result == fitsTeamMass(Math.min(getMinimumMass(), mass), Math.max(getMaximumMass(), mass))
+	 */
+	private boolean canHaveMass(double mass) {
+		return fitsTeamMass(Math.min(getMinimumMass(), mass), Math.max(getMaximumMass(), mass));
+	}
+	
+	/**
+	 * Returns the masses of both given mass counts together, adding the counts of the smaller one to the larger one.
+	 */
+	private static TreeMap<Double, Integer> mergeMasses(TreeMap<Double, Integer> first, TreeMap<Double, Integer> second) {
+		if(first.size() < second.size()) {
+			return mergeMasses(second, first);
+		}
+		for (Map.Entry<Double, Integer> entry : second.entrySet()) {
+			first.merge(entry.getKey(), entry.getValue(), Integer::sum);
+		}
+		return first;
+	}
 		
 	/**
 	 * Terminate this team
@@ -362,6 +447,7 @@ public class Team {
 		}
 		
 		teamRoster.clear();
+		teamMasses.clear();
 	}
 	
 	/**
@@ -0,0 +1,198 @@
+package worms.model;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * The order in which the worms of a game take turns. The worms form a ring: the current worm is followed by the next
+ * worm, and so on, until the last worm, which is followed by the current worm again. Ending a turn moves on to the
+ * next worm, and the worm that ended its turn becomes the last one.
+ * Adding, removing, ending a turn and looking up the current and the next worm all take constant time.
+ *
+ * @invar | size() >= 0
+ * @invar | isEmpty() == (getCurrent() == null)
+ * @invar | for each worm in getOrder()
+ * 		  |		worm != null && contains(worm)
+ *
+ * @author bernd
+ *
+ */
+public class TurnCycle {
+
+	/**
+	 * Returns the number of worms in this turn cycle.
+	 */
+	@Basic
+	public int size() {
+		return this.nodes.size();
+	}
+
+	/**
+	 * Checks whether this turn cycle holds no worms.
+	 *
+	 * @return | result == (size() == 0)
+	 */
+	public boolean isEmpty() {
+		return this.size() == 0;
+	}
+
+	/**
+	 * Checks whether the given worm is in this turn cycle.
+	 *
+	 * @param worm
+	 */
+	@Basic
+	public boolean contains(Worm worm) {
+		return this.nodes.containsKey(worm);
+	}
+
+	/**
+	 * Returns the worm whose turn it is, or null if this turn cycle is empty.
+	 */
+	@Basic
+	public Worm getCurrent() {
+		return this.current == null ? null : this.current.worm;
+	}
+
+	/**
+	 * Returns the worm whose turn comes after the current one, or null if this turn cycle is empty.
+	 * A worm alone in this turn cycle is its own next worm.
+	 *
+	 * @return | if isEmpty() then
+	 * 		   |	result == null
+	 * 		   | else
+	 * 		   |	result == getOrder().get(1 % size())
+	 */
+	public Worm getNext() {
+		return this.current == null ? null : this.current.next.worm;
+	}
+
+	/**
+	 * Returns the worms in this turn cycle in the order they take turns, starting with the current worm.
+	 *
+	 * @return | result.size() == size()
+	 * @return | if !isEmpty() then
+	 * 		   |	result.get(0) == getCurrent()
+	 */
+	public List<Worm> getOrder() {
+		List<Worm> order = new ArrayList<Worm>(this.size());
+		if(this.current != null) {
+			Node node = this.current;
+			do {
+				order.add(node.worm);
+				node = node.next;
+			} while(node != this.current);
+		}
+		return order;
+	}
+
+	/**
+	 * Adds the given worm as the last worm of this turn cycle. An empty turn cycle makes it the current worm.
+	 *
+	 * @param worm
+	 *
+	 * @post | new.getOrder().equals(this.getOrder() + [worm])
+	 *
+	 * @throws IllegalArgumentException
+	 * 		| worm == null || contains(worm)
+	 */
+	public void add(Worm worm) throws IllegalArgumentException {
+		if(worm == null || this.contains(worm)) {
+			throw new IllegalArgumentException("The given worm can't be added to this turn cycle.");
+		}
+		Node node = new Node(worm);
+		this.nodes.put(worm, node);
+		if(this.current == null) {
+			node.previous = node;
+			node.next = node;
+			this.current = node;
+		}else {
+			//The last worm is the one right before the current one.
+			node.previous = this.current.previous;
+			node.next = this.current;
+			this.current.previous.next = node;
+			this.current.previous = node;
+		}
+	}
+
+	/**
+	 * Removes the given worm from this turn cycle, keeping the order of the others.
+	 * If the given worm is the current worm, its next worm becomes the current worm.
+	 * Nothing happens if the given worm isn't in this turn cycle.
+	 *
+	 * @param worm
+	 *
+	 * @post | !new.contains(worm)
+	 * @post | new.getOrder().equals(this.getOrder() without worm, starting from
+	 * 		 |	(worm == this.getCurrent() ? this.getNext() : this.getCurrent()))
+	 */
+	public void remove(Worm worm) {
+		Node node = this.nodes.remove(worm);
+		if(node == null) {
+			return;
+		}
+		if(node.next == node) {
+			this.current = null;
+			return;
+		}
+		node.previous.next = node.next;
+		node.next.previous = node.previous;
+		if(this.current == node) {
+			this.current = node.next;
+		}
+	}
+
+	/**
+	 * Ends the turn of the current worm: the next worm becomes the current worm,
+	 * and the worm that was current becomes the last one.
+	 * Nothing happens if this turn cycle is empty.
+	 *
+	 * @post | new.getCurrent() == this.getNext()
+	 * @post | if !isEmpty() then
+	 * 		 |	new.getOrder().get(size() - 1) == this.getCurrent()
+	 */
+	public void advance() {
+		if(this.current != null) {
+			this.current = this.current.next;
+		}
+	}
+
+	/**
+	 * Removes all worms from this turn cycle.
+	 *
+	 * @post | new.isEmpty()
+	 */
+	public void clear() {
+		this.nodes.clear();
+		this.current = null;
+	}
+
+	/**
+	 * A worm in this turn cycle, linked to the worms right before and after it.
+	 */
+	private static class Node {
+
+		private Node(Worm worm) {
+			this.worm = worm;
+		}
+
+		private final Worm worm;
+
+		private Node previous;
+
+		private Node next;
+	}
+
+	/**
+	 * The ring position of every worm in this turn cycle.
+	 */
+	private final IdentityHashMap<Worm, Node> nodes = new IdentityHashMap<Worm, Node>();
+
+	/**
+	 * The position of the current worm, or null if this turn cycle is empty.
+	 */
+	private Node current = null;
+}
@@ -6,9 +6,10 @@ import java.nio.channels.IllegalSelectorException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -17,9 +18,16 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import be.kuleuven.cs.som.annotate.*;
+import worms.exceptions.InvalidRadiusException;
 import worms.model.ShapeHelp.BoundaryRectangle;
 import worms.model.ShapeHelp.Circle;
 import worms.model.ShapeHelp.Rectangle;
+import worms.model.interfaces.ITerrain;
+import worms.model.terrain.ColumnHeightIndex;
+import worms.model.terrain.DistanceField;
+import worms.model.terrain.SummedAreaTable;
+import worms.model.terrain.TerrainGrid;
+import worms.model.terrain.TerrainPyramid;
 import worms.model.values.GameObjectTypeID;
 import worms.model.values.HP;
 import worms.model.values.Location;
@@ -81,34 +89,28 @@ public class World {
 		this.worldWidth = width;
 		this.worldHeight = height;	
 
-		this.passableMap = new BoundaryRectangle[passableMap.length][passableMap[0].length];
-		this.processMap(passableMap);
+		this.terrain = processMap(passableMap);
+		this.distanceField = new DistanceField(terrain);
+		this.impassableCells = new SummedAreaTable(terrain);
+		this.terrainPyramid = new TerrainPyramid(terrain);
+		this.columnHeights = new ColumnHeightIndex(terrain);
 		
 		this.worldTeams = new HashSet<Team>();
 	}
 	
 	/**
-	 * Generates a map representing the (im)passable locations of the gameworld.
+	 * Generates a terrain representing the (im)passable locations of the gameworld.
 	 * 
 	 * @param passableMap
 	 * 
-	 * @post | new.passableMap != null
+	 * @return | result.getRows() == passableMap.length
+	 * 		 | result.getColumns() == passableMap[0].length
 	 * 		 | for i in [0..passableMap.length[
-	 * 		 |		new.passableMap[i] != null
 	 * 		 |		for j in [0..passableMap[0].length[
-	 * 		 |			new.passableMap[passableMap.length - i - 1][j].isPassable() == passableMap[passableMap.length - i - 1][j]
-	 * 		 |			new.passableMap[passableMap.length - i - 1][j].getSize().equals( new Location(1, 1))
-	 * 		 |			new.passableMap[passableMap.length - i - 1][j].getCenter() == new Location(j,i)
-	 * 		 |		
+	 * 		 |			result.isPassableCell(i, j) == passableMap[passableMap.length - i - 1][j]
 	 */
-	private void processMap(boolean[][] passableMap) {
-		Location size = new Location(1, 1);
-		for (int i = 0; i < passableMap.length; i++) {
-			for (int j = 0; j < passableMap[0].length; j++) {
-				//this.passableMap[passableMap.length - i-1][j] = new BoundaryRectangle(new Location(j,i), size, passableMap[passableMap.length - i - 1][j]);
-				this.passableMap[i][j] = new BoundaryRectangle(new Location(j,i), size, passableMap[passableMap.length - i - 1][j]);
-			}		
-		}
+	private static TerrainGrid processMap(boolean[][] passableMap) {
+		return new TerrainGrid(passableMap);
 	}
 	
 	/**
@@ -136,8 +138,11 @@ public class World {
 		this.worldWidth = passableMap[0].length;
 		this.worldHeight = passableMap.length;	
 		this.worldTeams = new HashSet<Team>();
-		this.passableMap = new BoundaryRectangle[passableMap.length][passableMap[0].length];
-		processMap(passableMap);
+		this.terrain = processMap(passableMap);
+		this.distanceField = new DistanceField(terrain);
+		this.impassableCells = new SummedAreaTable(terrain);
+		this.terrainPyramid = new TerrainPyramid(terrain);
+		this.columnHeights = new ColumnHeightIndex(terrain);
 	}
 	
 	/**
@@ -173,13 +178,13 @@ public class World {
 	/**
 	 * Checks whether this world has a valid passable map.
 	 * 
-	 * @return | result == (!isValidPassableMap(this.getPassableMap())) && passableMap.length == this.getWorldHeight() && passableMap[0].length == this.getWorldWidth()
+	 * @return | result == (!isValidPassableMap(this.getPassableMap())) && getTerrain().getRows() == this.getWorldHeight() && getTerrain().getColumns() == this.getWorldWidth()
 	 */
 	public boolean hasValidPassableMap() {
-		if(isValidPassableMap(this.getPassableMap())) {
+		if(terrain.getRows() > 0 && terrain.getColumns() > 0) {
 			return false;
 		}
-		return passableMap.length == this.getWorldHeight() && passableMap[0].length == this.getWorldWidth();
+		return terrain.getRows() == this.getWorldHeight() && terrain.getColumns() == this.getWorldWidth();
 	}
 
 	/**
@@ -260,16 +265,75 @@ public class World {
 	
 	/**
 	 * Gets this world's passableMap.
+	 * The tiles are only created the first time they are asked for; queries in this world
+	 * use getTerrain() instead.
+	 * 
+	 * @return | for i in [0..getTerrain().getRows()[
+	 * 		   |	for j in [0..getTerrain().getColumns()[
+	 * 		   |		result[i][j].isPassable() == getTerrain().isPassableCell(i, j)
+	 * 		   |		result[i][j].getSize().equals(new Location(1, 1))
+	 * 		   |		result[i][j].getCenter().equals(new Location(j, i))
 	 */
-	@Basic @Raw
+	@Raw
 	public BoundaryRectangle[][] getPassableMap(){
-		return passableMap.clone();
+		if(passableMapView == null) {
+			Location size = new Location(1, 1);
+			BoundaryRectangle[][] view = new BoundaryRectangle[terrain.getRows()][terrain.getColumns()];
+			for (int i = 0; i < view.length; i++) {
+				for (int j = 0; j < view[0].length; j++) {
+					view[i][j] = new BoundaryRectangle(new Location(j,i), size, terrain.isPassableCell(i, j));
+				}
+			}
+			passableMapView = view;
+		}
+		return passableMapView.clone();
 	}
 	
 	/**
-	 * Represents this world's passableMap
+	 * Represents the tiles handed out by getPassableMap(), null until first asked for.
 	 */
-	private BoundaryRectangle[][] passableMap;
+	private BoundaryRectangle[][] passableMapView;
+	
+	/**
+	 * Gets this world's terrain.
+	 */
+	@Basic @Raw @Immutable
+	public ITerrain getTerrain() {
+		return this.terrain;
+	}
+	
+	/**
+	 * Represents this world's terrain.
+	 */
+	private final TerrainGrid terrain;
+	
+	/**
+	 * Represents the distance from every cell of this world's terrain to the nearest impassable cell.
+	 */
+	private final DistanceField distanceField;
+	
+	/**
+	 * Represents the amount of impassable cells in every rectangle of this world's terrain.
+	 */
+	private final SummedAreaTable impassableCells;
+	
+	/**
+	 * Represents the all-passable, all-solid and mixed regions of this world's terrain, at every resolution.
+	 */
+	private final TerrainPyramid terrainPyramid;
+	
+	/**
+	 * Represents, for every column of this world's terrain, the runs of impassable cells.
+	 */
+	private final ColumnHeightIndex columnHeights;
+	
+	/**
+	 * Returns the multi-resolution index of this world's terrain.
+	 */
+	@Basic @Raw @Immutable
+	public TerrainPyramid getTerrainPyramid() {
+		return this.terrainPyramid;
+	}
 	
 	/**
 	 * Adds a new gameObject to this world.
@@ -327,14 +391,13 @@ public class World {
 			throw new IllegalArgumentException("The given gameObject was already in world.");
 		}
 		
-		if(worldObjectsMapHasGameObjectTypeKey(gameObject.getTypeID())) {
-			worldObjects.get(gameObject.getTypeID()).add(gameObject);
-		}else {
-			worldObjects.put(gameObject.getTypeID(), new HashSet<GameObject>());
-			worldObjects.get(gameObject.getTypeID()).add(gameObject);
+		getObjectSet(gameObject.getTypeID().getGameObjectType()).add(gameObject);
+		if(gameObject instanceof Worm) {
+			countWorm(((Worm) gameObject).getTeam(), +1);
 		}
 		
 		gameObject.setWorld(this);
+		objectCells.add(gameObject);
 		
 		if(!isPassable(gameObject)) {
 			throw new IllegalStateException("object placed out of world on initialization.");
@@ -386,12 +449,26 @@ public class World {
 			throw new IllegalArgumentException("The given gameObject was equal to null.");
 		}
 		
-		if(!worldObjectsMapHasGameObjectTypeKey(gameObject.getTypeID())) {
-			worldObjects.put(gameObject.getTypeID(), new HashSet<GameObject>());
-			//throw new IllegalArgumentException("The given gameObject was not a part of the world.");
+		return getObjectSet(gameObject.getTypeID().getGameObjectType()).contains(gameObject);
+	}
+	
+	/**
+	 * Returns the set of gameObjects of a given type/class in worldObjects, adding an empty set for that type if there is none yet.
+	 * 
+	 * @param classID
+	 * 
+	 * @post | worldObjectsMapHasGameObjectTypeKey(GameObjectTypeID.getTypeIDOf(classID))
+	 * @return | result == worldObjects.get(GameObjectTypeID.getTypeIDOf(classID))
+	 */
+	private HashSet<GameObject> getObjectSet(Class<? extends GameObject> classID) {
+		HashSet<GameObject> objects = objectsByClass.get(classID);
+		if(objects == null) {
+			objects = new HashSet<GameObject>();
+			worldObjects.put(GameObjectTypeID.getTypeIDOf(classID), objects);
+			objectsByClass.put(classID, objects);
+			objectViews.put(classID, Collections.unmodifiableSet(objects));
 		}
-		
-		return worldObjects.get(gameObject.getTypeID()).contains(gameObject);
+		return objects;
 	}
 
 	/**
@@ -414,6 +491,22 @@ public class World {
 	 */
 	private final HashMap<GameObjectTypeID, HashSet<GameObject>> worldObjects = new HashMap<GameObjectTypeID, HashSet<GameObject>>();
 	
+	/**
+	 * The sets of worldObjects, keyed by the class of the type they belong to.
+	 * 
+	 * @invar	| for each key in worldObjects
+	 * 			|		objectsByClass.get(key.getGameObjectType()) == worldObjects.get(key)
+	 */
+	private final HashMap<Class<? extends GameObject>, HashSet<GameObject>> objectsByClass = new HashMap<Class<? extends GameObject>, HashSet<GameObject>>();
+	
+	/**
+	 * Unmodifiable views on the sets of objectsByClass, handed out by getObjectsOfType.
+	 * 
+	 * @invar	| for each key in objectsByClass
+	 * 			|		objectViews.get(key) is an unmodifiable view on objectsByClass.get(key)
+	 */
+	private final HashMap<Class<? extends GameObject>, Set<GameObject>> objectViews = new HashMap<Class<? extends GameObject>, Set<GameObject>>();
+	
 	/**
 	 * Mutator that removes a given gameObject from worldObjects.
 	 * 
@@ -439,10 +532,14 @@ public class World {
 			throw new IllegalArgumentException("The given gameObject was not from this world.");
 		}
 		
-		if(worldObjectsMapHasGameObjectTypeKey(gameObject.getTypeID())) {
+		HashSet<GameObject> objects = objectsByClass.get(gameObject.getTypeID().getGameObjectType());
+		if(objects != null) {
 			//throw new IllegalArgumentException("The given gameObject was not a part of the world.");
-			worldObjects.get(gameObject.getTypeID()).remove(gameObject);
+			if(objects.remove(gameObject) && gameObject instanceof Worm) {
+				countWorm(((Worm) gameObject).getTeam(), -1);
+			}
 		}
+		objectCells.remove(gameObject);
 		
 		if(!gameObject.isTerminated()) {
 			gameObject.terminate();
@@ -451,7 +548,8 @@ public class World {
 	}
 	
 	/**
-	 * Returns all world objects of a certain type/class.
+	 * Returns all world objects of a certain type/class, as a new list the caller is free to change.
+	 * Callers that only look at the objects should use getObjectsOfType instead.
 	 * 
 	 * @param classID
 	 * 
@@ -482,21 +580,160 @@ public class World {
 		}
 	
 		
-		ArrayList<T> objectTypeList = new ArrayList<>();
+		HashSet<GameObject> objects = objectsByClass.get(classID);
+		if(objects == null) {
+			return new ArrayList<T>();
+		}
+		return new ArrayList<T>((Collection<T>)objects);
 		
-		for(GameObjectTypeID key : worldObjects.keySet()) {
-			if(key.getGameObjectType() == classID) {
-				for(GameObject w : worldObjects.get(key)) {
-					objectTypeList.add((T)w);
-				}
-				break;
+	}
+	
+	/**
+	 * Returns all world objects of a certain type/class, as an unmodifiable view that follows the objects
+	 * being added to and removed from this world. The view must not be iterated over while objects of that type
+	 * are added or removed; callers that do so should take a copy through getAllObjectsOfType.
+	 * 
+	 * @param classID
+	 * 
+	 * @return	| result != null
+	 * @return	| result.size() == this.getAllObjectsOfType(classID).size()
+	 * 			| for each object in this.getAllObjectsOfType(classID)
+	 * 			|	result.contains(object)
+	 * 
+	 * @throws IllegalArgumentException
+	 * 		| !isValidObjectGameObjectClass(classID)
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends GameObject> Collection<T> getObjectsOfType(Class<? extends GameObject> classID) throws IllegalArgumentException{
+		if(!isValidObjectGameObjectClass(classID)) {
+			throw new IllegalArgumentException("Invalid ID given.");
+		}
+		getObjectSet(classID);
+		return (Collection<T>)objectViews.get(classID);
+	}
+	
+	/**
+	 * Returns the objects of a certain type/class in this world that overlap the circle with the given centre and radius.
+	 * Only the objects near the circle are looked at.
+	 * 
+	 * @param center
+	 * @param radius
+	 * @param classID
+	 * 
+	 * @return	| result != null
+	 * @return	| for each object in this.getAllObjectsOfType(classID)
+	 * 			|	result.contains(object) == object.overlapsWith(new Circle(center, radius))
+	 * 
+	 * @throws IllegalArgumentException
+	 * 		| !isValidObjectGameObjectClass(classID)
+	 */
+	public <T extends GameObject> List<T> queryCircle(Location center, Radius radius, Class<? extends GameObject> classID) throws IllegalArgumentException{
+		if(!isValidObjectGameObjectClass(classID)) {
+			throw new IllegalArgumentException("Invalid ID given.");
+		}
+		return objectCells.queryCircle(center, radius, classID);
+	}
+	
+	/**
+	 * Returns the objects of a certain type/class in this world whose bounding rectangle shares more than a point with the given rectangle.
+	 * Only the objects near the rectangle are looked at.
+	 * 
+	 * @param rectangle
+	 * @param classID
+	 * 
+	 * @return	| result != null
+	 * @return	| for each object in this.getAllObjectsOfType(classID)
+	 * 			|	result.contains(object) == rectangle.intersects(new Circle(object).getBoundingRectangle())
+	 * 
+	 * @throws IllegalArgumentException
+	 * 		| !isValidObjectGameObjectClass(classID)
+	 */
+	public <T extends GameObject> List<T> queryRectangle(Rectangle rectangle, Class<? extends GameObject> classID) throws IllegalArgumentException{
+		if(!isValidObjectGameObjectClass(classID)) {
+			throw new IllegalArgumentException("Invalid ID given.");
+		}
+		return objectCells.queryRectangle(rectangle, classID);
+	}
+	
+	/**
+	 * Returns the objects of a certain type/class in this world, other than the given object, that overlap the given object.
+	 * Only the objects near the given object are looked at.
+	 * 
+	 * @param gameObject
+	 * @param classID
+	 * 
+	 * @return	| result != null
+	 * @return	| for each object in this.getAllObjectsOfType(classID)
+	 * 			|	result.contains(object) == (object != gameObject && object.overlapsWith(gameObject))
+	 * 
+	 * @throws IllegalArgumentException
+	 * 		| !isValidObjectGameObjectClass(classID)
+	 */
+	public <T extends GameObject> List<T> queryOverlapping(GameObject gameObject, Class<? extends GameObject> classID) throws IllegalArgumentException{
+		if(!isValidObjectGameObjectClass(classID)) {
+			throw new IllegalArgumentException("Invalid ID given.");
+		}
+		return objectCells.queryOverlapping(gameObject, classID);
+	}
+	
+	/**
+	 * Returns the first gameObject other than a given one that is met when walking from a given location in a given direction,
+	 * sampling the way in steps of SEARCH_STEP until leaving this world. Returns null if no object is met.
+	 * 
+	 * @param origin
+	 * @param angle
+	 * @param excluded
+	 * 
+	 * @return	| if result != null then
+	 * 			|	result != excluded && this.hasGameObject(result)
+	 * 			|	&& for some step
+	 * 			|		result.getSurface().contains(new Location(origin.getX() + Math.cos(angle) * step * SEARCH_STEP,
+	 * 			|											origin.getY() + Math.sin(angle) * step * SEARCH_STEP))
+	 */
+	public GameObject searchObject(Location origin, double angle, GameObject excluded) {
+		double distance = SEARCH_STEP;
+		while(true) {
+			double x = origin.getX() + Math.cos(angle) * distance;
+			double y = origin.getY() + Math.sin(angle) * distance;
+			GameObject found = objectCells.findContaining(x, y, excluded);
+			if(found != null) {
+				return found;
+			}
+			distance += SEARCH_STEP;
+			if(x < 0 || y < 0 || x > this.getWorldWidth() || y > this.getWorldHeight()) {
+				return null;
 			}
 		}
-		
-		return objectTypeList;
-		
 	}
 	
+	/**
+	 * The distance between the points sampled by searchObject.
+	 */
+	private static final double SEARCH_STEP = 0.1f;
+	
+	/**
+	 * Brings the location and radius of a given gameObject up to date in the spatial hash of this world.
+	 * Gameobjects call this whenever they move or change size.
+	 * 
+	 * @param gameObject
+	 */
+	void updateGameObjectBounds(GameObject gameObject) {
+		objectCells.update(gameObject);
+	}
+	
+	/**
+	 * A spatial hash holding every gameObject this world contains, by location.
+	 * 
+	 * @invar | for each object in getAllGameObjects()
+	 * 		  |		objectCells.contains(object)
+	 */
+	private final SpatialHash objectCells = new SpatialHash(OBJECT_CELL_SIZE);
+	
+	/**
+	 * The size of the cells of the spatial hash of gameObjects, about the size of a worm.
+	 */
+	private static final double OBJECT_CELL_SIZE = 1.0;
+	
 	/**
 	 * Checks whether a given object class is valid as a gameObject class.
 	 * 
@@ -535,9 +772,11 @@ public class World {
 	 * @param radius
 	 * 
 	 * 
-	 * @return  | result == this.isPassable(location,  new Radius(radius.getRadius() *1.1d))
-	 * 			|	&& Worm.isValidWorldLocation(location, this)
-	 * 			|	&& this.fullyContains(new Circle(location,radius).getBoundingRectangle())
+	 * @return  | result == !this.isPassable(location,  new Radius(radius.getRadius() *1.1d))
+	 * 			|	&& this.isPassable(location, radius)
+	 * 
+	 * @throws InvalidRadiusException
+	 * 			| !Circle.isValidRadius(radius)
 	 */
 	public boolean isAdjacantToImpassableTerrain(Location location, Radius radius) {	
 	
@@ -548,7 +787,11 @@ public class World {
 //			return false;
 //		}
 
-		return !this.isPassable(location,  new Radius(radius.getRadius() *1.1d)) && this.isPassable(location, radius);	
+		if(!Circle.isValidRadius(radius)) {
+			throw new InvalidRadiusException(radius);
+		}
+		return !this.isPassableSurface(location.getX(), location.getY(), radius.getRadius() *1.1d) 
+				&& this.isPassableSurface(location.getX(), location.getY(), radius.getRadius());	
 	}
 	
 	
@@ -556,49 +799,56 @@ public class World {
 	 * Passable map represents a fully detailed map, while this world's length and width, refers to relative locations.
 	 * We therefore provide a ratio between our world actual and relative length.
 	 * 
-	 * @return | result == ( (double)(this.getWorldWidth()) / (double)passableMap[0].length)
+	 * @return | result == ( (double)(this.getWorldWidth()) / (double)getTerrain().getColumns())
 	 */
 	public double getWidthRatio() {
-		return ( (double)(this.getWorldWidth()) / (double)passableMap[0].length);
+		return ( (double)(this.getWorldWidth()) / (double)terrain.getColumns());
 	}
 	
 	/**
 	 * Passable map represents a fully detailed map, while this world's length and width, refers to relative locations.
 	 * We therefore provide a ratio between our world actual and relative length.
 	 * 
-	 * @return | result == ( (double)(this.getWorldHeight()) / (double)passableMap.length)
+	 * @return | result == ( (double)(this.getWorldHeight()) / (double)getTerrain().getRows())
 	 */
 	public double getHeightRatio() {
-		return ( (double)(this.getWorldHeight()) / (double)passableMap.length);
+		return ( (double)(this.getWorldHeight()) / (double)terrain.getRows());
 	}
 	
 	/**
 	 * Checks whether a given relative location is passable in this world.
 	 * We first need to convert our given relative location to an actual position in this world.
+	 * Tiles contain their edges, so a point on a shared edge or corner lies in up to four tiles;
+	 * only those tiles are looked up, instead of scanning the whole map.
 	 * 
 	 * @param location
 	 * @return	| let realWorldLoc = getRealWorldLoc(location) in
-	 * 			| let heightIndex = passableMap.length - (int)Math.floor(realWorldLoc.getY())-1 in
-	 * 			| let widthIndex = (int)Math.floor(realWorldLoc.getX()) in
-	 * 			| if heightIndex < 0 then
-	 * 			|	heightIndex = 0
-	 * 			| else
-	 * 			|	heightIndex = passableMap.length-1
-	 * 			| if widthIndex < 0 then
-	 * 			|	widthIndex = 0
-	 * 			| else
-	 * 			|	widthIndex = passableMap[0].length-1
-	 * 			| result == passableMap[heightIndex][widthIndex].isPassable() || !passableMap[heightIndex][widthIndex].containsPoint(realWorldLoc)
-	 */
-	public boolean isPassable(Location location) {			
-		
-			Stream<BoundaryRectangle> stream = Arrays.stream(passableMap).flatMap(x -> Arrays.stream(x));
-			Optional<BoundaryRectangle> stuff = stream.filter(tile->!tile.isPassable() && tile.containsPoint(getRealWorldLoc(location))).findAny();
-			if(stuff.isPresent()) {
-				return false;
-			}else {
-				return true;
+	 * 			| result == 
+	 * 			|	for each tile in getPassableMap()
+	 * 			|		tile.isPassable() || !tile.containsPoint(realWorldLoc)
+	 */
+	public boolean isPassable(Location location) {
+		Location realWorldLoc = getRealWorldLoc(location);
+		double x = realWorldLoc.getX();
+		double y = realWorldLoc.getY();
+		int rows = terrain.getRows();
+		int columns = terrain.getColumns();
+		if(!(x >= 0 && x <= columns && y >= 0 && y <= rows)) {
+			return true;
+		}
+		int column = (int)Math.floor(x);
+		int row = (int)Math.floor(y);
+		for (int i = (row == y) ? row - 1 : row; i <= row; i++) {
+			if(i < 0 || i >= rows) {
+				continue;
 			}
+			for (int j = (column == x) ? column - 1 : column; j <= column; j++) {
+				if(j >= 0 && j < columns && !terrain.isPassableCell(i, j)) {
+					return false;
+				}
+			}
+		}
+		return true;
 	}
 //		
 //		Location realWorldLoc = getRealWorldLoc(location);
@@ -677,66 +927,171 @@ public class World {
 	}
 	
 	/**
-	 * Checks whether a surface with a given centre location and given radius is fully passable for all points of the surface.
+	 * Checks whether a surface with a given centre location and given radius is fully passable,
+	 * meaning no impassable tile overlaps the bounding rectangle of the surface.
 	 * 
 	 * @param location
 	 * @param radius
-	 * @return 	| if !Worm.isValidWorldLocation(location, this) then
-	 * 			| 	result == false
-	 * 			| else
-	 * 			| let passableSurface = Circle(location, radius) in
-	 * 			|	for double i in [0..passableSurface.getBoundingRectangle().getSize().getX()]
-	 * 			|		for double j in [0..passableSurface.getBoundingRectangle().getSize().getY()]
-	 * 			|			//This first if checks whether the point we're checking is within the actual circular surface
-	 * 			|			if passableSurface.contains(new Location(i+bound.getCenter().getX(),j+bound.getCenter().getY())) then
-	 * 			|				//This second if checks whether the point is passable
-	 * 			|				return this.isPassable(new Location((i+bound.getCenter().getX()), (j+bound.getCenter().getY())))
-	 */
-	public boolean isPassable(Location location, Radius radius) {
-//		if(!Worm.isValidWorldLocation(location, this)) {
-//			return false;
-//		}
-
+	 * @return 	| let bound = Circle(location, radius).getBoundingRectangle() in
+	 * 			| let realStuff = Rectangle(getRealWorldLoc(bound.getCenter()), getRealWorldLoc(bound.getSize())) in
+	 * 			| result == 
+	 * 			|	for each tile in getPassableMap()
+	 * 			|		tile.isPassable() || !tile.intersects(realStuff)
+	 * 
+	 * @throws InvalidRadiusException
+	 * 			| !Circle.isValidRadius(radius)
+	 */
+	public boolean isPassable(Location location, Radius radius) throws InvalidRadiusException {
+		if(!Circle.isValidRadius(radius)) {
+			throw new InvalidRadiusException(radius);
+		}
+		return isPassableSurface(location.getX(), location.getY(), radius.getRadius());
+	}
+	
+	/**
+	 * Checks whether the bounding rectangle of the circle with the given centre and radius is free of impassable tiles.
+	 * The distance field settles most checks with a single lookup, the terrain pyramid settles boxes
+	 * lying in a uniform part of the terrain. Other boxes are settled by counting the impassable cells they overlap.
+	 * 
+	 * @see isPassable(Location, Radius)
+	 */
+	private boolean isPassableSurface(double x, double y, double radius) {
+		double length = radius * 2;
+		double left = (x - radius) / this.getWidthRatio();
+		double right = left + length / this.getWidthRatio();
+		double bottom = (y - radius) / this.getHeightRatio();
+		double top = bottom + length / this.getHeightRatio();
 		
-//		if(!furthestPointsPassable(location,radius)) {
-//			return false;
-//		}
-		Circle passableSurface = new Circle(location, radius);
-		Rectangle bound = passableSurface.getBoundingRectangle();
+		//A tile [j, j+1] overlaps ]left, right[ if and only if j+1 > left and j < right.
+		int columnMin = (int)Math.max(Math.floor(left), 0);
+		int columnMax = (int)Math.min(Math.ceil(right) - 1, terrain.getColumns() - 1);
+		int rowMin = (int)Math.max(Math.floor(bottom), 0);
+		int rowMax = (int)Math.min(Math.ceil(top) - 1, terrain.getRows() - 1);
+		if(columnMin > columnMax || rowMin > rowMax) {
+			return true;
+		}
 		
-		Rectangle realStuff = new Rectangle(this.getRealWorldLoc(bound.getCenter()), this.getRealWorldLoc(bound.getSize()));
-		ArrayList<BoundaryRectangle> collectionOfStuff = new ArrayList<BoundaryRectangle>();
-		for (int x = -2; x < realStuff.getSize().getX()+1;x++) {
-			for (int y = -2; y < realStuff.getSize().getY()+1;y++) {
-				int xCoord = x + (int)realStuff.getCenter().getX();
-				int yCoord = y + (int)realStuff.getCenter().getY();
-				if(xCoord >= 0 && xCoord < this.passableMap[0].length) {
-					if(yCoord >= 0 && yCoord < this.passableMap.length) {
-						collectionOfStuff.add(passableMap[yCoord][xCoord]);
-					}
-				}
+		int column = (int)Math.floor(x / this.getWidthRatio());
+		int row = (int)Math.floor(y / this.getHeightRatio());
+		if(column >= columnMin && column <= columnMax && row >= rowMin && row <= rowMax) {
+			if(distanceField.getDistance(row, column) == 0) {
+				return false;
+			}
+			if(distanceField.isClearAround(row, column, rowMin, columnMin, rowMax, columnMax)) {
+				return true;
 			}
 		}
-		//Stream<BoundaryRectangle> stream = Arrays.stream(passableMap).flatMap(x -> Arrays.stream(x));
-		Stream<BoundaryRectangle> stream = collectionOfStuff.stream();
-		Optional<BoundaryRectangle> stuff = stream.filter(tile->!tile.isPassable() && tile.intersects(realStuff)).findAny();
-		if(stuff.isPresent()) {
-			return false;
-		}else {
+		byte state = terrainPyramid.getEnclosingState(rowMin, columnMin, rowMax, columnMax);
+		if(state != TerrainPyramid.MIXED) {
+			return state == TerrainPyramid.PASSABLE;
+		}
+		return !containsImpassableCell(rowMin, columnMin, rowMax, columnMax);
+	}
+
+	/**
+	 * Returns a distance a surface with the given location and radius can travel in any direction while staying passable.
+	 * The clearance of the cell holding the centre is read from the distance field; the bounding rectangle of the surface
+	 * may grow by that clearance, less one cell and less half of its own extent. Returns 0 if nothing can be guaranteed,
+	 * for instance because the centre lies outside of the terrain.
+	 *
+	 * @param location
+	 * @param radius
+	 *
+	 * @return | result >= 0
+	 * 		   | for each x, y in ]location.getX() - result, location.getX() + result[ x ]location.getY() - result, location.getY() + result[
+	 * 		   |	result == 0 || this.isPassable(new Location(x, y), radius)
+	 *
+	 * @throws InvalidRadiusException
+	 * 			| !Circle.isValidRadius(radius)
+	 */
+	public double getClearance(Location location, Radius radius) throws InvalidRadiusException {
+		if(!Circle.isValidRadius(radius)) {
+			throw new InvalidRadiusException(radius);
+		}
+		double widthRatio = this.getWidthRatio();
+		double heightRatio = this.getHeightRatio();
+		double column = Math.floor(location.getX() / widthRatio);
+		double row = Math.floor(location.getY() / heightRatio);
+		if(column < 0 || column >= terrain.getColumns() || row < 0 || row >= terrain.getRows()) {
+			return 0;
+		}
+		//Keep a small margin so rounding in the tile bounds of isPassableSurface can never reach the next cell.
+		double cells = distanceField.getDistance((int)row, (int)column) - 1 - CLEARANCE_MARGIN;
+		double clearance = Math.min((cells - radius.getRadius() / widthRatio) * widthRatio,
+				(cells - radius.getRadius() / heightRatio) * heightRatio);
+		return Math.max(clearance, 0);
+	}
+
+	/**
+	 * The part of a cell given up by getClearance to absorb rounding errors.
+	 */
+	private static final double CLEARANCE_MARGIN = 1e-6;
+
+	/**
+	 * Returns the highest row of this world's terrain that holds an impassable cell lying fully below
+	 * the bounding rectangle of the surface with the given location and radius, within the columns that rectangle covers.
+	 * Returns -1 if there is no such row.
+	 * A surface falling straight down from a passable location first touches terrain in this row,
+	 * as long as it drops by at most its own diameter at a time.
+	 * 
+	 * @param location
+	 * @param radius
+	 * 
+	 * @return | let bound = Circle(location, radius).getBoundingRectangle() in
+	 * 		   | let realStuff = Rectangle(getRealWorldLoc(bound.getCenter()), getRealWorldLoc(bound.getSize())) in
+	 * 		   | result == max { tile.getCenter().getY() | tile in getPassableMap() && !tile.isPassable()
+	 * 		   |	&& tile.getCenter().getX() < realStuff.getCenter().getX() + realStuff.getSize().getX()
+	 * 		   |	&& tile.getCenter().getX() + 1 > realStuff.getCenter().getX()
+	 * 		   |	&& tile.getCenter().getY() + 1 <= realStuff.getCenter().getY() } or -1
+	 */
+	public int getHighestImpassableRowBelow(Location location, Radius radius) {
+		double x = location.getX();
+		double r = radius.getRadius();
+		double left = (x - r) / this.getWidthRatio();
+		double right = left + (r * 2) / this.getWidthRatio();
+		double bottom = (location.getY() - r) / this.getHeightRatio();
+		int columnMin = (int)Math.max(Math.floor(left), 0);
+		int columnMax = (int)Math.min(Math.ceil(right) - 1, terrain.getColumns() - 1);
+		//A row i lies fully below the rectangle if i+1 <= bottom.
+		int row = (int)Math.min(Math.floor(bottom) - 1, terrain.getRows() - 1);
+		int highest = -1;
+		if(row < 0) {
+			return highest;
+		}
+		for (int j = columnMin; j <= columnMax; j++) {
+			highest = Math.max(highest, columnHeights.getHighestImpassableRow(j, row));
+		}
+		return highest;
+	}
+	
+	/**
+	 * Checks whether the bounding rectangle of the surface centred at the given height with the given radius
+	 * stays clear of the given row of this world's terrain. Every row below 0 is clear.
+	 * 
+	 * @param y
+	 * @param radius
+	 * @param row
+	 * 
+	 * @return | let bottom = (y - radius.getRadius()) / getHeightRatio() in
+	 * 		   | result == row < 0 || !(row + 1 > bottom && row < bottom + (radius.getRadius() * 2) / getHeightRatio())
+	 */
+	public boolean isClearOfRow(double y, Radius radius, int row) {
+		if(row < 0) {
 			return true;
 		}
-		
-//		for (double i = 0; i <= bound.getSize().getX(); i+=0.02) {
-//			for (double j = 0; j <= bound.getSize().getY(); j+=0.02) {
-//				if(passableSurface.contains(new Location(i+bound.getCenter().getX(),j+bound.getCenter().getY()))) {
-//					if(!this.isPassable(new Location((i+bound.getCenter().getX()), (j+bound.getCenter().getY())))) {
-//						return false;
-//					}
-//				}
-//			}
-//		}	
-//		
-//		return true;
+		double r = radius.getRadius();
+		double bottom = (y - r) / this.getHeightRatio();
+		double top = bottom + (r * 2) / this.getHeightRatio();
+		return !(row + 1.0 > bottom && row < top);
+	}
+	
+	/**
+	 * Checks whether any cell in the given (inclusive) range of rows and columns is impassable.
+	 * 
+	 * @return | result == impassableCells.containsImpassable(rowMin, columnMin, rowMax, columnMax)
+	 */
+	private boolean containsImpassableCell(int rowMin, int columnMin, int rowMax, int columnMax) {
+		return impassableCells.containsImpassable(rowMin, columnMin, rowMax, columnMax);
 	}
 	
 //	private boolean furthestPointsPassable(Location location, Radius radius) {
@@ -781,12 +1136,15 @@ public class World {
 	 * @note we do not create a getter or setter for this variable since the "outside" world
 	 * 		should never handle this variable directly.
 	 */
-	private LinkedList<Worm> wormTurnCycle = new LinkedList<Worm>();
+	private TurnCycle wormTurnCycle = new TurnCycle();
 	
 	/**
 	 * Removes a worm from an active game. The worm has died.
 	 * 
 	 * @post | new.wormTurnCycle.contains(worm) == false
+	 * 
+	 * @post | if this.getFirstPlayerWorm() == worm then
+	 * 		 |	new.getFirstPlayerWorm() == this.getNextPlayerWorm()
 	 */
 	public void removeFromTurnCycle(Worm worm) {
 //		try {
@@ -812,7 +1170,7 @@ public class World {
 		this.setGameActive(true);
 		
 		if(this.wormTurnCycle.size() >= 1) {
-			this.wormTurnCycle.getFirst().resetTurn();
+			this.wormTurnCycle.getCurrent().resetTurn();
 		}
 
 	}
@@ -836,7 +1194,7 @@ public class World {
 	 */
 	public void createTurnCycle() {
 		this.wormTurnCycle.clear();
-		ArrayList<Worm> gameWorms = this.getAllObjectsOfType(Worm.class);
+		Collection<Worm> gameWorms = this.getObjectsOfType(Worm.class);
 		for(Worm worm : gameWorms) {
 			this.wormTurnCycle.add(worm);
 		}
@@ -845,35 +1203,45 @@ public class World {
 	/**
 	 * Returns the currently to be controlled worm.
 	 * 
-	 * @return 	| if this.wormTurnCycle.isEmpty() then
-	 * 			|	result == null
-	 * 			| else
-	 * 			|	result == this.wormTurnCycle.getFirst()
+	 * @return 	| result == this.wormTurnCycle.getCurrent()
 	 */
 	public Worm getFirstPlayerWorm() {
-		if(this.wormTurnCycle.isEmpty()) {
-			return null;
-		}
-		return this.wormTurnCycle.getFirst();
+		return this.wormTurnCycle.getCurrent();
+	}
+	
+	/**
+	 * Returns the worm to be controlled after the current one.
+	 * 
+	 * @return 	| result == this.wormTurnCycle.getNext()
+	 */
+	public Worm getNextPlayerWorm() {
+		return this.wormTurnCycle.getNext();
+	}
+	
+	/**
+	 * Returns the worms of the current game in the order they take turns, starting with the currently controlled worm.
+	 * 
+	 * @return 	| result.equals(this.wormTurnCycle.getOrder())
+	 */
+	public List<Worm> getTurnOrder() {
+		return this.wormTurnCycle.getOrder();
 	}
 	
 	/**
 	 * Switches and resets the currently controlled worms, only the newly controlled worm is reset.
 	 * 
-	 * @post 	| if this.wormTurnCycle.size() == 1 then
-	 * 			|	new.wormTurnCycle == this.wormTurnCycle.get(0)
-	 * 			| else
-	 * 			| 	new.wormTurnCycle == this.wormTurnCycle.get(1)
-	 * 			|	new.wormTurnCycle.getLast() == this.wormTurnCycle(0)
-	 * 			|	new.wormTurnCycle.getFirst().resetTurn()
+	 * @post 	| new.getFirstPlayerWorm() == this.getNextPlayerWorm()
+	 * 			| if !this.wormTurnCycle.isEmpty() then
+	 * 			|	new.getTurnOrder().get(new.getTurnOrder().size() - 1) == this.getFirstPlayerWorm()
+	 * 			|	new.getFirstPlayerWorm().resetTurn()
 	 */
 	public void endFirstPlayerWormTurn() throws IllegalStateException{
 		if(!this.wormTurnCycle.isEmpty()) {
-			this.wormTurnCycle.add(wormTurnCycle.getFirst());
-			this.wormTurnCycle.remove(0);
-			this.wormTurnCycle.getFirst().resetTurn();
-			if(this.wormTurnCycle.get(0).getProgram()!=null) {
-				this.wormTurnCycle.get(0).getProgram().doStartExecution();
+			this.wormTurnCycle.advance();
+			Worm current = this.wormTurnCycle.getCurrent();
+			current.resetTurn();
+			if(current.getProgram()!=null) {
+				current.getProgram().doStartExecution();
 			}
 		}else {
 			//throw new IllegalStateException("No worms to switch with, in endFirstPlayerWormTurn");
@@ -1018,113 +1386,42 @@ public class World {
 	}
 	
 	/**
-	 * Returns the winner of the current world.
+	 * Returns the winner of the current world: the last team with surviving worms if there are no teamless worms left,
+	 * or the last worm if it is teamless. Returns null while there is no winner or no active game.
+	 * Looks only at the counts of surviving worms kept by this world, and changes nothing.
+	 * 
 	 * @return the winner of this world.
-	 * 		|if this.getTeams.size >= 1 && wormsWithoutTeam
-	 * 		|	if teamsActive > 1 
-	 * 		|		return null;
-	 * 		|if this.getTeams.size >= 1	
-	 * 		|	if teamsActive == 1
-	 * 		|		for team p : this.getTeams
-	 * 		|			if p.getAlphabeticalListTeamRoster.size > 0
-	 * 		|				return p.getName;
-	 * 		|	else
-	 * 		|		return null
-	 * 		|if onlyWormsWithoutTeamInWorld
-	 * 		|	if onlyOneWorm
-	 * 		|		return this.getFirstPlayerWorm.getName
-	 * 		|	else
-	 * 		|		return null
+	 * 		| if !this.getIsGameActive() then
+	 * 		|	result == null
+	 * 		| else if teamlessWorms == 0 && wormsPerTeam.size() == 1 then
+	 * 		|	result == the only team in wormsPerTeam.keySet().getName()
+	 * 		| else if wormsPerTeam.isEmpty() && teamlessWorms == 1 then
+	 * 		|	result == this.getFirstPlayerWorm().getName()
+	 * 		| else
+	 * 		|	result == null
 	 */
 	public String getWinner() {
 		if(!this.getIsGameActive()) {
 			return null;
 		}
-		//beide opties wormen met en zonder team
-		if((this.getTeams().size() >=1) && wormsWithoutTeam()){
-			for(Team o : this.getTeams()) {
-				if(o.getAlphabeticalListTeamRoster().size() > 0) {
-					teamsActive += 1;
-				}
-				
-				if(o.getAlphabeticalListTeamRoster().size() == 0) {
-					o.terminate();
-				}
-			}
-			
-			if(teamsActive >= 1) {
-				return null;
-			}
-		}
 		//ALLEEN TEAMS
-		if(this.getTeams().size() >= 1) {
-			if(!onlyWormsWithoutTeamInWorld()) {
-				for(Team o : this.getTeams()) {
-					if(o.getAlphabeticalListTeamRoster().size() > 0) {
-						teamsActive += 1;
-					}
-					
-					if(o.getAlphabeticalListTeamRoster().size() == 0) {
-						o.terminate();
-					}
-				}
-					
-				if (teamsActive == 1) {
-					for(Team p : this.getTeams()) {
-						if(p.getAlphabeticalListTeamRoster().size() > 0) {
-							return p.getName();
-						}
-					}
-				}
-				else
-				{
-					return null;
-				}	
-			}//blabla
+		if(teamlessWorms == 0 && wormsPerTeam.size() == 1) {
+			return wormsPerTeam.keySet().iterator().next().getName();
 		}
 		//ALLEEN TEAMLOZE WORMS
-		if (onlyWormsWithoutTeamInWorld()) {
-			if(onlyOneWorm()) {
-				return this.getFirstPlayerWorm().getName();
-			}
-			else {
-				return null;
-			}
-		}	
+		if(wormsPerTeam.isEmpty() && teamlessWorms == 1 && this.getFirstPlayerWorm() != null) {
+			return this.getFirstPlayerWorm().getName();
+		}
 		return null;
 	}
-		
+	
 	/**
-	 * Returns true if there are teamless worm's alive in the world
+	 * Checks whether none of the worms in this world is in a team.
 	 * 
-	 * @return
-	 * 
-	 * @return 	| for Worm worm in  this.getAllObjectsOfType(Worm.class):
-	 * 			|	if worm.isAlive() && worm.getTeam() == null
-	 * 			|		result == true
-	 * 			| result == false
+	 * @return 	| result == wormsPerTeam.isEmpty()
 	 */
-	private boolean wormsWithoutTeam() {
-		for (GameObject worm : this.getAllObjectsOfType(Worm.class)) {
-			if (worm instanceof Worm){
-				if (((Worm) worm).getTeam() == null)
-					return true;
-			}
-		}
-		return false;
-	}
-
-	public int teamsActive;
-	
 	public boolean onlyWormsWithoutTeamInWorld() {
-		for(GameObject worm : this.getAllObjectsOfType(Worm.class)) {
-			if(worm instanceof Worm) {
-				if(((Worm) worm).getTeam() != null) {
-					return false;
-				}
-			}
-		}
-		return true;
+		return wormsPerTeam.isEmpty();
 	}
 	
 	/**
@@ -1132,32 +1429,109 @@ public class World {
 	 * @return | this.getAllObjectsOfType(Worm.class).size == 1
 	 */
 	public boolean onlyOneWorm() {
-		return (this.getAllObjectsOfType(Worm.class).size() == 1);
+		return (this.getObjectsOfType(Worm.class).size() == 1);
 	}
 	
+	/**
+	 * Counts a worm that joins this world, or leaves it, or changes team while in it.
+	 * 
+	 * @param team
+	 * 		The team the worm is counted in, or null for a teamless worm.
+	 * @param delta
+	 * 		+1 for a worm that is now counted in the given team, -1 for a worm that no longer is.
+	 * 
+	 * @post | if team == null then
+	 * 		 |	new.teamlessWorms == this.teamlessWorms + delta
+	 * 		 | else
+	 * 		 |	new.wormsPerTeam.getOrDefault(team, 0) == this.wormsPerTeam.getOrDefault(team, 0) + delta
+	 */
+	private void countWorm(Team team, int delta) {
+		if(team == null) {
+			teamlessWorms += delta;
+			return;
+		}
+		int count = wormsPerTeam.getOrDefault(team, 0) + delta;
+		if(count == 0) {
+			wormsPerTeam.remove(team);
+		}else {
+			wormsPerTeam.put(team, count);
+		}
+	}
+	
+	/**
+	 * Moves a worm of this world from one team to another in the counts of surviving worms.
+	 * Worms call this whenever their team changes. Nothing happens for worms this world doesn't contain.
+	 * 
+	 * @param worm
+	 * @param oldTeam
+	 * @param newTeam
+	 * 
+	 * @effect 	| if getObjectsOfType(Worm.class).contains(worm) then
+	 * 			|	countWorm(oldTeam, -1) && countWorm(newTeam, +1)
+	 */
+	void updateWormTeam(Worm worm, Team oldTeam, Team newTeam) {
+		if(oldTeam != newTeam && getObjectSet(Worm.class).contains(worm)) {
+			countWorm(oldTeam, -1);
+			countWorm(newTeam, +1);
+		}
+	}
+	
+	/**
+	 * The number of worms in this world that are in no team.
+	 * 
+	 * @invar | teamlessWorms == number of worm in getAllObjectsOfType(Worm.class) with worm.getTeam() == null
+	 */
+	private int teamlessWorms = 0;
+	
+	/**
+	 * The number of worms in this world in every team that has any.
+	 * 
+	 * @invar | for each team in wormsPerTeam.keySet()
+	 * 		  |		wormsPerTeam.get(team) == number of worm in getAllObjectsOfType(Worm.class) with worm.getTeam() == team
+	 * 		  |		&& wormsPerTeam.get(team) > 0
+	 */
+	private final HashMap<Team, Integer> wormsPerTeam = new HashMap<Team, Integer>();
+	
 	//No DOCU required
 	public void castSpell() throws IllegalStateException{
-		if(this.getAllGameObjects().size() < 2) {
+		int objectCount = objectCells.size();
+		if(objectCount < 2) {
 			throw new IllegalStateException();
 		}
 		
-		int randomObjectIdx1 = (int) Math.round(Math.random()*((this.getAllGameObjects().size())-1));
-		int randomObjectIdx2 = (int) Math.round(Math.random()*((this.getAllGameObjects().size())-1));
-		ArrayList<Object> gameObjects = new ArrayList<Object>(this.getAllGameObjects());
+		int randomObjectIdx1 = (int) Math.round(Math.random()*(objectCount-1));
+		int randomObjectIdx2 = (int) Math.round(Math.random()*(objectCount-1));
 		
 		while(randomObjectIdx1 == randomObjectIdx2) {
-			randomObjectIdx2 = (int) Math.round(Math.random()*((this.getAllGameObjects().size())-1));
+			randomObjectIdx2 = (int) Math.round(Math.random()*(objectCount-1));
 		}
 		
-		if(gameObjects.get(randomObjectIdx1) instanceof GameObject && gameObjects.get(randomObjectIdx2) instanceof GameObject){
-			GameObject object1 = (GameObject) gameObjects.get(randomObjectIdx1);
-			GameObject object2 = (GameObject) gameObjects.get(randomObjectIdx2);
-			spell(object1,object2);
-			
-		}
-		else {
-			throw new IllegalStateException();
+		spell(getGameObject(randomObjectIdx1), getGameObject(randomObjectIdx2));
+	}
+	
+	/**
+	 * Returns the gameObject at the given index when walking over all gameObjects of this world, type by type,
+	 * without copying them.
+	 * 
+	 * @param index
+	 * 
+	 * @throws IndexOutOfBoundsException
+	 * 		| index < 0 || index >= getAllGameObjects().size()
+	 */
+	private GameObject getGameObject(int index) throws IndexOutOfBoundsException {
+		if(index >= 0) {
+			for (HashSet<GameObject> objects : objectsByClass.values()) {
+				if(index < objects.size()) {
+					Iterator<GameObject> iterator = objects.iterator();
+					for (int skipped = 0; skipped < index; skipped++) {
+						iterator.next();
+					}
+					return iterator.next();
+				}
+				index -= objects.size();
+			}
 		}
+		throw new IndexOutOfBoundsException("Invalid index " + index);
 	}
 	//No DOCU required
 	public void spell(GameObject go1, GameObject go2)
@@ -2,6 +2,9 @@ package worms.model;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
 
 import be.kuleuven.cs.som.annotate.*;
 import worms.exceptions.InvalidLocationException;
@@ -137,15 +140,13 @@ public class Worm extends GameObject implements IJumpable{
 		}
 		
 		boolean bMustRecheckFoodDeletion = false;
-		for (GameObject o: this.getWorld().getAllObjectsOfType(Food.class)) {
+		for (GameObject o: this.getWorld().queryOverlapping(this, Food.class)) {
 			if(o instanceof Food) {
-				if(this.overlapsWith(o)) {
-					this.consumesFood((Food)o);
-					o.getWorld().removeGameObject(o);
-					this.setActionPoints(getCurrentActionPoints()-8);
-					bMustRecheckFoodDeletion = true;
-					break;
-				}
+				this.consumesFood((Food)o);
+				o.getWorld().removeGameObject(o);
+				this.setActionPoints(getCurrentActionPoints()-8);
+				bMustRecheckFoodDeletion = true;
+				break;
 			}
 		}
 		if(bMustRecheckFoodDeletion == true) {
@@ -213,22 +214,29 @@ public class Worm extends GameObject implements IJumpable{
 	public void fall() throws InvalidLocationException{
 		double fallDistance = 0.0;
 		double fallDistanceDelta = 0.1d;
-		Location wormLoc = this.getLocation();
-		while(this.getWorld().isPassable(wormLoc, this.getRadius())) {
+		World world = this.getWorld();
+		Radius radius = this.getRadius();
+		double x = this.getX();
+		double startY = this.getY();
+		double y = startY;
+		//Falling steps never exceed the worm's diameter, so it can only land on the highest impassable row below it.
+		//That row is looked up once, after which each step is a plain comparison.
+		int groundRow = world.getHighestImpassableRowBelow(this.getLocation(), radius);
+		boolean validX = x >= 0 && x <= world.getWorldWidth();
+		while(isPassableWhileFalling(x, y, startY, groundRow)) {
 			fallDistance+=fallDistanceDelta;
-			wormLoc = (new Location(wormLoc.getX(), wormLoc.getY()-fallDistanceDelta));
-			if(!isValidWorldLocation(wormLoc, this.getWorld())||!this.getWorld().isPassable(wormLoc, this.getRadius())) {		
+			y = y-fallDistanceDelta;
+			if(!(validX && y >= 0 && y <= world.getWorldHeight()) || !isPassableWhileFalling(x, y, startY, groundRow)) {		
 				if(fallDistanceDelta < 0.1d / 100d) {
 					break;
 				}else {
-					wormLoc = (new Location(wormLoc.getX(), wormLoc.getY()+fallDistanceDelta));
+					y = y+fallDistanceDelta;
 					fallDistanceDelta/=10d;
 				}
 			}
 		}
 		//The last while step caused an impassable location, therefore, add the delta to the location.
-		wormLoc = (new Location(wormLoc.getX(), wormLoc.getY()+fallDistanceDelta));
-		this.setLocation(wormLoc);
+		this.setLocation(new Location(x, y+fallDistanceDelta));
 
 		this.increaseHitPoints(new BigInteger(((Integer)((int)(fallDistance*FALL_DAMAGE_MOD))).toString()));
 		
@@ -244,6 +252,19 @@ public class Worm extends GameObject implements IJumpable{
 		
 	}
 	
+	/**
+	 * Checks whether this worm would be passable at the given height while falling down from the given start height.
+	 * Below the start, only the given ground row can block the worm, as long as it falls by at most its diameter per step.
+	 * 
+	 * @return | result == this.getWorld().isPassable(new Location(x, y), this.getRadius())
+	 */
+	private boolean isPassableWhileFalling(double x, double y, double startY, int groundRow) {
+		if(y >= startY || 0.1d > this.getRadius().getRadius() * 2) {
+			return this.getWorld().isPassable(new Location(x, y), this.getRadius());
+		}
+		return this.getWorld().isClearOfRow(y, this.getRadius(), groundRow);
+	}
+	
 	/**
 	 * Every worm that this worm hits on hitting the ground has half it's HP substracted and added to this worm.
 	 * 
@@ -254,14 +275,10 @@ public class Worm extends GameObject implements IJumpable{
 	 * 		 |	new.getHitPoints().equals(sun.add(this.getHitPoints()))
 	 */
 	private void fallOnOtherWorms() {
-		for(GameObject worm: this.getWorld().getAllObjectsOfType(Worm.class)) {
-			if(worm instanceof Worm) {
-				if(worm != this && this.overlapsWith(worm) ) {
-					int prev = (int)(((Worm) worm).getHitPoints().doubleValue() / 2d) ;
-					((Worm) worm).setHitPoints(new HP(BigInteger.valueOf(prev)));
-					this.setHitPoints(new HP(((Worm) worm).getHitPoints().add(this.getHitPoints())));
-				}
-			}
+		for(Worm worm: this.getWorld().<Worm>queryOverlapping(this, Worm.class)) {
+			int prev = (int)(worm.getHitPoints().doubleValue() / 2d) ;
+			worm.setHitPoints(new HP(BigInteger.valueOf(prev)));
+			this.setHitPoints(new HP(worm.getHitPoints().add(this.getHitPoints())));
 		}
 	}
 
@@ -280,14 +297,7 @@ public class Worm extends GameObject implements IJumpable{
 		if(this.isTerminated()) {
 			return false;
 		}
-		for(GameObject worm: this.getWorld().getAllObjectsOfType(Worm.class)) {
-			if(worm instanceof Worm) {
-				if(this.overlapsWith(worm)) {
-					return true;
-				}
-			}
-		}
-		return false;
+		return !this.getWorld().queryOverlapping(this, Worm.class).isEmpty();
 	}
 
 	/**
@@ -352,6 +362,22 @@ public class Worm extends GameObject implements IJumpable{
 		return this.direction;
 	}
 
+	/**
+	 * Set this worm's mass, keeping the masses of its team up to date.
+	 * 
+	 * @param mass
+	 * 
+	 * @post | new.getMass() == mass
+	 */
+	@Override @Raw
+	public void setMass(double mass) {
+		double oldMass = this.getMass();
+		super.setMass(mass);
+		if(this.getTeam() != null) {
+			this.getTeam().updateWormMass(this, oldMass);
+		}
+	}
+	
 	/**
 	 * This function sets the theoretical mass of a worm. Since a worm's maximum
 	 * Action Points depends on a worm's weight the worm's max AP will be calculated
@@ -584,13 +610,22 @@ public class Worm extends GameObject implements IJumpable{
 	 * 		|new.getName() == name;
 	 * @throws InvalidWormNameException whenever a given name is invalid or not effective. 
 	 *      |!isValidName(name)
+	 * @throws InvalidWormNameException whenever another worm of this worm's team has the given name.
+	 *      |this.getTeam() != null && !this.getTeam().canRenameWorm(this, name.getName())
 	 */
 	@Raw
 	public void setName(Name name) throws InvalidWormNameException {
 		if(!isValidName(name)) {
 			throw new InvalidWormNameException(name);
 		}
+		if(this.getTeam() != null && !this.getTeam().canRenameWorm(this, name.getName())) {
+			throw new InvalidWormNameException(name);
+		}
+		String oldName = this.getName();
 		this.name = name;
+		if(this.getTeam() != null) {
+			this.getTeam().updateWormName(this, oldName);
+		}
 	}
 	
 	/**
@@ -733,12 +768,8 @@ public class Worm extends GameObject implements IJumpable{
 	 * 		| 			new.getHitPoints() == this.getHitPoints().subtract(BigInteger.valueOf((int)Math.round(N1)))
 	 */
 	private void handleWormMoveCollision() {
-		for(GameObject worm: this.getWorld().getAllObjectsOfType(Worm.class)) {
-			if(worm instanceof Worm) {
-				if(worm!=this && this.overlapsWith(worm)) {
-					this.handleMoveCollisionHPCost(this,(Worm)worm);
-				}
-			}
+		for(Worm worm: this.getWorld().<Worm>queryOverlapping(this, Worm.class)) {
+			this.handleMoveCollisionHPCost(this, worm);
 		}
 	}
 	
@@ -801,39 +832,21 @@ public class Worm extends GameObject implements IJumpable{
 		double bestRatio = 0.0d;
 		boolean bFoundAdjacent = false;
 		
-//		if(this.canMoveStraight()) {
-//			return new Direction(this.getDirection().getAngle() + 0.0);	
-//		}
+		double[] divs = MOVEMENT_ANGLE_DIVERGENCES;
+		double[] ratios = new double[divs.length];
+		//Candidates only read this worm and the terrain, so they can be scored in any order.
+		IntStream candidates = IntStream.range(0, divs.length);
+		if(isParallelMovementScan()) {
+			candidates = candidates.parallel();
+		}
+		candidates.forEach(i -> ratios[i] = this.getMovementAngleRatio(divs[i]));
 		
-		for(double div = -0.7875d; div <= 0.7875d; div += 0.0175) {
-			div = World.roundingHelper(div,5);
-			Direction tempDirection = new Direction(this.getDirection().getAngle() + div);
-			Location tempLocation = getFurthestAdjacentLocationInDirection(tempDirection,this.getRadius().getRadius());
-			double distance = Math.sqrt(Math.pow(getX() - tempLocation.getX(),2)+Math.pow(getY() - tempLocation.getY(),2));
-
-			if(tempLocation!=null && !tempLocation.equals(this.getLocation()) && distance >= 0.11) {
-				//double sampleDiv = this.getDirection().getAngle() >= tempDirection.getAngle() ? this.getDirection().getAngle() - tempDirection.getAngle() : tempDirection.getAngle() - this.getDirection().getAngle();
-
-				double s = Math.atan2(tempLocation.getY() - this.getLocation().getY(),tempLocation.getX() - this.getLocation().getX());
-				if(s<=0) {
-					s*=-1;
-				}
-				double sampleDiv = (this.getDirection().getAngle() - s);
-				if(sampleDiv<=0) {
-					sampleDiv+=Math.PI*2;
-					//sampleDiv = Math.abs(sampleDiv);
-				}
-				double ratio = distance / sampleDiv;
-
-				if(isAdjacentToTerrain(tempLocation, getRadius(), getWorld())) {
-				//	System.out.println(tempLocation + "   distance: "+distance +"    ratio: "+ratio);
-				}
-
-				if(ratio >= bestRatio) {
-					bFoundAdjacent = true;
-					bestDiv = div;
-					bestRatio = ratio;
-				}
+		//Reduce in the order of the divergences, so ties are broken exactly as a sequential scan would.
+		for (int i = 0; i < divs.length; i++) {
+			if(!Double.isNaN(ratios[i]) && ratios[i] >= bestRatio) {
+				bFoundAdjacent = true;
+				bestDiv = divs[i];
+				bestRatio = ratios[i];
 			}
 		}
 		if(bestDiv>=-0.02&&bestDiv<=0.02) {
@@ -845,6 +858,86 @@ public class Worm extends GameObject implements IJumpable{
 		
 		return new Direction(this.getDirection().getAngle() + bestDiv);
 	}
+	
+	/**
+	 * Returns the divergences from this worm's direction that are tried when looking for the best direction to move in.
+	 * 
+	 * @return	| result == [ World.roundingHelper(div,5) for div in [-0.7875d,0.7875d] stepping by 0.0175 ]
+	 */
+	private static double[] getMovementAngleDivergences() {
+		DoubleStream.Builder divs = DoubleStream.builder();
+		for(double div = -0.7875d; div <= 0.7875d; div += 0.0175) {
+			div = World.roundingHelper(div,5);
+			divs.add(div);
+		}
+		return divs.build().toArray();
+	}
+	
+	/**
+	 * The divergences from a worm's direction that are tried when looking for the best direction to move in.
+	 */
+	private static final double[] MOVEMENT_ANGLE_DIVERGENCES = getMovementAngleDivergences();
+	
+	/**
+	 * Returns the ratio between the distance this worm can travel and the divergence in its direction,
+	 * when moving in its direction diverted by a given divergence. Returns Double.NaN if this worm can't
+	 * move at least 0.11 in that direction.
+	 * 
+	 * @param div
+	 * 
+	 * @return	| let tempLocation = getFurthestAdjacentLocationInDirection(new Direction(this.getDirection().getAngle() + div),this.getRadius().getRadius()) in
+	 * 			| let distance = Math.sqrt(Math.pow(getX() - tempLocation.getX(),2)+Math.pow(getY() - tempLocation.getY(),2)) in
+	 * 			| let s = Math.abs(Math.atan2(tempLocation.getY() - this.getLocation().getY(),tempLocation.getX() - this.getLocation().getX())) in
+	 * 			| let sampleDiv = this.getDirection().getAngle() - s <= 0 ? this.getDirection().getAngle() - s + Math.PI*2 : this.getDirection().getAngle() - s in
+	 * 			| if tempLocation.equals(this.getLocation()) || distance < 0.11 then
+	 * 			|	result == Double.NaN
+	 * 			| else
+	 * 			|	result == distance / sampleDiv
+	 */
+	private double getMovementAngleRatio(double div) {
+		Direction tempDirection = new Direction(this.getDirection().getAngle() + div);
+		Location tempLocation = getFurthestAdjacentLocationInDirection(tempDirection,this.getRadius().getRadius());
+		double distance = Math.sqrt(Math.pow(getX() - tempLocation.getX(),2)+Math.pow(getY() - tempLocation.getY(),2));
+
+		if(tempLocation.equals(this.getLocation()) || distance < 0.11) {
+			return Double.NaN;
+		}
+		double s = Math.atan2(tempLocation.getY() - this.getLocation().getY(),tempLocation.getX() - this.getLocation().getX());
+		if(s<=0) {
+			s*=-1;
+		}
+		double sampleDiv = (this.getDirection().getAngle() - s);
+		if(sampleDiv<=0) {
+			sampleDiv+=Math.PI*2;
+		}
+		return distance / sampleDiv;
+	}
+	
+	/**
+	 * Returns whether the candidate directions of a move are scored in parallel.
+	 */
+	@Basic
+	public static boolean isParallelMovementScan() {
+		return parallelMovementScan;
+	}
+	
+	/**
+	 * Sets whether the candidate directions of a move are scored in parallel.
+	 * Both ways give exactly the same moves; a single thread can be preferred on hosts with one core
+	 * or when worms are moved from several threads at once.
+	 * 
+	 * @param parallel
+	 * 
+	 * @post | isParallelMovementScan() == parallel
+	 */
+	public static void setParallelMovementScan(boolean parallel) {
+		parallelMovementScan = parallel;
+	}
+	
+	/**
+	 * Whether the candidate directions of a move are scored in parallel, on the common fork-join pool.
+	 */
+	private static volatile boolean parallelMovementScan = Runtime.getRuntime().availableProcessors() > 1;
 
 
 	/**
@@ -911,13 +1004,12 @@ public class Worm extends GameObject implements IJumpable{
 	 */
 	public Location getFurthestLocationInDirection(Direction direction, double distance) {
 		Location finish = this.getLocation();
-		for(double step = this.getRadius().getRadius() * 0.1d; step <= distance; step+=0.1d) {
-			Location temp = getStepDirection(direction,step);
-			if(this.getWorld()!=null) {
-				if(this.getWorld().isPassable(temp,this.getRadius()) && GameObject.isValidWorldLocation(temp, this.getWorld())) {
-					//if(isAdjacentToTerrain(temp, getRadius(), getWorld())) {
-						finish = temp;
-					//}
+		if(this.getWorld()!=null) {
+			SurfaceRay ray = new SurfaceRay(this.getWorld(), this.getLocation(), direction, this.getRadius());
+			for(double step = this.getRadius().getRadius() * 0.1d; step <= distance; step+=0.1d) {
+				Location temp = ray.getLocation(step);
+				if(ray.isPassable(step) && GameObject.isValidWorldLocation(temp, this.getWorld())) {
+					finish = temp;
 				}else {
 					return finish;
 				}
@@ -963,14 +1055,12 @@ public class Worm extends GameObject implements IJumpable{
 			throw new IllegalArgumentException();
 		}
 		Location finish = this.getLocation();
-		for(double step = this.getRadius().getRadius() * 0.1d; step <= distance; step+=0.01d) {
-			step = World.roundingHelper(step, 3);
-			Location temp = getStepDirection(direction,step);
-			if(this.getWorld()!=null) {
-				if(this.getWorld().isPassable(temp,this.getRadius()) ) {
-					//if(isAdjacentToTerrain(temp, getRadius(), getWorld())) {
-						finish = temp;
-					//}
+		if(this.getWorld()!=null) {
+			SurfaceRay ray = new SurfaceRay(this.getWorld(), this.getLocation(), direction, this.getRadius());
+			for(double step = this.getRadius().getRadius() * 0.1d; step <= distance; step+=0.01d) {
+				step = World.roundingHelper(step, 3);
+				if(ray.isPassable(step)) {
+					finish = ray.getLocation(step);
 				}else {
 					return finish;
 				}
@@ -1006,18 +1096,18 @@ public class Worm extends GameObject implements IJumpable{
 	 */
 	public Location getFurthestAdjacentLocationInDirection(Direction direction, double distance) {
 		Location finish = this.getLocation();
+		SurfaceRay ray = new SurfaceRay(this.getWorld(), this.getLocation(), direction, this.getRadius());
+		//A location is adjacent if the surface fits but the surface grown by 10 percent doesn't.
+		SurfaceRay grownRay = new SurfaceRay(this.getWorld(), this.getLocation(), direction, new Radius(this.getRadius().getRadius() * 1.1d));
 		for(double step = 0.0; step <= distance; step+=0.1) { //start at 0.0
-			Location temp = getStepDirection(direction,step);
-//			if(temp.getDistanceFrom(this.getLocation()) <= this.getRadius().getRadius()*.2) {
-//				continue;
-//			}
 			if(step <= this.getRadius().getRadius()*.1) {
 				continue;
 			}
-			if(this.getWorld().isPassable(temp,this.getRadius())) {
-				if( isAdjacentToTerrain(temp, this.getRadius(), this.getWorld()) ) {
-					finish = temp;
-				}
+			if(grownRay.isPassable(step)) {
+				continue;
+			}
+			if(ray.isPassable(step)) {
+				finish = ray.getLocation(step);
 			}else {
 				return finish;
 			}
@@ -1213,23 +1303,21 @@ public class Worm extends GameObject implements IJumpable{
 	 */
 	private void checkForWormOverlapsAfterJump() {
 		ArrayList<Worm> handledWorms = new ArrayList<Worm>();
-		for (GameObject worm : this.getWorld().getAllObjectsOfType(Worm.class)) {
-			if(worm instanceof Worm ) {
-				if(worm.overlapsWith(this) && worm != this && !handledWorms.contains(worm)) {
-					int coinValue = (int)Math.round(Math.random());
-					Worm attacker = this;
-					Worm defender = (Worm)worm;
-					if(coinValue == 1) {
-						attacker = (Worm)worm;
-						defender = this;
-					}
-					double mod = ((attacker.getRadius().getRadius() / defender.getRadius().getRadius()));
-					int damage = (int)(10* mod); 
-					damage = (int)Math.round(Math.random()*(damage-1) + 1);
-					defender.increaseHitPoints(damage * -1);
-					handledWorms.add(defender);
-					handledWorms.add(attacker);
+		for (Worm worm : this.getWorld().<Worm>queryOverlapping(this, Worm.class)) {
+			if(!handledWorms.contains(worm)) {
+				int coinValue = (int)Math.round(Math.random());
+				Worm attacker = this;
+				Worm defender = worm;
+				if(coinValue == 1) {
+					attacker = worm;
+					defender = this;
 				}
+				double mod = ((attacker.getRadius().getRadius() / defender.getRadius().getRadius()));
+				int damage = (int)(10* mod); 
+				damage = (int)Math.round(Math.random()*(damage-1) + 1);
+				defender.increaseHitPoints(damage * -1);
+				handledWorms.add(defender);
+				handledWorms.add(attacker);
 			}
 		}
 	}
@@ -1417,19 +1505,44 @@ public class Worm extends GameObject implements IJumpable{
 	 * 			
 	 */
 	private double getLastPassableJumpStepTime(double jumpTime, double deltaT) {
+		if(!isValidJumpTime(deltaT)) {
+			throw new IllegalArgumentException(((Double)deltaT).toString());
+		}
+		World world = this.getWorld();
+		Radius radius = this.getRadius();
+		double r = radius.getRadius();
+		//Where the surface grown by 10 percent fits, this worm is passable and not adjacent to terrain.
+		Radius grownRadius = new Radius(r * 1.1d);
+		double jumpSpeedMagnitude = this.getJumpSpeedMagnitude();
+		double speedX = jumpSpeedMagnitude * Math.cos(this.getDirection().getAngle());
+		double speedY = jumpSpeedMagnitude * Math.sin(this.getDirection().getAngle());
+		
 		Location lastAdjacentLocation = null;
 		double lastAdjacentTime = 0.0;
+		//The last step the terrain was looked at, and how far the grown surface can travel from there.
+		double anchorX = 0, anchorY = 0, clearance = 0;
 		for (double i = deltaT; i < jumpTime; i+=deltaT) {
-			Location wormLoc = new Location(this.jumpStep(i));
-			if(this.getWorld().isAdjacantToImpassableTerrain(wormLoc, this.getRadius())) {
-				lastAdjacentLocation = wormLoc;
-				lastAdjacentTime = i;
+			//Same position as jumpStep(i), without creating a location for every step.
+			double x = this.getX()+(speedX*i);
+			double y = this.getY()+((speedY*i) - ((1D/2D)*World.getGravity()*Math.pow(i,2)));
+			boolean blocked = false;
+			if(!(Math.max(Math.abs(x - anchorX), Math.abs(y - anchorY)) < clearance)) {
+				Location wormLoc = new Location(x, y);
+				anchorX = x;
+				anchorY = y;
+				clearance = world.getClearance(wormLoc, grownRadius);
+				if(clearance == 0) {
+					if(world.isAdjacantToImpassableTerrain(wormLoc, radius)) {
+						lastAdjacentLocation = wormLoc;
+						lastAdjacentTime = i;
+					}
+					blocked = !world.isPassable(wormLoc, radius);
+				}
 			}
-			if(!this.getWorld().isPassable(wormLoc, this.getRadius()) || !this.getWorld().fullyContains(new Circle(wormLoc, getRadius()).getBoundingRectangle())) {
-//				if(this.getLocation().getDistanceFrom(wormLoc) < this.getRadius().getRadius()) {
-//					return 0; //THIS WILL CAUSE A CONTROLLED EXCEPTION
-//				}
-				//return i - deltaT;
+			//The bounding rectangle of this worm must lie within the world.
+			double left = x - r;
+			double bottom = y - r;
+			if(blocked || !(left >= 0 && bottom >= 0 && world.getWorldWidth() >= left + r * 2 && world.getWorldHeight() >= bottom + r * 2)) {
 				if(lastAdjacentLocation!=null && this.getLocation().getDistanceFrom(lastAdjacentLocation) < this.getRadius().getRadius()) {
 					return 0; //THIS WILL CAUSE A CONTROLLED EXCEPTION
 				}
@@ -1438,12 +1551,6 @@ public class Worm extends GameObject implements IJumpable{
 			}
 		}
 		
-		//This checks the very last moment of the jump, assuming all other steps were valid.
-//		Location wormLoc = new Location(this.jumpStep(jumpTime));
-//		if(!this.getWorld().isPassable(wormLoc, this.getRadius())) {
-//			return jumpTime-deltaT;
-//		}
-		//return jumpTime;
 		return lastAdjacentTime;
 	}
 
@@ -1491,7 +1598,11 @@ public class Worm extends GameObject implements IJumpable{
 	 */
 	@Basic @Raw
 	public void setTeam(Team team) {
+		Team oldTeam = this.team;
 		this.team = team;
+		if(this.getWorld() != null) {
+			this.getWorld().updateWormTeam(this, oldTeam, team);
+		}
 	}
 	
 	/**
@@ -1612,14 +1723,11 @@ public class Worm extends GameObject implements IJumpable{
 		if(this.getWorld() == null) {
 			throw new IllegalStateException();
 		}
-		for (GameObject bullet : this.getWorld().getAllObjectsOfType(Projectile.class)) {
-			if(bullet instanceof Projectile) {
-				if(bullet.overlapsWith(this)) {
-					this.hitByProjectile((Projectile)bullet);
-					bullet.terminate();
-					return null;
-				}
-			}
+		List<Projectile> bullets = this.getWorld().queryOverlapping(this, Projectile.class);
+		if(!bullets.isEmpty()) {
+			this.hitByProjectile(bullets.get(0));
+			bullets.get(0).terminate();
+			return null;
 		}
 		
 		int amountOfGuns = Projectile.Projectile_Type.values().length;
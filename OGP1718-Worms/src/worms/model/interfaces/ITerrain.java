@@ -0,0 +1,29 @@
+package worms.model.interfaces;
+
+/**
+ * A read-only view on the terrain of a world, divided into square cells.
+ * Row 0 is the bottom row of the world, column 0 the leftmost column.
+ * 
+ * @author bernd
+ *
+ */
+public interface ITerrain {
+	
+	/**
+	 * Returns the number of rows of this terrain.
+	 */
+	public int getRows();
+	
+	/**
+	 * Returns the number of columns of this terrain.
+	 */
+	public int getColumns();
+	
+	/**
+	 * Returns whether the cell at the given row and column is passable.
+	 * 
+	 * @throws IndexOutOfBoundsException
+	 * 		| row < 0 || row >= getRows() || column < 0 || column >= getColumns()
+	 */
+	public boolean isPassableCell(int row, int column) throws IndexOutOfBoundsException;
+}
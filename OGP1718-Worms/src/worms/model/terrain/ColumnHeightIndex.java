@@ -0,0 +1,134 @@
+package worms.model.terrain;
+
+import java.util.Arrays;
+
+/**
+ * An index over the columns of a terrain grid, answering "which is the highest impassable
+ * cell at or below this row" for any column with a single binary search.
+ * Every column is stored as its runs of consecutive impassable cells, bottom to top.
+ * 
+ * @author bernd
+ *
+ */
+public class ColumnHeightIndex {
+
+	/**
+	 * Creates the column height index of a given terrain grid.
+	 * 
+	 * @param terrain
+	 * 
+	 * @post | for each row, column in terrain
+	 * 		 |	new.getHighestImpassableRow(column, row) == 
+	 * 		 |		max { i | i <= row && !terrain.isPassableCell(i, column) } or -1 if there is no such i
+	 * 
+	 * @throws IllegalArgumentException
+	 * 		| terrain == null
+	 */
+	public ColumnHeightIndex(TerrainGrid terrain) throws IllegalArgumentException {
+		if(terrain == null) {
+			throw new IllegalArgumentException("A column height index needs a terrain.");
+		}
+		this.rows = terrain.getRows();
+		this.columns = terrain.getColumns();
+		this.firstRun = new int[columns + 1];
+		int[] bottoms = new int[16];
+		int[] tops = new int[16];
+		int runs = 0;
+		for (int j = 0; j < columns; j++) {
+			firstRun[j] = runs;
+			int i = 0;
+			while(i < rows) {
+				if(terrain.isPassableCell(i, j)) {
+					i++;
+					continue;
+				}
+				int bottom = i;
+				while(i < rows && !terrain.isPassableCell(i, j)) {
+					i++;
+				}
+				if(runs == bottoms.length) {
+					bottoms = Arrays.copyOf(bottoms, runs * 2);
+					tops = Arrays.copyOf(tops, runs * 2);
+				}
+				bottoms[runs] = bottom;
+				tops[runs] = i - 1;
+				runs++;
+			}
+		}
+		firstRun[columns] = runs;
+		this.runBottoms = Arrays.copyOf(bottoms, runs);
+		this.runTops = Arrays.copyOf(tops, runs);
+	}
+	
+	/**
+	 * Returns the highest impassable row at or below the given row in the given column,
+	 * or -1 if all of those cells are passable.
+	 * 
+	 * @return | result == max { i | i <= row && !terrain.isPassableCell(i, column) } or -1 if there is no such i
+	 * 
+	 * @throws IndexOutOfBoundsException
+	 * 		| column < 0 || column >= getColumns()
+	 */
+	public int getHighestImpassableRow(int column, int row) throws IndexOutOfBoundsException {
+		if(column < 0 || column >= columns) {
+			throw new IndexOutOfBoundsException("Column " + column + " lies outside the terrain.");
+		}
+		//Find the last run of this column starting at or below the given row.
+		int low = firstRun[column];
+		int high = firstRun[column + 1] - 1;
+		int found = -1;
+		while(low <= high) {
+			int middle = (low + high) >>> 1;
+			if(runBottoms[middle] <= row) {
+				found = middle;
+				low = middle + 1;
+			}else {
+				high = middle - 1;
+			}
+		}
+		if(found == -1) {
+			return -1;
+		}
+		return Math.min(runTops[found], row);
+	}
+	
+	/**
+	 * Returns the number of rows of the indexed terrain.
+	 */
+	public int getRows() {
+		return this.rows;
+	}
+	
+	/**
+	 * Returns the number of columns of the indexed terrain.
+	 */
+	public int getColumns() {
+		return this.columns;
+	}
+	
+	/**
+	 * Represents the amount of rows of the indexed terrain.
+	 */
+	private final int rows;
+	
+	/**
+	 * Represents the amount of columns of the indexed terrain.
+	 */
+	private final int columns;
+	
+	/**
+	 * The index of the first run of every column in runBottoms and runTops;
+	 * the runs of column j are [firstRun[j], firstRun[j+1][.
+	 */
+	private final int[] firstRun;
+	
+	/**
+	 * The lowest row of every run of impassable cells.
+	 */
+	private final int[] runBottoms;
+	
+	/**
+	 * The highest row of every run of impassable cells.
+	 */
+	private final int[] runTops;
+}
@@ -0,0 +1,164 @@
+package worms.model.terrain;
+
+/**
+ * A field holding, for every cell of a terrain, the distance to the nearest impassable cell.
+ * Distances are measured in cells along the largest axis (chessboard distance), which matches
+ * the axis-aligned bounding boxes used for passability checks: every cell within
+ * getDistance(row, column) - 1 rows and columns of a cell is passable.
+ * Impassable cells have distance 0, cells outside of the terrain are never impassable.
+ * 
+ * @author bernd
+ *
+ */
+public class DistanceField {
+
+	/**
+	 * Creates the distance field of a given terrain.
+	 * 
+	 * @param terrain
+	 * 
+	 * @post | for each row, column in terrain
+	 * 		 |	new.getDistance(row, column) == min(MAX_DISTANCE,
+	 * 		 |		min { max(abs(row - i), abs(column - j)) | !terrain.isPassableCell(i, j) })
+	 * 
+	 * @throws IllegalArgumentException
+	 * 		| terrain == null
+	 */
+	public DistanceField(TerrainGrid terrain) throws IllegalArgumentException {
+		if(terrain == null) {
+			throw new IllegalArgumentException("A distance field needs a terrain.");
+		}
+		this.rows = terrain.getRows();
+		this.columns = terrain.getColumns();
+		this.distances = new short[rows * columns];
+		long[] cells = terrain.getCells();
+		for (int i = 0; i < rows; i++) {
+			int offset = terrain.getRowOffset(i);
+			for (int j = 0; j < columns; j++) {
+				distances[i * columns + j] = ((cells[offset + (j >>> 6)] & (1L << j)) != 0) ? 0 : MAX_DISTANCE;
+			}
+		}
+		propagate();
+	}
+	
+	/**
+	 * Two-pass chamfer propagation. For the chessboard distance with unit weights
+	 * on all eight neighbours, a forward and a backward sweep are exact.
+	 */
+	private void propagate() {
+		short[] d = this.distances;
+		int last = columns - 1;
+		for (int i = 0; i < rows; i++) {
+			int row = i * columns;
+			for (int j = 0; j < columns; j++) {
+				int index = row + j;
+				int distance = d[index];
+				if(distance == 0) {
+					continue;
+				}
+				if(j > 0) {
+					distance = Math.min(distance, d[index - 1] + 1);
+				}
+				if(i > 0) {
+					int below = index - columns;
+					int nearest = d[below];
+					if(j > 0) {
+						nearest = Math.min(nearest, d[below - 1]);
+					}
+					if(j < last) {
+						nearest = Math.min(nearest, d[below + 1]);
+					}
+					distance = Math.min(distance, nearest + 1);
+				}
+				d[index] = (short)Math.min(distance, MAX_DISTANCE);
+			}
+		}
+		for (int i = rows - 1; i >= 0; i--) {
+			int row = i * columns;
+			for (int j = last; j >= 0; j--) {
+				int index = row + j;
+				int distance = d[index];
+				if(distance == 0) {
+					continue;
+				}
+				if(j < last) {
+					distance = Math.min(distance, d[index + 1] + 1);
+				}
+				if(i < rows - 1) {
+					int above = index + columns;
+					int nearest = d[above];
+					if(j > 0) {
+						nearest = Math.min(nearest, d[above - 1]);
+					}
+					if(j < last) {
+						nearest = Math.min(nearest, d[above + 1]);
+					}
+					distance = Math.min(distance, nearest + 1);
+				}
+				d[index] = (short)Math.min(distance, MAX_DISTANCE);
+			}
+		}
+	}
+	
+	/**
+	 * Returns the distance, in cells, from the cell at the given row and column to the nearest impassable cell.
+	 * Distances are capped at MAX_DISTANCE.
+	 * 
+	 * @throws IndexOutOfBoundsException
+	 * 		| row < 0 || row >= getRows() || column < 0 || column >= getColumns()
+	 */
+	public int getDistance(int row, int column) throws IndexOutOfBoundsException {
+		if(row < 0 || row >= rows || column < 0 || column >= columns) {
+			throw new IndexOutOfBoundsException("Cell (" + row + "," + column + ") lies outside the distance field.");
+		}
+		return distances[row * columns + column];
+	}
+	
+	/**
+	 * Returns whether every cell in the given range of rows and columns is certainly passable,
+	 * judging only from the distance of the cell at the given row and column.
+	 * 
+	 * @return | let distance = getDistance(row, column) in
+	 * 		   | result == rowMin > row - distance && rowMax < row + distance
+	 * 		   |	&& columnMin > column - distance && columnMax < column + distance
+	 */
+	public boolean isClearAround(int row, int column, int rowMin, int columnMin, int rowMax, int columnMax) {
+		int distance = getDistance(row, column);
+		return rowMin > row - distance && rowMax < row + distance
+				&& columnMin > column - distance && columnMax < column + distance;
+	}
+	
+	/**
+	 * Returns the number of rows of this field.
+	 */
+	public int getRows() {
+		return this.rows;
+	}
+	
+	/**
+	 * Returns the number of columns of this field.
+	 */
+	public int getColumns() {
+		return this.columns;
+	}
+	
+	/**
+	 * The largest distance this field keeps track of.
+	 */
+	public static final short MAX_DISTANCE = Short.MAX_VALUE;
+	
+	/**
+	 * Represents the amount of rows of this field.
+	 */
+	private final int rows;
+	
+	/**
+	 * Represents the amount of columns of this field.
+	 */
+	private final int columns;
+	
+	/**
+	 * The distances of all cells, row by row, starting with the bottom row.
+	 */
+	private final short[] distances;
+}
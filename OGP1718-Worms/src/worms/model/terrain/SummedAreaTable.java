@@ -0,0 +1,96 @@
+package worms.model.terrain;
+
+/**
+ * An integral image over the impassable cells of a terrain. Entry (i, j) of the table holds
+ * the amount of impassable cells in rows [0, i[ and columns [0, j[, so the amount of impassable
+ * cells in any rectangle of cells follows from four entries.
+ * 
+ * @author bernd
+ *
+ */
+public class SummedAreaTable {
+
+	/**
+	 * Creates the summed-area table of a given terrain.
+	 * 
+	 * @param terrain
+	 * 
+	 * @post | for each rowMin, columnMin, rowMax, columnMax in terrain
+	 * 		 |	new.countImpassable(rowMin, columnMin, rowMax, columnMax) ==
+	 * 		 |		count { (i, j) | rowMin <= i <= rowMax && columnMin <= j <= columnMax && !terrain.isPassableCell(i, j) }
+	 * 
+	 * @throws IllegalArgumentException
+	 * 		| terrain == null
+	 */
+	public SummedAreaTable(TerrainGrid terrain) throws IllegalArgumentException {
+		if(terrain == null) {
+			throw new IllegalArgumentException("A summed-area table needs a terrain.");
+		}
+		this.rows = terrain.getRows();
+		this.columns = terrain.getColumns();
+		this.width = columns + 1;
+		this.sums = new int[(rows + 1) * width];
+		long[] cells = terrain.getCells();
+		for (int i = 0; i < rows; i++) {
+			int offset = terrain.getRowOffset(i);
+			int rowSum = 0;
+			int below = i * width;
+			int current = below + width;
+			for (int j = 0; j < columns; j++) {
+				if((cells[offset + (j >>> 6)] & (1L << j)) != 0) {
+					rowSum++;
+				}
+				sums[current + j + 1] = sums[below + j + 1] + rowSum;
+			}
+		}
+	}
+	
+	/**
+	 * Returns the amount of impassable cells in the given inclusive range of rows and columns.
+	 * The range is clipped to the terrain.
+	 * 
+	 * @return | result ==
+	 * 		   |	count { (i, j) | rowMin <= i <= rowMax && columnMin <= j <= columnMax && !terrain.isPassableCell(i, j) }
+	 */
+	public int countImpassable(int rowMin, int columnMin, int rowMax, int columnMax) {
+		rowMin = Math.max(rowMin, 0);
+		columnMin = Math.max(columnMin, 0);
+		rowMax = Math.min(rowMax, rows - 1);
+		columnMax = Math.min(columnMax, columns - 1);
+		if(rowMin > rowMax || columnMin > columnMax) {
+			return 0;
+		}
+		int lower = rowMin * width;
+		int upper = (rowMax + 1) * width;
+		return sums[upper + columnMax + 1] - sums[lower + columnMax + 1] - sums[upper + columnMin] + sums[lower + columnMin];
+	}
+	
+	/**
+	 * Returns whether any cell in the given inclusive range of rows and columns is impassable.
+	 * 
+	 * @return | result == countImpassable(rowMin, columnMin, rowMax, columnMax) > 0
+	 */
+	public boolean containsImpassable(int rowMin, int columnMin, int rowMax, int columnMax) {
+		return countImpassable(rowMin, columnMin, rowMax, columnMax) > 0;
+	}
+	
+	/**
+	 * Represents the amount of rows of the terrain.
+	 */
+	private final int rows;
+	
+	/**
+	 * Represents the amount of columns of the terrain.
+	 */
+	private final int columns;
+	
+	/**
+	 * The amount of entries in a row of the table.
+	 */
+	private final int width;
+	
+	/**
+	 * The table itself, row by row. Row 0 and column 0 only hold zeroes.
+	 */
+	private final int[] sums;
+}
@@ -0,0 +1,150 @@
+package worms.model.terrain;
+
+import be.kuleuven.cs.som.annotate.*;
+import worms.model.interfaces.ITerrain;
+
+/**
+ * A compact terrain store, keeping one bit per cell. Set bits mark impassable cells.
+ * Each row starts on a new long, so a row of the terrain spans getStride() longs.
+ * 
+ * @author bernd
+ *
+ * @invar | getRows() > 0 && getColumns() > 0
+ */
+public class TerrainGrid implements ITerrain {
+
+	/**
+	 * Creates a new terrain grid from a given passable map.
+	 * The first row of the passable map is the top row of the world.
+	 * 
+	 * @param passableMap
+	 * 
+	 * @post | new.getRows() == passableMap.length
+	 * @post | new.getColumns() == passableMap[0].length
+	 * @post | for i in [0..passableMap.length[
+	 * 		 |	for j in [0..passableMap[0].length[
+	 * 		 |		new.isPassableCell(i, j) == passableMap[passableMap.length - i - 1][j]
+	 * 
+	 * @throws IllegalArgumentException
+	 * 		| passableMap == null || passableMap.length == 0 || passableMap[0].length == 0
+	 */
+	public TerrainGrid(boolean[][] passableMap) throws IllegalArgumentException {
+		if(passableMap == null || passableMap.length == 0 || passableMap[0].length == 0) {
+			throw new IllegalArgumentException("Invalid passableMap for terrain.");
+		}
+		this.rows = passableMap.length;
+		this.columns = passableMap[0].length;
+		this.stride = (columns + 63) >>> 6;
+		this.cells = new long[rows * stride];
+		for (int i = 0; i < rows; i++) {
+			boolean[] mapRow = passableMap[rows - i - 1];
+			for (int j = 0; j < columns; j++) {
+				if(!mapRow[j]) {
+					cells[i * stride + (j >>> 6)] |= 1L << j;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the number of rows of this terrain.
+	 */
+	@Basic @Immutable
+	@Override
+	public int getRows() {
+		return this.rows;
+	}
+	
+	/**
+	 * Returns the number of columns of this terrain.
+	 */
+	@Basic @Immutable
+	@Override
+	public int getColumns() {
+		return this.columns;
+	}
+	
+	/**
+	 * Returns the number of longs used to store a single row.
+	 */
+	@Basic @Immutable
+	public int getStride() {
+		return this.stride;
+	}
+	
+	/**
+	 * Returns whether the cell at the given row and column is passable.
+	 * 
+	 * @throws IndexOutOfBoundsException
+	 * 		| row < 0 || row >= getRows() || column < 0 || column >= getColumns()
+	 */
+	@Override
+	public boolean isPassableCell(int row, int column) throws IndexOutOfBoundsException {
+		if(row < 0 || row >= rows || column < 0 || column >= columns) {
+			throw new IndexOutOfBoundsException("Cell (" + row + "," + column + ") lies outside the terrain.");
+		}
+		return (cells[row * stride + (column >>> 6)] & (1L << column)) == 0;
+	}
+	
+	/**
+	 * Sets whether the cell at the given row and column is passable.
+	 * Indices built on this grid, such as a TerrainPyramid, must be told about the change.
+	 * Worlds keep several indices on their terrain, so only this package may change cells.
+	 * 
+	 * @post | new.isPassableCell(row, column) == passable
+	 * 
+	 * @throws IndexOutOfBoundsException
+	 * 		| row < 0 || row >= getRows() || column < 0 || column >= getColumns()
+	 */
+	void setPassableCell(int row, int column, boolean passable) throws IndexOutOfBoundsException {
+		if(row < 0 || row >= rows || column < 0 || column >= columns) {
+			throw new IndexOutOfBoundsException("Cell (" + row + "," + column + ") lies outside the terrain.");
+		}
+		if(passable) {
+			cells[row * stride + (column >>> 6)] &= ~(1L << column);
+		}else {
+			cells[row * stride + (column >>> 6)] |= 1L << column;
+		}
+	}
+	
+	/**
+	 * Returns the index in getCells() of the first long of the given row.
+	 * Bit (j % 64) of the long at getRowOffset(row) + j / 64 is set if column j is impassable.
+	 * 
+	 * @return | result == row * getStride()
+	 */
+	public int getRowOffset(int row) {
+		return row * stride;
+	}
+	
+	/**
+	 * Returns the packed cells of this terrain.
+	 * Only the terrain package may read them, so that the terrain can't be changed from outside it.
+	 * 
+	 * @note the array is not copied, callers must not modify it.
+	 */
+	@Basic
+	long[] getCells() {
+		return this.cells;
+	}
+	
+	/**
+	 * Represents the amount of rows of this terrain.
+	 */
+	private final int rows;
+	
+	/**
+	 * Represents the amount of columns of this terrain.
+	 */
+	private final int columns;
+	
+	/**
+	 * Represents the amount of longs used per row.
+	 */
+	private final int stride;
+	
+	/**
+	 * The packed cells of this terrain, row by row, starting with the bottom row.
+	 */
+	private final long[] cells;
+}
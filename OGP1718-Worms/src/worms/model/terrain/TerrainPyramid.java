@@ -0,0 +1,237 @@
+package worms.model.terrain;
+
+import worms.model.interfaces.ITerrain;
+
+/**
+ * A multi-resolution index over a terrain grid. Level 0 are the cells of the grid itself,
+ * a node at level L covers a square of 2^L by 2^L cells and is marked all-passable,
+ * all-solid or mixed. Nodes on the upper and right border may cover fewer cells.
+ * 
+ * Region queries only descend into mixed nodes. When cells of the grid change,
+ * update(row, column) rebuilds just the nodes above that cell.
+ * 
+ * @author bernd
+ *
+ */
+public class TerrainPyramid {
+	
+	/**
+	 * State of a node whose cells are all passable.
+	 */
+	public static final byte PASSABLE = 1;
+	
+	/**
+	 * State of a node whose cells are all impassable.
+	 */
+	public static final byte SOLID = 2;
+	
+	/**
+	 * State of a node holding both passable and impassable cells.
+	 */
+	public static final byte MIXED = PASSABLE | SOLID;
+
+	/**
+	 * Creates the pyramid of a given terrain grid.
+	 * 
+	 * @param terrain
+	 * 
+	 * @post | new.getTerrain() == terrain
+	 * 
+	 * @throws IllegalArgumentException
+	 * 		| terrain == null
+	 */
+	public TerrainPyramid(TerrainGrid terrain) throws IllegalArgumentException {
+		if(terrain == null) {
+			throw new IllegalArgumentException("A terrain pyramid needs a terrain.");
+		}
+		this.terrain = terrain;
+		int levels = 1;
+		while(((terrain.getRows() - 1) >> (levels - 1)) > 0 || ((terrain.getColumns() - 1) >> (levels - 1)) > 0) {
+			levels++;
+		}
+		this.nodes = new byte[levels][];
+		this.nodeColumns = new int[levels];
+		for (int level = 1; level < levels; level++) {
+			int rows = getNodeRows(level);
+			nodeColumns[level] = getNodeColumns(level);
+			nodes[level] = new byte[rows * nodeColumns[level]];
+			for (int i = 0; i < rows; i++) {
+				for (int j = 0; j < nodeColumns[level]; j++) {
+					nodes[level][i * nodeColumns[level] + j] = combineChildren(level, i, j);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns a read-only view on the terrain grid this pyramid indexes.
+	 */
+	public ITerrain getTerrain() {
+		return this.terrain;
+	}
+	
+	/**
+	 * Returns the amount of levels of this pyramid, including the cell level.
+	 * The single node of the top level covers the whole terrain.
+	 */
+	public int getLevels() {
+		return nodes.length;
+	}
+	
+	/**
+	 * Returns the amount of node rows at the given level.
+	 */
+	public int getNodeRows(int level) {
+		return ((terrain.getRows() - 1) >> level) + 1;
+	}
+	
+	/**
+	 * Returns the amount of node columns at the given level.
+	 */
+	public int getNodeColumns(int level) {
+		return ((terrain.getColumns() - 1) >> level) + 1;
+	}
+	
+	/**
+	 * Returns the state of the node at the given level, row and column.
+	 * 
+	 * @return | if level == 0 then
+	 * 		   |	result == (getTerrain().isPassableCell(row, column) ? PASSABLE : SOLID)
+	 * 		   | else
+	 * 		   |	result == the combined state of the cells covered by the node
+	 * 
+	 * @throws IndexOutOfBoundsException
+	 * 		| level < 0 || level >= getLevels()
+	 * 		|	|| row < 0 || row >= getNodeRows(level) || column < 0 || column >= getNodeColumns(level)
+	 */
+	public byte getState(int level, int row, int column) throws IndexOutOfBoundsException {
+		if(level == 0) {
+			return terrain.isPassableCell(row, column) ? PASSABLE : SOLID;
+		}
+		if(row < 0 || row >= getNodeRows(level) || column < 0 || column >= nodeColumns[level]) {
+			throw new IndexOutOfBoundsException("Node (" + row + "," + column + ") lies outside level " + level + ".");
+		}
+		return nodes[level][row * nodeColumns[level] + column];
+	}
+	
+	/**
+	 * Combines the states of the (up to four) children of the given node.
+	 */
+	private byte combineChildren(int level, int row, int column) {
+		int childRows = (level == 1) ? terrain.getRows() : getNodeRows(level - 1);
+		int childColumns = (level == 1) ? terrain.getColumns() : nodeColumns[level - 1];
+		byte state = 0;
+		for (int i = row * 2; i <= row * 2 + 1 && i < childRows; i++) {
+			for (int j = column * 2; j <= column * 2 + 1 && j < childColumns; j++) {
+				state |= getState(level - 1, i, j);
+			}
+		}
+		return state;
+	}
+	
+	/**
+	 * Rebuilds the nodes covering the cell at the given row and column, after that cell of the terrain has changed.
+	 * 
+	 * @post | for level in [1..getLevels()[
+	 * 		 |	new.getState(level, row >> level, column >> level) == the combined state of the cells covered by that node
+	 * 
+	 * @throws IndexOutOfBoundsException
+	 * 		| row < 0 || row >= getTerrain().getRows() || column < 0 || column >= getTerrain().getColumns()
+	 */
+	public void update(int row, int column) throws IndexOutOfBoundsException {
+		if(row < 0 || row >= terrain.getRows() || column < 0 || column >= terrain.getColumns()) {
+			throw new IndexOutOfBoundsException("Cell (" + row + "," + column + ") lies outside the terrain.");
+		}
+		for (int level = 1; level < nodes.length; level++) {
+			int i = row >> level;
+			int j = column >> level;
+			byte state = combineChildren(level, i, j);
+			if(nodes[level][i * nodeColumns[level] + j] == state) {
+				return;
+			}
+			nodes[level][i * nodeColumns[level] + j] = state;
+		}
+	}
+	
+	/**
+	 * Returns the state of the smallest node enclosing the given inclusive range of rows and columns.
+	 * This is a single lookup: PASSABLE or SOLID settle the whole range, MIXED settles nothing.
+	 * The range must lie within the terrain.
+	 * 
+	 * @return | let level = the smallest level with rowMin >> level == rowMax >> level
+	 * 		   |	&& columnMin >> level == columnMax >> level in
+	 * 		   | result == getState(level, rowMin >> level, columnMin >> level)
+	 */
+	public byte getEnclosingState(int rowMin, int columnMin, int rowMax, int columnMax) {
+		int level = Math.max(32 - Integer.numberOfLeadingZeros(rowMin ^ rowMax), 32 - Integer.numberOfLeadingZeros(columnMin ^ columnMax));
+		if(level >= nodes.length) {
+			level = nodes.length - 1;
+		}
+		return getState(level, rowMin >> level, columnMin >> level);
+	}
+	
+	/**
+	 * Returns the combined state of the cells in the given inclusive range of rows and columns.
+	 * Only nodes that are mixed and partly overlap the range are descended into.
+	 * The range is clipped to the terrain; an empty range is PASSABLE.
+	 * 
+	 * @return | result == PASSABLE if all cells in the range are passable,
+	 * 		   |	SOLID if all are impassable, MIXED otherwise
+	 */
+	public byte getRegionState(int rowMin, int columnMin, int rowMax, int columnMax) {
+		rowMin = Math.max(rowMin, 0);
+		columnMin = Math.max(columnMin, 0);
+		rowMax = Math.min(rowMax, terrain.getRows() - 1);
+		columnMax = Math.min(columnMax, terrain.getColumns() - 1);
+		if(rowMin > rowMax || columnMin > columnMax) {
+			return PASSABLE;
+		}
+		return regionState(nodes.length - 1, 0, 0, rowMin, columnMin, rowMax, columnMax);
+	}
+	
+	private byte regionState(int level, int row, int column, int rowMin, int columnMin, int rowMax, int columnMax) {
+		byte state = getState(level, row, column);
+		int firstRow = row << level;
+		int firstColumn = column << level;
+		int lastRow = firstRow + (1 << level) - 1;
+		int lastColumn = firstColumn + (1 << level) - 1;
+		if(state != MIXED || (firstRow >= rowMin && lastRow <= rowMax && firstColumn >= columnMin && lastColumn <= columnMax)) {
+			return state;
+		}
+		int childRows = (level == 1) ? terrain.getRows() : getNodeRows(level - 1);
+		int childColumns = (level == 1) ? terrain.getColumns() : nodeColumns[level - 1];
+		int half = level - 1;
+		state = 0;
+		for (int i = row * 2; i <= row * 2 + 1 && i < childRows; i++) {
+			if(((i + 1) << half) - 1 < rowMin || (i << half) > rowMax) {
+				continue;
+			}
+			for (int j = column * 2; j <= column * 2 + 1 && j < childColumns; j++) {
+				if(((j + 1) << half) - 1 < columnMin || (j << half) > columnMax) {
+					continue;
+				}
+				state |= regionState(half, i, j, rowMin, columnMin, rowMax, columnMax);
+				if(state == MIXED) {
+					return MIXED;
+				}
+			}
+		}
+		return state;
+	}
+	
+	/**
+	 * The terrain indexed by this pyramid.
+	 */
+	private final TerrainGrid terrain;
+	
+	/**
+	 * The states of the nodes of every level above the cell level, row by row.
+	 * nodes[0] is not used, the cell level is read from the terrain.
+	 */
+	private final byte[][] nodes;
+	
+	/**
+	 * The amount of node columns of every level.
+	 */
+	private final int[] nodeColumns;
+}
@@ -2,14 +2,15 @@ package worms.model.values;
 
 import be.kuleuven.cs.som.annotate.*;
 import worms.model.GameObject;
-import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A utility class for handling different types of GameObjects.
  * 
  * @invar |typeExists(this)
  * 
- * @invar | getID() == getTypeID(getGameObjectType())
+ * @invar | getID() == getTypeIDOf(getGameObjectType()).getID()
  * 
  * @author bernd
  *
@@ -18,36 +19,44 @@ import java.util.ArrayList;
 public class GameObjectTypeID {
 	
 	/**
-	 * Creates a new GameObjectTypeID
+	 * Creates a new GameObjectTypeID, carrying the ID registered for the given class.
+	 * Callers that don't need a new object should use getTypeIDOf, which returns the shared one.
 	 * 
-	 * @post |new.getID() == ID
-	 * @post |assignedTypesList.contains(new)
+	 * @post |new.getID() == getTypeIDOf(c).getID()
+	 * @post |new.getGameObjectType() == c
+	 * @post |typeExists(new)
 	 * 
 	 */
 	@Raw
 	public GameObjectTypeID(Class<? extends GameObject> c) {
-		this.GameObjectTypeID = getTypeID(c);
+		this(c, getTypeIDOf(c).getID());
+	}
+	
+	/**
+	 * Creates a new GameObjectTypeID with the given class and ID, without registering it.
+	 */
+	@Raw
+	private GameObjectTypeID(Class<? extends GameObject> c, long ID) {
+		this.GameObjectTypeID = ID;
 		this.assignedType = c;
-		
-		if(!typeExists(c)) {
-			assignedTypesList.add(this);
-		}
 	}
-
+	
 	/**
-	 * @result	| for  t in assignedTypesList
-	 * 			|	if t.getGameObjectType() == c
-	 * 			|		then
-	 * 			|			result == t.getID()
-	 * 			| result == typeCounter
+	 * Returns the GameObjectTypeID registered for the given class, registering one with a new ID if there is none yet.
+	 * Every call for the same class returns the same object.
+	 * 
+	 * @return	| if typeExists(c)
+	 * 			|	then result == assignedTypes.get(c)
+	 * 			| else
+	 * 			|	result.getGameObjectType() == c && result.getID() == typeCounter
+	 * @post	| typeExists(c)
 	 */
-	private long getTypeID(Class<? extends GameObject> c) {
-		for(GameObjectTypeID t : assignedTypesList) {
-			if(t.getGameObjectType().equals(c)) {
-				return t.getID();
-			}
+	public static GameObjectTypeID getTypeIDOf(Class<? extends GameObject> c) {
+		GameObjectTypeID typeID = assignedTypes.get(c);
+		if(typeID != null) {
+			return typeID;
 		}
-		return typeCounter++;
+		return assignedTypes.computeIfAbsent(c, type -> new GameObjectTypeID(type, typeCounter.getAndIncrement()));
 	}
 
 
@@ -61,44 +70,34 @@ public class GameObjectTypeID {
 	
 	/**
 	 * Adds a new type to the ID list.
-	 * @post | assignedTypesList.contains(ID)
+	 * @post | typeExists(ID)
 	 * 
 	 * @throws RuntimeException
-	 * 		| assignedTypesList.contains(ID)
+	 * 		| typeExists(ID.getGameObjectType())
 	 */
 	public static void addType(GameObjectTypeID ID) throws RuntimeException{
-		if(!typeExists(ID)) {
-			assignedTypesList.add(ID);
-		}else {
+		if(assignedTypes.putIfAbsent(ID.getGameObjectType(), ID) != null) {
 			throw new RuntimeException("Tried to add duplicate");
 		}
 	}
 	
 	/**
-	 * Checks whether a given ID exists in assignedTypesList
+	 * Checks whether a given ID exists in assignedTypes
 	 * 
-	 * @return | result == assignedTypesList.contains(ID)
+	 * @return | result == ID.equals(assignedTypes.get(ID.getGameObjectType()))
 	 */
 	public static boolean typeExists(GameObjectTypeID ID) {
-		return assignedTypesList.contains(ID);
+		return ID.equals(assignedTypes.get(ID.getGameObjectType()));
 	}
 	
 	/**
-	 * Checks whether a given ID exists in assignedTypesList
+	 * Checks whether a given class has an ID in assignedTypes
 	 * 
-	 * @return  | for  t in assignedTypesList
-	 * 			|		if(t.getGameObjectType() == type) 
-	 *			| 			result == true
-	 *			| result == false
+	 * @return  | result == assignedTypes.containsKey(type)
 	 *		
 	 */
 	public static boolean typeExists(Class<? extends GameObject> type) {
-		for(GameObjectTypeID t : assignedTypesList) {
-			if(t.getGameObjectType().equals(type)) {
-				return true;
-			}
-		}
-		return false;
+		return assignedTypes.containsKey(type);
 	}
 	
 	public Class<? extends GameObject> getGameObjectType(){
@@ -106,18 +105,20 @@ public class GameObjectTypeID {
 	}
 	
 	/**
-	 * A static list that contains every single possible type of GameObject Created during runtime.
-	 * Keeps track of a unique ID number and class.
+	 * A static map that holds the ID of every single possible type of GameObject created during runtime, by class.
+	 * It is safe to look up and register types from several threads at once.
+	 * 
+	 * @invar | assignedTypes != null
 	 * 
-	 * @invar | assignedTypesList != null
+	 * @invar 	| for each type in assignedTypes.keySet()
+	 * 			|		assignedTypes.get(type) != null
+	 * 			|		&& assignedTypes.get(type).getGameObjectType() == type
+	 * 			|		&& assignedTypes.get(type).getID() < typeCounter
 	 * 
-	 * @invar 	| for each typeID in assignedTypesList
-	 * 			|		typeID != null
-	 * 			|		&& typeExists(typeID)
-	 * 			|		&& typeID.getID() == getTypeID(typeID.getGameObjectType())
+	 * @invar	| no two types in assignedTypes.keySet() have the same ID
 	 */
-	private static final ArrayList<GameObjectTypeID> assignedTypesList = new ArrayList<GameObjectTypeID>();
-	private static long typeCounter = 0;
+	private static final ConcurrentHashMap<Class<? extends GameObject>, GameObjectTypeID> assignedTypes = new ConcurrentHashMap<Class<? extends GameObject>, GameObjectTypeID>();
+	private static final AtomicLong typeCounter = new AtomicLong();
 	
 	private final long GameObjectTypeID;
 	private final Class<? extends GameObject> assignedType;
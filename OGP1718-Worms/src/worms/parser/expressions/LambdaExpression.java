@@ -6,13 +6,79 @@ import worms.model.GameObject;
 import worms.model.Program;
 import worms.model.ProjectileBU;
 import worms.model.Worm;
-import worms.model.values.Location;
 
 @Value
 public class LambdaExpression {
 
 	public LambdaExpression(Expression<?> exp) {
+		this(exp, null, null, false, null, 1);
+	}
+	
+	private LambdaExpression(Expression<?> exp, DoubleExpression doubleExp, BooleanExpression booleanExp,
+			boolean constant, Object constantValue, int numberOfNodes) {
 		myExpression = exp;
+		myDoubleExpression = doubleExp;
+		myBooleanExpression = booleanExp;
+		this.constant = constant;
+		this.constantValue = constantValue;
+		this.numberOfNodes = numberOfNodes;
+	}
+	
+	/**
+	 * Returns a new lambda expression known to evaluate to a double.
+	 * Its result can be taken unboxed through evaluateDouble, getExpression boxes it.
+	 * 
+	 * @param exp
+	 * @return | result.isDouble()
+	 */
+	public static LambdaExpression ofDouble(DoubleExpression exp) {
+		return new LambdaExpression((p) -> exp.evaluateDouble(p), exp, null, false, null, 1);
+	}
+	
+	/**
+	 * Returns a new lambda expression known to evaluate to a boolean.
+	 * Its result can be taken unboxed through evaluateBoolean, getExpression boxes it.
+	 * 
+	 * @param exp
+	 * @return | result.isBoolean()
+	 */
+	public static LambdaExpression ofBoolean(BooleanExpression exp) {
+		return new LambdaExpression((p) -> exp.evaluateBoolean(p), null, exp, false, null, 1);
+	}
+	
+	/**
+	 * Returns a new lambda expression that always evaluates to the given value, without looking at the program.
+	 * Constants that are doubles or booleans can be taken unboxed as well.
+	 * 
+	 * @param value
+	 * @return | result.isConstant() && result.getConstantValue() == value
+	 * 			| 	&& result.isDouble() == (value instanceof Double) && result.isBoolean() == (value instanceof Boolean)
+	 */
+	public static LambdaExpression ofConstant(Object value) {
+		if(value instanceof Double) {
+			double unboxed = (Double)value;
+			return new LambdaExpression((p) -> value, (p) -> unboxed, null, true, value, 1);
+		}
+		if(value instanceof Boolean) {
+			boolean unboxed = (Boolean)value;
+			return new LambdaExpression((p) -> value, null, (p) -> unboxed, true, value, 1);
+		}
+		return new LambdaExpression((p) -> value, null, null, true, value, 1);
+	}
+	
+	/**
+	 * Returns this expression, made up of the given operands.
+	 * The result evaluates the same way, but counts the nodes of the operands among its own.
+	 * 
+	 * @param operands
+	 * @return | result.getNumberOfNodes() == 1 + sum(operands[i].getNumberOfNodes())
+	 */
+	public LambdaExpression withOperands(LambdaExpression... operands) {
+		int numberOfNodes = 1;
+		for (LambdaExpression operand : operands) {
+			numberOfNodes += operand.getNumberOfNodes();
+		}
+		return new LambdaExpression(myExpression, myDoubleExpression, myBooleanExpression, constant, constantValue, numberOfNodes);
 	}
 	
 	/**
@@ -26,11 +92,37 @@ public class LambdaExpression {
 		V getExpressionResult(Program p);
 	}
 	
+	/**
+	 * An expression evaluating to a double, without boxing it.
+	 */
+	@FunctionalInterface
+	public interface DoubleExpression {
+		double evaluateDouble(Program p);
+	}
+	
+	/**
+	 * An expression evaluating to a boolean, without boxing it.
+	 */
+	@FunctionalInterface
+	public interface BooleanExpression {
+		boolean evaluateBoolean(Program p);
+	}
+	
 	@FunctionalInterface
 	public interface Unary<V,E> {
 		V set(Program p, E e);
 	}
 	
+	@FunctionalInterface
+	public interface DoubleUnary<E> {
+		double set(Program p, E e);
+	}
+	
+	@FunctionalInterface
+	public interface BooleanUnary<E> {
+		boolean set(Program p, E e);
+	}
+	
 	/**
 	 * Can actually be replaced by the Unary expression above as 
 	 * Assignment<Double> == Unary<Double,Double>
@@ -47,23 +139,120 @@ public class LambdaExpression {
 	public interface Binary<V,L,R> {
 		V set(Program p,L l,R r);
 	}
+	
+	@FunctionalInterface
+	public interface DoubleBinary<L,R> {
+		double set(Program p,L l,R r);
+	}
+	
+	@FunctionalInterface
+	public interface BooleanBinary<L,R> {
+		boolean set(Program p,L l,R r);
+	}
 
 	private final Expression<?> myExpression;
+	
+	private final DoubleExpression myDoubleExpression;
+	
+	private final BooleanExpression myBooleanExpression;
 
 	@Raw @Basic @Immutable
 	public Expression<?> getExpression() {
 		return this.myExpression;
 	}
-
-	public final static Binary<Double, LambdaExpression, LambdaExpression> ADDITION = (p, a, b) -> {
-		Object resultLeft = a.getExpression().getExpressionResult(p);
-		Object resultRight = b.getExpression().getExpressionResult(p);
-		if (resultLeft instanceof Double && resultRight instanceof Double) {
-			return (Double) resultLeft
-					+ (Double) resultRight;
-		} else {
-			throw new IllegalArgumentException("Tried to add non Double assignments");
+	
+	private final boolean constant;
+	
+	private final Object constantValue;
+	
+	private final int numberOfNodes;
+	
+	/**
+	 * Checks whether this expression always evaluates to the same value, whatever program evaluates it.
+	 */
+	@Basic @Immutable
+	public boolean isConstant() {
+		return this.constant;
+	}
+	
+	/**
+	 * Returns the value this expression always evaluates to, if it is constant.
+	 * 
+	 * @return | !isConstant() || result == getExpression().getExpressionResult(null)
+	 */
+	@Basic @Immutable
+	public Object getConstantValue() {
+		return this.constantValue;
+	}
+	
+	/**
+	 * Returns the number of nodes this expression is made up of, itself included.
+	 */
+	@Basic @Immutable
+	public int getNumberOfNodes() {
+		return this.numberOfNodes;
+	}
+	
+	/**
+	 * Checks whether this expression is known to evaluate to a double.
+	 */
+	@Basic @Immutable
+	public boolean isDouble() {
+		return this.myDoubleExpression != null;
+	}
+	
+	/**
+	 * Checks whether this expression is known to evaluate to a boolean.
+	 */
+	@Basic @Immutable
+	public boolean isBoolean() {
+		return this.myBooleanExpression != null;
+	}
+	
+	/**
+	 * Evaluates this expression, which should result in a double.
+	 * Expressions known to evaluate to a double do so without boxing, others are evaluated as an object and checked.
+	 * 
+	 * @param p
+	 * @return | result == (Double)getExpression().getExpressionResult(p)
+	 * 
+	 * @throws IllegalArgumentException
+	 * 		| !(getExpression().getExpressionResult(p) instanceof Double)
+	 */
+	public double evaluateDouble(Program p) throws IllegalArgumentException {
+		if(this.myDoubleExpression != null) {
+			return this.myDoubleExpression.evaluateDouble(p);
 		}
+		Object result = this.myExpression.getExpressionResult(p);
+		if(result instanceof Double) {
+			return (Double)result;
+		}
+		throw new IllegalArgumentException("Expected a Double");
+	}
+	
+	/**
+	 * Evaluates this expression, which should result in a boolean.
+	 * Expressions known to evaluate to a boolean do so without boxing, others are evaluated as an object and checked.
+	 * 
+	 * @param p
+	 * @return | result == (Boolean)getExpression().getExpressionResult(p)
+	 * 
+	 * @throws IllegalArgumentException
+	 * 		| !(getExpression().getExpressionResult(p) instanceof Boolean)
+	 */
+	public boolean evaluateBoolean(Program p) throws IllegalArgumentException {
+		if(this.myBooleanExpression != null) {
+			return this.myBooleanExpression.evaluateBoolean(p);
+		}
+		Object result = this.myExpression.getExpressionResult(p);
+		if(result instanceof Boolean) {
+			return (Boolean)result;
+		}
+		throw new IllegalArgumentException("Expected a Boolean");
+	}
+
+	public final static DoubleBinary<LambdaExpression, LambdaExpression> ADDITION = (p, a, b) -> {
+		return a.evaluateDouble(p) + b.evaluateDouble(p);
 	};
 	public final static Binary<String, LambdaExpression, LambdaExpression> CONCAT = (p, a, b) -> {
 		try {
@@ -74,47 +263,24 @@ public class LambdaExpression {
 		}
 	};
 
-	public final static Unary<Boolean, LambdaExpression> LOGIC_NOT = (p, exp) -> {
-		Object result = exp.getExpression().getExpressionResult(p);
-		if (result instanceof Boolean) {
-			return !(Boolean) result;
-		} else {
-			throw new IllegalArgumentException("Logic not argument wasn't boolean expression");
-		}
+	public final static BooleanUnary<LambdaExpression> LOGIC_NOT = (p, exp) -> {
+		return !exp.evaluateBoolean(p);
 	};
-	public final static Binary<Boolean, LambdaExpression, LambdaExpression> LOGIC_AND = (p, a, b) -> {
-		Object resultLeft = a.getExpression().getExpressionResult(p);
-		if(resultLeft instanceof Boolean) {
-			if((Boolean)resultLeft == false) {
-				return false;
-			}
-		}
-		Object resultRight = b.getExpression().getExpressionResult(p);
-		if (resultLeft instanceof Boolean && resultRight instanceof Boolean) {
-			return (Boolean) a.getExpression().getExpressionResult(p)
-					&& (Boolean) b.getExpression().getExpressionResult(p);
-		} else {
-			throw new IllegalArgumentException("Tried to compare non booleans");
-		}
+	public final static BooleanBinary<LambdaExpression, LambdaExpression> LOGIC_AND = (p, a, b) -> {
+		return a.evaluateBoolean(p) && b.evaluateBoolean(p);
 	};
-	public final static Binary<Boolean, LambdaExpression, LambdaExpression> LOGIC_OR = (p, a, b) -> {
-		Object resultLeft = a.getExpression().getExpressionResult(p);
-		if(resultLeft instanceof Boolean) {
-			if((Boolean)resultLeft == true) {
-				return true;
-			}
-		}
-		
-		Object resultRight = b.getExpression().getExpressionResult(p);
-		if (resultLeft instanceof Boolean && resultRight instanceof Boolean) {
-			return (Boolean) a.getExpression().getExpressionResult(p)
-					|| (Boolean) b.getExpression().getExpressionResult(p);
-		} else {
-			throw new IllegalArgumentException("Tried to compare non booleans");
-		}
+	public final static BooleanBinary<LambdaExpression, LambdaExpression> LOGIC_OR = (p, a, b) -> {
+		return a.evaluateBoolean(p) || b.evaluateBoolean(p);
 	};
-	public final static Binary<Boolean, LambdaExpression, LambdaExpression> LOGIC_EQUALITY = (p, a,b) ->
+	public final static BooleanBinary<LambdaExpression, LambdaExpression> LOGIC_EQUALITY = (p, a,b) ->
 	{
+		//Doubles are equal the way Double.equals has them equal.
+		if(a.isDouble() && b.isDouble()) {
+			return Double.compare(a.evaluateDouble(p), b.evaluateDouble(p)) == 0;
+		}
+		if(a.isBoolean() && b.isBoolean()) {
+			return a.evaluateBoolean(p) == b.evaluateBoolean(p);
+		}
 		Object resultLeft = a.getExpression().getExpressionResult(p);
 		Object resultRight = b.getExpression().getExpressionResult(p);
 		if ((resultLeft instanceof Boolean && resultRight instanceof Boolean)
@@ -130,47 +296,17 @@ public class LambdaExpression {
 			throw new IllegalArgumentException();
 		}
 	};
-	public final static Binary<Boolean, LambdaExpression, LambdaExpression> LOGIC_INEQUALITY = (p, a,b) ->
-	{
-		Object resultLeft = a.getExpression().getExpressionResult(p);
-		Object resultRight = b.getExpression().getExpressionResult(p);
-		if ((resultLeft instanceof Boolean && resultRight instanceof Boolean)
-				|| (resultLeft instanceof Double && resultRight instanceof Double)) {
-			return !resultLeft.equals(resultRight);
-		} else if(resultLeft!= null && resultRight != null){
-			return !resultLeft.equals(resultRight);
-		}else if(resultLeft == null && resultRight == null){
-			return false;
-		}else if(resultLeft != null || resultRight != null){
-			return true;
-		}else {
-			throw new IllegalArgumentException();
-		}
-	};
-	public final static Binary<Boolean, LambdaExpression, LambdaExpression> LOGIC_LESS_THAN = (p, a, b) -> 
+	public final static BooleanBinary<LambdaExpression, LambdaExpression> LOGIC_INEQUALITY = (p, a,b) -> !LOGIC_EQUALITY.set(p, a, b);
+	public final static BooleanBinary<LambdaExpression, LambdaExpression> LOGIC_LESS_THAN = (p, a, b) -> 
 	{
-		Object resultLeft = a.getExpression().getExpressionResult(p);
-		Object resultRight = b.getExpression().getExpressionResult(p);
-		if (resultLeft instanceof Double && resultRight instanceof Double) {
-			return (Double) a.getExpression().getExpressionResult(p) < (Double) b.getExpression()
-					.getExpressionResult(p);
-		} else {
-			throw new IllegalArgumentException("Tried to compare non Doubles");
-		}
+		return a.evaluateDouble(p) < b.evaluateDouble(p);
 	};
-	public final static Binary<Boolean, LambdaExpression, LambdaExpression> LOGIC_GREATER_THAN = (p, a, b) -> 
+	public final static BooleanBinary<LambdaExpression, LambdaExpression> LOGIC_GREATER_THAN = (p, a, b) -> 
 	{
-		Object resultLeft = a.getExpression().getExpressionResult(p);
-		Object resultRight = b.getExpression().getExpressionResult(p);
-		if (resultLeft instanceof Double && resultRight instanceof Double) {
-			return (Double) a.getExpression().getExpressionResult(p) > (Double) b.getExpression()
-					.getExpressionResult(p);
-		} else {
-			throw new IllegalArgumentException("Tried to compare non Doubles");
-		}
+		return a.evaluateDouble(p) > b.evaluateDouble(p);
 	};
 	
-	public final static Unary<Boolean, LambdaExpression> IS_FOOD = (p, a) -> 
+	public final static BooleanUnary<LambdaExpression> IS_FOOD = (p, a) -> 
 	{
 		Object resultLeft = a.getExpression().getExpressionResult(p);
 		if (resultLeft instanceof Food) {
@@ -179,7 +315,7 @@ public class LambdaExpression {
 			return false;
 		}
 	};
-	public final static Unary<Boolean, LambdaExpression> IS_WORM = (p, a) -> 
+	public final static BooleanUnary<LambdaExpression> IS_WORM = (p, a) -> 
 	{
 		Object resultLeft = a.getExpression().getExpressionResult(p);
 		if (resultLeft instanceof Worm) {
@@ -188,7 +324,7 @@ public class LambdaExpression {
 			return false;
 		}
 	};
-	public final static Unary<Boolean, LambdaExpression> IS_PROJECTILE = (p, a) -> 
+	public final static BooleanUnary<LambdaExpression> IS_PROJECTILE = (p, a) -> 
 	{
 		Object resultLeft = a.getExpression().getExpressionResult(p);
 		if (resultLeft instanceof ProjectileBU) {
@@ -210,22 +346,17 @@ public class LambdaExpression {
 		return null;
 	};
 
-	public final static Binary<Object, String, LambdaExpression> VARIABLE_ASSIGN = (p, name, exp) -> {
-		if(p.getProcedures().containsKey(name)) {
-			throw new IllegalArgumentException();
-		}
-		p.getGlobals().put(name, exp.getExpression().getExpressionResult(p));
+	/**
+	 * Variables are read and written through the slot the program factory gave their name.
+	 */
+	public final static Binary<Object, Integer, LambdaExpression> VARIABLE_ASSIGN = (p, slot, exp) -> {
+		p.assignVariable(slot, exp.getExpression().getExpressionResult(p));
 		return null;
 	};
-	public final static Unary<Object, String> VARIABLE_READ = (p, name) -> {
-		if(!p.getGlobals().containsKey(name)) {
-			throw new IllegalArgumentException();
-		}
-		return p.getGlobals().get(name);
-	};
+	public final static Unary<Object, Integer> VARIABLE_READ = (p, slot) -> p.readVariable(slot);
 	public final static Assignment<Worm> GET_SELF = (p, v) -> p.getProgramHolder();
-	public final static Assignment<Double> GET_SELF_DIRECTION = (p, v) -> p.getProgramHolder().getDirection().getAngle();
-	public final static Unary<Double, LambdaExpression> DISTANCE_FROM = (p, other) -> {
+	public final static DoubleExpression GET_SELF_DIRECTION = (p) -> p.getProgramHolder().getDirection().getAngle();
+	public final static DoubleUnary<LambdaExpression> DISTANCE_FROM = (p, other) -> {
 		Object resultLeft = other.getExpression().getExpressionResult(p);
 		if(resultLeft instanceof GameObject) {
 			double distanceCenters = ((GameObject)resultLeft).getLocation().getDistanceFrom(p.getProgramHolder().getLocation());
@@ -237,7 +368,7 @@ public class LambdaExpression {
 			throw new IllegalArgumentException("Tried to compare non GameObjects");		
 		}
 	};
-	public final static Unary<Boolean, LambdaExpression> SAME_TEAM = (p, other) -> {
+	public final static BooleanUnary<LambdaExpression> SAME_TEAM = (p, other) -> {
 		Object resultLeft = other.getExpression().getExpressionResult(p);
 		if(resultLeft == null) {
 			return false;
@@ -260,28 +391,7 @@ public class LambdaExpression {
 		Object resultLeft = other.getExpression().getExpressionResult(p);
 		if(resultLeft instanceof Double) {
 			double angle = ((Double)resultLeft) + p.getProgramHolder().getDirection().getAngle();
-			double distanceDelta = 0.1f;
-			double distance = 0.1f;
-			boolean bContinue = true;
-			while(bContinue) {
-				double x = p.getProgramHolder().getLocation().getX() + Math.cos(angle) * distance;
-				double y = p.getProgramHolder().getLocation().getY() + Math.sin(angle) * distance;
-				Location loc = new Location(x,y);
-				for (Object gameObject : p.getProgramHolder().getWorld().getAllGameObjects()) {
-					if(gameObject instanceof GameObject) {
-						if(!gameObject.equals(p.getProgramHolder())) {
-							if(((GameObject) gameObject).getSurface().contains(loc)) {
-								return gameObject;
-							}
-						}
-					}
-				}
-				distance += distanceDelta;
-				if(x < 0 || y < 0 || x > p.getProgramHolder().getWorld().getWorldWidth() || y > p.getProgramHolder().getWorld().getWorldHeight()) {
-					bContinue = false;
-				}
-			}
-			return null;
+			return p.getProgramHolder().getWorld().searchObject(p.getProgramHolder().getLocation(), angle, p.getProgramHolder());
 		}else {
 			throw new IllegalArgumentException("Tried to compare non Worms");		
 		}
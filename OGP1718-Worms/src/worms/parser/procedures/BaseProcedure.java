@@ -3,7 +3,7 @@ package worms.parser.procedures;
 import worms.parser.statements.BaseStatement;
 import worms.programs.SourceLocation;
 
-public class BaseProcedure implements Cloneable{
+public class BaseProcedure {
 	public BaseProcedure(SourceLocation sourceLocation,String procedureName, BaseStatement body) {
 		this.sourceLocation = sourceLocation;
 		this.procedureName = procedureName;
@@ -12,7 +12,7 @@ public class BaseProcedure implements Cloneable{
 	
 	private final SourceLocation sourceLocation;
 	private final String procedureName;
-	private BaseStatement body;
+	private final BaseStatement body;
 	
 	public SourceLocation getSourceLocation() {
 		return sourceLocation;
@@ -25,11 +25,4 @@ public class BaseProcedure implements Cloneable{
 	public BaseStatement getBody() {
 		return body;
 	}
-
-	@Override
-	public BaseProcedure clone() throws CloneNotSupportedException {
-		BaseProcedure clone = (BaseProcedure)super.clone();
-		clone.body = body.clone();
-		return clone;
-	}
 }
@@ -5,7 +5,10 @@ import worms.model.Program;
 import worms.parser.expressions.LambdaExpression;
 import worms.programs.SourceLocation;
 
-public abstract class BaseStatement implements Cloneable{
+/**
+ * A statement of a program. Statements only describe the program, ProgramCode executes them.
+ */
+public abstract class BaseStatement {
 
 	public BaseStatement(SourceLocation sourceLoc, LambdaExpression expression) {
 		this.sourceLoc = sourceLoc;
@@ -25,26 +28,23 @@ public abstract class BaseStatement implements Cloneable{
 		return expression;
 	}
 	
-	public void execute(Program parent, BaseStatement caller) throws IllegalArgumentException,IllegalStateException{
-		setParentBlock(caller);
-	}
-	
-	private BaseStatement parentBlock = null;
-	
-	public BaseStatement getParentBlock() {
-		return parentBlock;
-	}
-	
-	public void setParentBlock(BaseStatement statement) {
-		this.parentBlock = statement;
-	}
-	
-	public abstract void interrupt();
-	
-	public abstract void invokeBreak();
-	
-	@Override
-	public BaseStatement clone() throws CloneNotSupportedException {
-		return (BaseStatement)super.clone();
+	/**
+	 * Evaluates the expression of this statement as a condition.
+	 * 
+	 * @param parent
+	 * @return | result == (Boolean)getExpression().getExpression().getExpressionResult(parent)
+	 * 
+	 * @throws IllegalStateException
+	 * 		| !(getExpression().getExpression().getExpressionResult(parent) instanceof Boolean)
+	 */
+	protected boolean evaluateCondition(Program parent) throws IllegalArgumentException,IllegalStateException{
+		if(this.getExpression().isBoolean()) {
+			return this.getExpression().evaluateBoolean(parent);
+		}
+		Object condition = this.getExpression().getExpression().getExpressionResult(parent);
+		if(!(condition instanceof Boolean)) {
+			throw new IllegalStateException();
+		}
+		return (Boolean)condition;
 	}
 }
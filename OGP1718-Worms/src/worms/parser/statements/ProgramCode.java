@@ -0,0 +1,300 @@
+package worms.parser.statements;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import be.kuleuven.cs.som.annotate.*;
+import worms.model.Program;
+import worms.parser.procedures.BaseProcedure;
+
+/**
+ * The statements of a program flattened into an array of instructions, together with how far the program has got.
+ * Loops and conditions become jumps, procedure invocations push the instruction to return to on a call stack.
+ * An action that interrupts the program leaves the program counter on that action, so the next run
+ * continues by trying the action again, however deeply nested it is, and without copying any statements.
+ *
+ * The code of the main statement comes first and ends the program, the code of every procedure follows and returns.
+ *
+ * @invar | 0 <= getProgramCounter() && getProgramCounter() < getNumberOfInstructions()
+ * @invar | 0 <= getCallDepth()
+ *
+ * @author bernd
+ *
+ */
+public class ProgramCode {
+
+	/**
+	 * Creates the code of a program with the given procedures and main statement, starting at its first instruction.
+	 *
+	 * @param procedures
+	 * @param main
+	 *
+	 * @post | new.getProgramCounter() == 0 && new.getCallDepth() == 0
+	 */
+	public ProgramCode(Map<String, BaseProcedure> procedures, BaseStatement main) {
+		Map<String, Integer> entries = new HashMap<String, Integer>();
+		List<Integer> calls = new ArrayList<Integer>();
+		this.emit(main, false, calls);
+		this.add(END, null, -1);
+		for (BaseProcedure procedure : procedures.values()) {
+			entries.put(procedure.getProcedureName(), this.size);
+			this.emit(procedure.getBody(), true, calls);
+			this.add(RETURN, null, -1);
+		}
+		for (int call : calls) {
+			Integer entry = entries.get(((StateProcedure)this.statements[call]).getProcName());
+			this.targets[call] = entry == null ? -1 : entry;
+		}
+		this.opcodes = Arrays.copyOf(this.opcodes, this.size);
+		this.targets = Arrays.copyOf(this.targets, this.size);
+		this.statements = Arrays.copyOf(this.statements, this.size);
+	}
+
+	/**
+	 * Returns the number of instructions in this code.
+	 */
+	@Basic @Immutable
+	public int getNumberOfInstructions() {
+		return this.size;
+	}
+
+	/**
+	 * Returns the instruction the next run starts at.
+	 */
+	@Basic
+	public int getProgramCounter() {
+		return this.programCounter;
+	}
+
+	/**
+	 * Returns the number of procedure invocations the next run starts in.
+	 */
+	@Basic
+	public int getCallDepth() {
+		return this.callDepth;
+	}
+
+	/**
+	 * Runs this code for the given program, from where the previous run stopped,
+	 * until the program ends or one of its actions interrupts it.
+	 * An instruction that throws an exception is where the next run starts.
+	 *
+	 * @param p
+	 * @return True if the program ended, in which case the next run starts the program over,
+	 * 			false if it was interrupted.
+	 * 			| result == !p.isInterrupted()
+	 *
+	 * @throws IllegalStateException
+	 * 		A procedure that doesn't exist is invoked, a break doesn't lie in a loop or procedure,
+	 * 		or a condition doesn't evaluate to a boolean.
+	 * @throws IllegalArgumentException
+	 * 		An expression can't be evaluated.
+	 */
+	public boolean run(Program p) throws IllegalStateException, IllegalArgumentException {
+		int[] opcodes = this.opcodes, targets = this.targets;
+		BaseStatement[] statements = this.statements;
+		int pc = this.programCounter;
+		try {
+			while(true) {
+				switch(opcodes[pc]) {
+				case EXECUTE:
+					statements[pc].getExpression().getExpression().getExpressionResult(p);
+					pc++;
+					break;
+				case ACTION:
+					statements[pc].getExpression().getExpression().getExpressionResult(p);
+					if(p.isInterrupted()) {
+						this.programCounter = pc;
+						return false;
+					}
+					pc++;
+					break;
+				case BRANCH:
+					pc = statements[pc].evaluateCondition(p) ? pc + 1 : targets[pc];
+					break;
+				case JUMP:
+					pc = targets[pc];
+					break;
+				case CALL:
+					if(targets[pc] < 0) {
+						throw new IllegalStateException("Invoked procedure " + ((StateProcedure)statements[pc]).getProcName() + " doesn't exist.");
+					}
+					this.push(pc + 1);
+					pc = targets[pc];
+					break;
+				case RETURN:
+					pc = this.callStack[--this.callDepth];
+					break;
+				case COMPILED:
+					((StateCompiled)statements[pc]).getCompiled().execute(p);
+					pc++;
+					break;
+				case BREAK_ERROR:
+					throw new IllegalStateException();
+				default:
+					this.programCounter = 0;
+					this.callDepth = 0;
+					return true;
+				}
+			}
+		} catch (RuntimeException e) {
+			this.programCounter = pc;
+			throw e;
+		}
+	}
+
+	/**
+	 * Adds the instructions of the given statement to this code.
+	 *
+	 * @param statement
+	 * @param inProcedure
+	 * 		Whether the statement lies in the body of a procedure, which a break outside of loops returns from.
+	 * @param calls
+	 * 		The invocations of procedures, whose targets are filled in once all procedures have been added.
+	 */
+	private void emit(BaseStatement statement, boolean inProcedure, List<Integer> calls) {
+		if(statement instanceof StateSequence) {
+			for (BaseStatement part : ((StateSequence)statement).getSequence()) {
+				this.emit(part, inProcedure, calls);
+			}
+		}else if(statement instanceof StateIf) {
+			StateIf ifStatement = (StateIf)statement;
+			int branch = this.add(BRANCH, statement, -1);
+			this.emit(ifStatement.getIfBody(), inProcedure, calls);
+			if(ifStatement.getElseBody() != null) {
+				int jump = this.add(JUMP, null, -1);
+				this.targets[branch] = this.size;
+				this.emit(ifStatement.getElseBody(), inProcedure, calls);
+				this.targets[jump] = this.size;
+			}else {
+				this.targets[branch] = this.size;
+			}
+		}else if(statement instanceof StateWhile) {
+			int start = this.add(BRANCH, statement, -1);
+			this.loops.push(new ArrayList<Integer>());
+			this.emit(((StateWhile)statement).getWhileBody(), inProcedure, calls);
+			this.add(JUMP, null, start);
+			this.targets[start] = this.size;
+			for (int exit : this.loops.pop()) {
+				this.targets[exit] = this.size;
+			}
+		}else if(statement instanceof StateBreak) {
+			if(!this.loops.isEmpty()) {
+				this.loops.peek().add(this.add(JUMP, null, -1));
+			}else if(inProcedure) {
+				this.add(RETURN, null, -1);
+			}else {
+				this.add(BREAK_ERROR, statement, -1);
+			}
+		}else if(statement instanceof StateProcedure) {
+			calls.add(this.add(CALL, statement, -1));
+		}else if(statement instanceof StateAction) {
+			this.add(ACTION, statement, -1);
+		}else if(statement instanceof StateCompiled) {
+			this.add(COMPILED, statement, -1);
+		}else {
+			this.add(EXECUTE, statement, -1);
+		}
+	}
+
+	/**
+	 * Adds an instruction to this code and returns its index.
+	 */
+	private int add(int opcode, BaseStatement statement, int target) {
+		if(this.size == this.opcodes.length) {
+			int capacity = Math.max(16, 2 * this.size);
+			this.opcodes = Arrays.copyOf(this.opcodes, capacity);
+			this.targets = Arrays.copyOf(this.targets, capacity);
+			this.statements = Arrays.copyOf(this.statements, capacity);
+		}
+		this.opcodes[this.size] = opcode;
+		this.targets[this.size] = target;
+		this.statements[this.size] = statement;
+		return this.size++;
+	}
+
+	private void push(int returnAddress) {
+		if(this.callDepth == this.callStack.length) {
+			this.callStack = Arrays.copyOf(this.callStack, Math.max(8, 2 * this.callDepth));
+		}
+		this.callStack[this.callDepth++] = returnAddress;
+	}
+
+	/**
+	 * Evaluates the expression of the statement, a print, an assignment or an invocation, and moves on.
+	 */
+	private static final int EXECUTE = 0;
+
+	/**
+	 * Evaluates the expression of the action statement, and stops on it if the action interrupted the program.
+	 */
+	private static final int ACTION = 1;
+
+	/**
+	 * Evaluates the condition of the if or while statement, and jumps to the target if it is false.
+	 */
+	private static final int BRANCH = 2;
+
+	/**
+	 * Jumps to the target.
+	 */
+	private static final int JUMP = 3;
+
+	/**
+	 * Invokes the procedure starting at the target, or fails if the target is -1.
+	 */
+	private static final int CALL = 4;
+
+	/**
+	 * Returns from the current procedure.
+	 */
+	private static final int RETURN = 5;
+
+	/**
+	 * Executes the compiled statement.
+	 */
+	private static final int COMPILED = 6;
+
+	/**
+	 * Fails on a break outside of any loop or procedure.
+	 */
+	private static final int BREAK_ERROR = 7;
+
+	/**
+	 * Ends the program.
+	 */
+	private static final int END = 8;
+
+	private int[] opcodes = new int[0];
+
+	/**
+	 * The instruction every jump, branch and call goes to.
+	 */
+	private int[] targets = new int[0];
+
+	/**
+	 * The statement every instruction was made for.
+	 */
+	private BaseStatement[] statements = new BaseStatement[0];
+
+	private int size = 0;
+
+	/**
+	 * The loops being added, innermost on top, each with the breaks jumping out of it.
+	 */
+	private final Deque<List<Integer>> loops = new ArrayDeque<List<Integer>>();
+
+	private int programCounter = 0;
+
+	/**
+	 * The instructions to return to from the procedures being executed.
+	 */
+	private int[] callStack = new int[0];
+
+	private int callDepth = 0;
+}
@@ -0,0 +1,34 @@
+package worms.parser.statements;
+
+import be.kuleuven.cs.som.annotate.*;
+import worms.model.Program;
+import worms.programs.SourceLocation;
+
+/**
+ * A statement compiled into a closure by the StatementCompiler.
+ * A compiled statement takes no actions and has no breaks leaving it, so it always runs to its end
+ * and doesn't need to remember where it was.
+ */
+public class StateCompiled extends BaseStatement {
+
+	public StateCompiled(SourceLocation sourceLoc, Compiled compiled) {
+		super(sourceLoc, null);
+		this.compiled = compiled;
+	}
+
+	/**
+	 * A compiled statement, executed against a program.
+	 * The result is false if a break left the statement, and true if it ran to its end.
+	 */
+	@FunctionalInterface
+	public interface Compiled {
+		boolean execute(Program p);
+	}
+
+	private final Compiled compiled;
+
+	@Basic @Raw @Immutable
+	public Compiled getCompiled() {
+		return compiled;
+	}
+}
@@ -0,0 +1,224 @@
+package worms.parser.statements;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import worms.model.Program;
+import worms.parser.expressions.LambdaExpression;
+import worms.parser.procedures.BaseProcedure;
+import worms.parser.statements.StateCompiled.Compiled;
+
+/**
+ * Compiles the statements of a program into closures, wherever that can be done.
+ * A statement can be compiled if it takes no actions, every break in it leaves a loop that is also in it,
+ * and every procedure it invokes can be compiled as well. A compiled statement is a single instruction of the
+ * ProgramCode, since it never has to be resumed after an action.
+ * Other statements are flattened into instructions as before, but the parts of them that can be compiled are compiled.
+ *
+ * @author bernd
+ *
+ */
+public class StatementCompiler {
+
+	/**
+	 * Creates a new compiler for a program with the given procedures.
+	 *
+	 * @param procs
+	 */
+	public StatementCompiler(List<BaseProcedure> procs) {
+		for (BaseProcedure procedure : procs) {
+			this.procedures.put(procedure.getProcedureName(), procedure);
+		}
+		//Procedures may invoke each other, so start from all of them and drop those that can't be compiled,
+		//until the remaining ones only invoke each other.
+		Set<String> compilable = new HashSet<String>(this.procedures.keySet());
+		boolean changed = true;
+		while(changed) {
+			changed = false;
+			for (String name : new ArrayList<String>(compilable)) {
+				if(!isCompilable(this.procedures.get(name).getBody(), false, compilable)) {
+					compilable.remove(name);
+					changed = true;
+				}
+			}
+		}
+		for (String name : compilable) {
+			this.compiledProcedures.put(name, new Compiled[1]);
+		}
+		for (String name : compilable) {
+			this.compiledProcedures.get(name)[0] = compileClosure(this.procedures.get(name).getBody());
+		}
+	}
+
+	/**
+	 * The procedures of the program, by name.
+	 */
+	private final Map<String, BaseProcedure> procedures = new HashMap<String, BaseProcedure>();
+
+	/**
+	 * The compiled bodies of the procedures that can be compiled, by name.
+	 * Each body is held in an array of one, so invocations can refer to it before it is compiled.
+	 */
+	private final Map<String, Compiled[]> compiledProcedures = new HashMap<String, Compiled[]>();
+
+	/**
+	 * Checks whether the procedure with the given name can be compiled.
+	 *
+	 * @param procedureName
+	 */
+	public boolean isCompilable(String procedureName) {
+		return this.compiledProcedures.containsKey(procedureName);
+	}
+
+	/**
+	 * Checks whether the given statement can be compiled as a whole.
+	 *
+	 * @param statement
+	 */
+	public boolean isCompilable(BaseStatement statement) {
+		return isCompilable(statement, false, this.compiledProcedures.keySet());
+	}
+
+	/**
+	 * Returns the procedures of the program, with their bodies compiled wherever that can be done.
+	 */
+	public List<BaseProcedure> getProcedures() {
+		List<BaseProcedure> result = new ArrayList<BaseProcedure>();
+		for (BaseProcedure procedure : this.procedures.values()) {
+			result.add(new BaseProcedure(procedure.getSourceLocation(), procedure.getProcedureName(), compile(procedure.getBody())));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the given statement, compiled wherever that can be done.
+	 * A statement that can be compiled as a whole is returned as a single compiled statement,
+	 * other sequences, if and while statements are rebuilt from their compiled parts.
+	 *
+	 * @param statement
+	 */
+	public BaseStatement compile(BaseStatement statement) {
+		if(isCompilable(statement)) {
+			return new StateCompiled(statement.getSource(), compileClosure(statement));
+		}
+		if(statement instanceof StateSequence) {
+			List<BaseStatement> sequence = new ArrayList<BaseStatement>();
+			for (BaseStatement part : ((StateSequence)statement).getSequence()) {
+				sequence.add(compile(part));
+			}
+			return new StateSequence(statement.getSource(), sequence);
+		}
+		if(statement instanceof StateIf) {
+			StateIf ifStatement = (StateIf)statement;
+			return new StateIf(statement.getSource(), statement.getExpression(), compile(ifStatement.getIfBody()),
+					ifStatement.getElseBody() == null ? null : compile(ifStatement.getElseBody()));
+		}
+		if(statement instanceof StateWhile) {
+			return new StateWhile(statement.getSource(), statement.getExpression(), compile(((StateWhile)statement).getWhileBody()));
+		}
+		return statement;
+	}
+
+	/**
+	 * Checks whether the given statement can be compiled, invoking only the given procedures.
+	 *
+	 * @param statement
+	 * @param inLoop
+	 * 		Whether the statement lies in a loop that is compiled along with it.
+	 * @param procedureNames
+	 */
+	private static boolean isCompilable(BaseStatement statement, boolean inLoop, Set<String> procedureNames) {
+		if(statement instanceof StatePrint || statement instanceof StateAssignment) {
+			return true;
+		}
+		if(statement instanceof StateBreak) {
+			return inLoop;
+		}
+		if(statement instanceof StateProcedure) {
+			return procedureNames.contains(((StateProcedure)statement).getProcName());
+		}
+		if(statement instanceof StateSequence) {
+			for (BaseStatement part : ((StateSequence)statement).getSequence()) {
+				if(!isCompilable(part, inLoop, procedureNames)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if(statement instanceof StateIf) {
+			StateIf ifStatement = (StateIf)statement;
+			return isCompilable(ifStatement.getIfBody(), inLoop, procedureNames)
+					&& (ifStatement.getElseBody() == null || isCompilable(ifStatement.getElseBody(), inLoop, procedureNames));
+		}
+		if(statement instanceof StateWhile) {
+			return isCompilable(((StateWhile)statement).getWhileBody(), true, procedureNames);
+		}
+		//Actions, and anything else.
+		return false;
+	}
+
+	/**
+	 * Returns the closure executing the given statement, which can be compiled.
+	 *
+	 * @param statement
+	 */
+	private Compiled compileClosure(BaseStatement statement) {
+		if(statement instanceof StatePrint || statement instanceof StateAssignment) {
+			LambdaExpression.Expression<?> expression = statement.getExpression().getExpression();
+			return (p) -> {
+				expression.getExpressionResult(p);
+				return true;
+			};
+		}
+		if(statement instanceof StateBreak) {
+			return (p) -> false;
+		}
+		if(statement instanceof StateProcedure) {
+			Compiled[] body = this.compiledProcedures.get(((StateProcedure)statement).getProcName());
+			return (p) -> body[0].execute(p);
+		}
+		if(statement instanceof StateSequence) {
+			List<BaseStatement> sequence = ((StateSequence)statement).getSequence();
+			Compiled[] parts = new Compiled[sequence.size()];
+			for (int i = 0; i < parts.length; i++) {
+				parts[i] = compileClosure(sequence.get(i));
+			}
+			return (p) -> executeAll(parts, p);
+		}
+		if(statement instanceof StateIf) {
+			StateIf ifStatement = (StateIf)statement;
+			Compiled ifBody = compileClosure(ifStatement.getIfBody());
+			if(ifStatement.getElseBody() == null) {
+				return (p) -> !ifStatement.evaluateCondition(p) || ifBody.execute(p);
+			}
+			Compiled elseBody = compileClosure(ifStatement.getElseBody());
+			return (p) -> ifStatement.evaluateCondition(p) ? ifBody.execute(p) : elseBody.execute(p);
+		}
+		if(statement instanceof StateWhile) {
+			StateWhile whileStatement = (StateWhile)statement;
+			Compiled body = compileClosure(whileStatement.getWhileBody());
+			return (p) -> {
+				while(whileStatement.evaluateCondition(p)) {
+					if(!body.execute(p)) {
+						break;
+					}
+				}
+				return true;
+			};
+		}
+		throw new IllegalArgumentException("Statement can't be compiled.");
+	}
+
+	private static boolean executeAll(Compiled[] parts, Program p) {
+		for (Compiled part : parts) {
+			if(!part.execute(p)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
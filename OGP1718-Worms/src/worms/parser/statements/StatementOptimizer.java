@@ -0,0 +1,135 @@
+package worms.parser.statements;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import worms.model.Program;
+import worms.parser.procedures.BaseProcedure;
+
+/**
+ * Simplifies the statements of a program, after the program factory has folded their constant expressions.
+ * If statements with a constant condition are replaced by the body that is taken, while statements
+ * with a condition that is constantly false are dropped, and sequences are flattened, leaving no sequence
+ * of a single statement. Every statement that is kept keeps its source location, a dropped statement
+ * leaves an empty sequence at its source location.
+ *
+ * @author bernd
+ *
+ */
+public final class StatementOptimizer {
+
+	private StatementOptimizer() {
+	}
+
+	/**
+	 * Returns the given procedures, with their bodies optimized.
+	 *
+	 * @param procs
+	 */
+	public static List<BaseProcedure> optimize(List<BaseProcedure> procs) {
+		List<BaseProcedure> result = new ArrayList<BaseProcedure>();
+		for (BaseProcedure procedure : procs) {
+			result.add(new BaseProcedure(procedure.getSourceLocation(), procedure.getProcedureName(), optimize(procedure.getBody())));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the given statement, optimized.
+	 * The result executes the same way as the given statement does.
+	 *
+	 * @param statement
+	 */
+	public static BaseStatement optimize(BaseStatement statement) {
+		if(statement instanceof StateSequence) {
+			List<BaseStatement> sequence = new ArrayList<BaseStatement>();
+			for (BaseStatement part : ((StateSequence)statement).getSequence()) {
+				BaseStatement optimized = optimize(part);
+				if(optimized instanceof StateSequence) {
+					//Nested sequences, empty ones included, are taken up in this one.
+					sequence.addAll(((StateSequence)optimized).getSequence());
+				}else {
+					sequence.add(optimized);
+				}
+			}
+			if(sequence.size() == 1) {
+				return sequence.get(0);
+			}
+			return new StateSequence(statement.getSource(), sequence);
+		}
+		if(statement instanceof StateIf) {
+			StateIf ifStatement = (StateIf)statement;
+			if(isConstant(statement, Boolean.TRUE)) {
+				return optimize(ifStatement.getIfBody());
+			}
+			if(isConstant(statement, Boolean.FALSE)) {
+				return ifStatement.getElseBody() == null ? empty(statement) : optimize(ifStatement.getElseBody());
+			}
+			return new StateIf(statement.getSource(), statement.getExpression(), optimize(ifStatement.getIfBody()),
+					ifStatement.getElseBody() == null ? null : optimize(ifStatement.getElseBody()));
+		}
+		if(statement instanceof StateWhile) {
+			if(isConstant(statement, Boolean.FALSE)) {
+				return empty(statement);
+			}
+			return new StateWhile(statement.getSource(), statement.getExpression(), optimize(((StateWhile)statement).getWhileBody()));
+		}
+		return statement;
+	}
+
+	/**
+	 * Returns the number of nodes the given program is made up of: its procedures and their bodies, and its main statement.
+	 *
+	 * @param program
+	 */
+	public static int countNodes(Program program) {
+		int result = countNodes(program.getMain());
+		for (BaseProcedure procedure : program.getProcedures().values()) {
+			result += 1 + countNodes(procedure.getBody());
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of nodes the given statement is made up of: itself, the nodes of its expression
+	 * beyond the statement itself, and the nodes of the statements in it.
+	 *
+	 * @param statement
+	 */
+	public static int countNodes(BaseStatement statement) {
+		int result = statement.getExpression() == null ? 1 : statement.getExpression().getNumberOfNodes();
+		if(statement instanceof StateIf || statement instanceof StateWhile) {
+			//The expression of a condition is not made by the statement itself.
+			result++;
+		}
+		if(statement instanceof StateSequence) {
+			for (BaseStatement part : ((StateSequence)statement).getSequence()) {
+				result += countNodes(part);
+			}
+		}else if(statement instanceof StateIf) {
+			StateIf ifStatement = (StateIf)statement;
+			result += countNodes(ifStatement.getIfBody());
+			if(ifStatement.getElseBody() != null) {
+				result += countNodes(ifStatement.getElseBody());
+			}
+		}else if(statement instanceof StateWhile) {
+			result += countNodes(((StateWhile)statement).getWhileBody());
+		}
+		return result;
+	}
+
+	/**
+	 * Checks whether the condition of the given statement is constantly the given value.
+	 */
+	private static boolean isConstant(BaseStatement statement, Boolean value) {
+		return statement.getExpression().isConstant() && value.equals(statement.getExpression().getConstantValue());
+	}
+
+	/**
+	 * Returns an empty sequence at the source location of the given statement.
+	 */
+	private static BaseStatement empty(BaseStatement statement) {
+		return new StateSequence(statement.getSource(), Collections.<BaseStatement>emptyList());
+	}
+}
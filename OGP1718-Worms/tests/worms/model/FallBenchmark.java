@@ -0,0 +1,58 @@
+package worms.model;
+
+import worms.internal.gui.Level;
+import worms.model.values.Location;
+import worms.model.values.Radius;
+
+/**
+ * Benchmark for Worm.fall() over a 50 unit drop. Run as a Java application from the project directory.
+ * 
+ * Skulls is only 20 units high, so its map is stretched to a 37.5 x 100 world; the worm is dropped
+ * from the top of the column with the longest free fall.
+ */
+public class FallBenchmark {
+
+	private static final double RADIUS = 0.5;
+
+	private static final int ROUNDS = 20;
+
+	public static void main(String[] args) {
+		Level skulls = null;
+		for (Level level : Level.getAvailableLevels()) {
+			if (level.getName().equals("Skulls")) {
+				skulls = level;
+			}
+		}
+		skulls.load();
+		World world = new World(skulls.getWorldWidth(), 100, skulls.getPassableMap());
+		double bestX = 0, startY = 0, bestDrop = 0;
+		for (double x = RADIUS; x < world.getWorldWidth() - RADIUS; x += 0.25) {
+			// start just below the rock that borders the top of the map
+			double y = world.getWorldHeight() - RADIUS;
+			while (y > RADIUS && !world.isPassable(new Location(x, y), new Radius(RADIUS))) {
+				y -= 0.25;
+			}
+			Worm worm = drop(world, x, y);
+			if (!worm.isTerminated() && y - worm.getY() > bestDrop) {
+				bestDrop = y - worm.getY();
+				bestX = x;
+				startY = y;
+			}
+		}
+		System.out.println(String.format("Dropping from (%.2f, %.2f), drop of %.2f units", bestX, startY, bestDrop));
+
+		long best = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			drop(world, bestX, startY);
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		System.out.println(String.format("Worm.fall(): best of %d rounds %.3f ms", ROUNDS, best / 1e6));
+	}
+
+	private static Worm drop(World world, double x, double y) {
+		Worm worm = WorldFixtures.placeWorm(world, new Location(x, y), RADIUS);
+		worm.fall();
+		return worm;
+	}
+}
@@ -2,6 +2,8 @@ package worms.model;
 
 import static org.junit.Assert.*;
 
+import java.util.Random;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -67,6 +69,51 @@ public class HelperTests {
 		assertTrue(c.overlaps(c2));
 	}
 	
+	@Test
+	public void circleOverlap_MatchesRounding() {
+		Random random = new Random(15);
+		for (int i = 0; i < 200000; i++) {
+			double r1 = 0.2 + random.nextDouble() * 3;
+			double r2 = 0.2 + random.nextDouble() * 3;
+			double angle = random.nextDouble() * 2 * Math.PI;
+			//Mostly right around the sum of the radii, where rounding decides.
+			double distance = r1 + r2 + (random.nextDouble() * 2 - 1) * (i % 2 == 0 ? 1e-3 : 2);
+			Location center = new Location(random.nextDouble() * 100, random.nextDouble() * 100);
+			Circle c1 = new Circle(center, new Radius(r1));
+			Circle c2 = new Circle(new Location(center.getX() + Math.cos(angle) * distance, center.getY() + Math.sin(angle) * distance),
+					new Radius(r2));
+			double deltaX = c2.getCenter().getX() - center.getX();
+			double deltaY = c2.getCenter().getY() - center.getY();
+			boolean expected = World.roundingHelper(Math.sqrt(Math.pow(deltaX, 2) + Math.pow(deltaY, 2)), 4) < World.roundingHelper(r1 + r2, 4);
+			assertEquals(expected, c1.overlaps(c2));
+		}
+	}
+	
+	@Test
+	public void circleContains_MatchesDistance() {
+		Random random = new Random(20);
+		for (int i = 0; i < 100000; i++) {
+			double radius = 0.1 + random.nextDouble() * 3;
+			Circle c = new Circle(new Location(random.nextDouble() * 10, random.nextDouble() * 10), new Radius(radius));
+			Location point = new Location(random.nextDouble() * 10, random.nextDouble() * 10);
+			double distance = point.getDistanceFrom(c.getCenter());
+			if(Math.abs(distance - radius) > 1e-9) {
+				assertEquals(distance <= radius, c.contains(point));
+			}
+		}
+	}
+	
+	@Test
+	public void rectangleIntersectsCircle_ClosestPoint() {
+		Rectangle r = new Rectangle(new Location(0, 0), new Location(10, 1));
+		//Close to the long edge, but in between the points the rectangle used to sample.
+		assertTrue(r.intersects(new Circle(new Location(5.05, 1.01), new Radius(0.02))));
+		assertFalse(r.intersects(new Circle(new Location(5.05, 1.03), new Radius(0.02))));
+		assertTrue(r.intersects(new Circle(new Location(3, 0.5), new Radius(0.1))));
+		assertFalse(r.intersects(new Circle(new Location(10.5, 1.5), new Radius(0.7))));
+		assertTrue(r.intersects(new Circle(new Location(10.5, 1.5), new Radius(0.71))));
+	}
+	
 	@Test
 	public void rectangleTest() {
 		Rectangle r = new Rectangle(new Location(0,0),new Location(10, 10));
@@ -0,0 +1,120 @@
+package worms.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import worms.facade.Facade;
+import worms.internal.gui.game.IActionHandler;
+import worms.model.values.Direction;
+import worms.model.values.Location;
+import worms.model.values.Name;
+import worms.model.values.Radius;
+import worms.parser.statements.StatementOptimizer;
+import worms.programs.ProgramParser;
+
+/**
+ * Benchmark for the interpreter of worm programs, running programs/program.txt on a headless world
+ * and a loop that does nothing but read and write variables.
+ * Run as a Java application from the project directory.
+ *
+ * Every turn of programs/program.txt is played on a fresh world holding the programmed worm and an enemy worm,
+ * until the programmed worm runs out of action points.
+ * The procedure updateNearestWorm of programs/program.txt, which takes no actions, is also run on its own,
+ * measuring the bytes it allocates as well.
+ * Every benchmark is run on interpreted programs, and on programs compiled wherever they can be.
+ * The number of nodes of every program in programs/ is reported first, without and with optimization.
+ */
+public class InterpreterBenchmark {
+
+	private static final String PROGRAM = "programs/program.txt";
+
+	private static final String COUNTER = "i := 0; while i < 100000: { i := i + 1; }";
+
+	private static final int TURNS = 50;
+
+	private static final int SEARCHES = 200;
+
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) throws IOException {
+		IActionHandler handler = new SimpleActionHandler(new Facade());
+		String text = new String(Files.readAllBytes(Paths.get(PROGRAM)), "UTF-8");
+		String search = text.substring(0, text.indexOf("// main program")) + "invoke updateNearestWorm;";
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		for (File file : new File("programs").listFiles()) {
+			ProgramFactory factory = new ProgramFactory();
+			factory.setOptimizing(false);
+			Program unoptimized = ProgramParser.parseProgramFromFile(file.getPath(), factory);
+			Program optimized = ProgramParser.parseProgramFromFile(file.getPath(), new ProgramFactory());
+			if(unoptimized != null && optimized != null) {
+				System.out.println(String.format("%-24s %5d nodes, %5d optimized", file.getName(),
+						StatementOptimizer.countNodes(unoptimized), StatementOptimizer.countNodes(optimized)));
+			}
+		}
+		for (int round = 0; round < 4; round++) {
+			boolean compiling = round % 2 == 1;
+			System.out.println(compiling ? "compiled" : "interpreted");
+			long best = Long.MAX_VALUE;
+			int printed = 0;
+			for (int i = 0; i < ROUNDS; i++) {
+				long total = 0;
+				printed = 0;
+				for (int turn = 0; turn < TURNS; turn++) {
+					Program program = ProgramParser.parseProgramFromFile(PROGRAM, new ProgramFactory(compiling));
+					program.assignProgram(newWorld(), handler);
+					long start = System.nanoTime();
+					program.doStartExecution();
+					total += System.nanoTime() - start;
+					printed += program.getPrintLog().size();
+				}
+				best = Math.min(best, total);
+			}
+			System.out.println(String.format("%-12s %10.1f us/turn (%d printed)", PROGRAM, best / 1e3 / TURNS, printed));
+
+			best = Long.MAX_VALUE;
+			Object result = null;
+			for (int i = 0; i < ROUNDS; i++) {
+				Program program = ProgramParser.parseProgramFromString(COUNTER, new ProgramFactory(compiling));
+				long start = System.nanoTime();
+				program.doStartExecution();
+				best = Math.min(best, System.nanoTime() - start);
+				result = program.getGlobals().get("i");
+			}
+			System.out.println(String.format("%-12s %10.1f us/run (i = %s)", "counter", best / 1e3, result));
+
+			Program program = ProgramParser.parseProgramFromString(search, new ProgramFactory(compiling));
+			program.assignProgram(newWorld(), handler);
+			best = Long.MAX_VALUE;
+			long bytes = 0;
+			for (int i = 0; i < ROUNDS; i++) {
+				long allocated = threads.getThreadAllocatedBytes(thread);
+				long start = System.nanoTime();
+				for (int run = 0; run < SEARCHES; run++) {
+					program.doStartExecution();
+				}
+				best = Math.min(best, System.nanoTime() - start);
+				bytes = threads.getThreadAllocatedBytes(thread) - allocated;
+			}
+			System.out.println(String.format("%-12s %10.1f us/run %10.0f bytes/run (nearest %s)", "nearest worm", best / 1e3 / SEARCHES,
+					(double) bytes / SEARCHES, program.getGlobals().get("turnToNearest")));
+		}
+	}
+
+	/**
+	 * Returns the programmed worm of a new world, which has a floor and an enemy worm to its right.
+	 */
+	private static Worm newWorld() {
+		World world = WorldFixtures.floorWorld(20, 10);
+		Worm self = new Worm(new Location(4, 1.52), Direction.DEFAULT_DIRECTION, null, new Radius(0.5), Name.DEFAULT_NAME, null);
+		Worm enemy = new Worm(new Location(12, 1.52), Direction.DEFAULT_DIRECTION, null, new Radius(0.5), Name.DEFAULT_NAME, null);
+		world.addGameObject(self);
+		world.addGameObject(enemy);
+		self.setTeam(new Team(world, new Name("Self")));
+		enemy.setTeam(new Team(world, new Name("Enemy")));
+		return self;
+	}
+}
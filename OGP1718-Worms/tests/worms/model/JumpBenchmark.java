@@ -0,0 +1,76 @@
+package worms.model;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import worms.facade.Facade;
+import worms.internal.gui.GUIConstants;
+import worms.internal.gui.Level;
+import worms.model.values.Direction;
+import worms.model.values.HP;
+import worms.model.values.Location;
+import worms.model.values.Name;
+import worms.model.values.Radius;
+import worms.util.ModelException;
+
+/**
+ * Benchmark for Facade.getJumpTime at the time step of the GUI, on every bundled level.
+ * Run as a Java application from the project directory.
+ *
+ * Worms are dropped onto the ground at random columns and jump in random directions.
+ */
+public class JumpBenchmark {
+
+	private static final double RADIUS = 0.5;
+
+	private static final int WORMS = 50;
+
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) {
+		Facade facade = new Facade();
+		for (Level level : Level.getAvailableLevels()) {
+			World world = WorldFixtures.loadWorld(level);
+			if (2 * RADIUS >= world.getWorldWidth() || 2 * RADIUS >= world.getWorldHeight()) {
+				continue;
+			}
+			Random random = new Random(42);
+			List<Worm> worms = new ArrayList<Worm>();
+			for (int attempt = 0; attempt < 10 * WORMS && worms.size() < WORMS; attempt++) {
+				Location location = new Location(RADIUS + random.nextDouble() * (world.getWorldWidth() - 2 * RADIUS),
+						RADIUS + random.nextDouble() * (world.getWorldHeight() - 2 * RADIUS));
+				if (!world.isPassable(location, new Radius(RADIUS))) {
+					continue;
+				}
+				Worm worm = new Worm(location, new Direction(random.nextDouble() * Math.PI), null, new Radius(RADIUS), Name.DEFAULT_NAME, null);
+				worm.setWorld(world);
+				worm.setLocation(location);
+				worm.setHitPoints(new HP(BigInteger.valueOf(100000)));
+				worm.fall();
+				if (!worm.isTerminated()) {
+					worms.add(worm);
+				}
+			}
+
+			long best = Long.MAX_VALUE;
+			int landed = 0;
+			for (int round = 0; round < ROUNDS; round++) {
+				landed = 0;
+				long start = System.nanoTime();
+				for (Worm worm : worms) {
+					try {
+						facade.getJumpTime(worm, GUIConstants.JUMP_TIME_STEP);
+						landed++;
+					} catch (ModelException exc) {
+						// too short a jump, it still counts
+					}
+				}
+				best = Math.min(best, System.nanoTime() - start);
+			}
+			System.out.println(String.format("%-15s %d worms, %d landed, %.3f ms per getJumpTime", level.getName(), worms.size(),
+					landed, best / 1e6 / worms.size()));
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package worms.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import worms.internal.gui.Level;
+import worms.model.values.Direction;
+import worms.model.values.Location;
+
+/**
+ * Throughput benchmark for Worm.move(), scoring the candidate directions on a single thread and in parallel.
+ * Run as a Java application from the project directory.
+ *
+ * Worms are placed on the ground of Skulls, at random columns and facing random directions.
+ */
+public class MoveBenchmark {
+
+	private static final double RADIUS = 0.5;
+
+	private static final int WORMS = 200;
+
+	private static final int ROUNDS = 10;
+
+	public static void main(String[] args) {
+		Level skulls = null;
+		for (Level level : Level.getAvailableLevels()) {
+			if (level.getName().equals("Skulls")) {
+				skulls = level;
+			}
+		}
+		World world = WorldFixtures.loadWorld(skulls);
+		Random random = new Random(42);
+		List<Location> starts = new ArrayList<Location>();
+		List<Direction> directions = new ArrayList<Direction>();
+		while (starts.size() < WORMS) {
+			double x = RADIUS + random.nextDouble() * (world.getWorldWidth() - 2 * RADIUS);
+			double y = RADIUS + random.nextDouble() * (world.getWorldHeight() - 2 * RADIUS);
+			Worm worm = WorldFixtures.placeWorm(world, new Location(x, y), RADIUS);
+			if (worm.isTerminated() || !world.isPassable(worm.getLocation(), worm.getRadius())) {
+				continue;
+			}
+			worm.fall();
+			if (!worm.isTerminated()) {
+				starts.add(worm.getLocation());
+				directions.add(new Direction(random.nextDouble() * Math.PI));
+			}
+		}
+		System.out.println(Runtime.getRuntime().availableProcessors() + " processors");
+
+		for (boolean parallel : new boolean[] { false, true, false, true }) {
+			Worm.setParallelMovementScan(parallel);
+			long best = Long.MAX_VALUE;
+			for (int round = 0; round < ROUNDS; round++) {
+				long start = System.nanoTime();
+				for (int i = 0; i < WORMS; i++) {
+					Worm worm = WorldFixtures.placeWorm(world, starts.get(i), RADIUS);
+					worm.setDirection(directions.get(i));
+					try {
+						worm.move();
+					} catch (RuntimeException exc) {
+						// not every worm can move, they still count
+					}
+				}
+				best = Math.min(best, System.nanoTime() - start);
+			}
+			System.out.println(String.format("%s: %.0f moves/s", parallel ? "parallel" : "single thread", WORMS / (best / 1e9)));
+		}
+	}
+
+}
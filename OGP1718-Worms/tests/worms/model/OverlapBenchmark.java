@@ -0,0 +1,61 @@
+package worms.model;
+
+import java.util.List;
+
+import worms.model.values.Direction;
+import worms.model.values.Location;
+import worms.model.values.Name;
+import worms.model.values.Radius;
+
+/**
+ * Stress benchmark for finding the worms every worm overlaps, with 1000 worms crowded onto a single ledge.
+ * Every worm is compared to every other worm, and every worm looks up the worms it overlaps in the spatial hash of the world.
+ * Run as a Java application from the project directory.
+ */
+public class OverlapBenchmark {
+
+	private static final int WORMS = 1000;
+
+	private static final double SPACING = 0.1;
+
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) {
+		int width = (int) Math.ceil(WORMS * SPACING) + 2;
+		World world = WorldFixtures.floorWorld(width, 4);
+		for (int i = 0; i < WORMS; i++) {
+			world.addGameObject(new Worm(new Location(1 + i * SPACING, 1.26), Direction.DEFAULT_DIRECTION, null, new Radius(0.25),
+					Name.DEFAULT_NAME, null));
+		}
+		List<Worm> worms = world.getAllObjectsOfType(Worm.class);
+
+		for (int round = 0; round < 2; round++) {
+			long best = Long.MAX_VALUE;
+			long pairs = 0;
+			for (int i = 0; i < ROUNDS; i++) {
+				long start = System.nanoTime();
+				pairs = 0;
+				for (Worm worm : worms) {
+					for (Worm other : worms) {
+						if (other != worm && worm.overlapsWith(other)) {
+							pairs++;
+						}
+					}
+				}
+				best = Math.min(best, System.nanoTime() - start);
+			}
+			System.out.println(String.format("all pairs     %8.2f ms, %d overlapping pairs", best / 1e6, pairs / 2));
+
+			best = Long.MAX_VALUE;
+			for (int i = 0; i < ROUNDS; i++) {
+				long start = System.nanoTime();
+				pairs = 0;
+				for (Worm worm : worms) {
+					pairs += world.queryOverlapping(worm, Worm.class).size();
+				}
+				best = Math.min(best, System.nanoTime() - start);
+			}
+			System.out.println(String.format("per worm      %8.2f ms, %d overlapping pairs", best / 1e6, pairs / 2));
+		}
+	}
+}
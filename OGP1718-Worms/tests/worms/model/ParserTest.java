@@ -1,6 +1,10 @@
 package worms.model;
 
 import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -10,6 +14,7 @@ import worms.model.values.Direction;
 import worms.model.values.Location;
 import worms.model.values.Name;
 import worms.model.values.Radius;
+import worms.parser.expressions.LambdaExpression;
 import worms.programs.ProgramParser;
 
 public class ParserTest {
@@ -114,6 +119,58 @@ public class ParserTest {
 		System.out.println("*************************");
 	}
 	
+	@Test
+	public void globals_FollowAssignments() {
+		ProgramFactory myFactory = new ProgramFactory();
+		Program program = ProgramParser.parseProgramFromString("a := 5; b := null; a := a + 1; print a;", myFactory);
+		assertTrue(program.getGlobals().isEmpty());
+		assertEquals(1, program.doStartExecution().size());
+		assertEquals(2, program.getGlobals().size());
+		assertEquals(6.0, program.getGlobals().get("a"));
+		assertTrue(program.getGlobals().containsKey("b"));
+		assertNull(program.getGlobals().get("b"));
+		assertFalse(program.getGlobals().containsKey("c"));
+		
+		//A factory starts over for every program it creates.
+		program = ProgramParser.parseProgramFromString("c := 1; print c;", myFactory);
+		program.doStartExecution();
+		assertEquals(1, program.getGlobals().size());
+		assertEquals(1.0, program.getGlobals().get("c"));
+		
+		try {
+			program = ProgramParser.parseProgramFromString("def p: { print 1; } p := 1;", myFactory);
+			program.doStartExecution();
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertFalse(program.getGlobals().containsKey("p"));
+		}
+	}
+	
+	@Test
+	public void typedExpressions_EvaluateOperandsOnce() {
+		int[] evaluations = new int[2];
+		LambdaExpression left = new LambdaExpression((p) -> { evaluations[0]++; return 1.0; });
+		LambdaExpression right = new LambdaExpression((p) -> { evaluations[1]++; return true; });
+		assertFalse(left.isDouble());
+		assertTrue(LambdaExpression.LOGIC_LESS_THAN.set(null, left, LambdaExpression.ofDouble((p) -> 2.0)));
+		assertTrue(LambdaExpression.LOGIC_AND.set(null, right, right));
+		assertEquals(2.0, LambdaExpression.ADDITION.set(null, left, left), 0);
+		assertEquals(3, evaluations[0]);
+		assertEquals(2, evaluations[1]);
+		try {
+			LambdaExpression.LOGIC_GREATER_THAN.set(null, right, left);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(3, evaluations[0]);
+			assertEquals(3, evaluations[1]);
+		}
+		
+		ProgramFactory myFactory = new ProgramFactory();
+		Program program = ProgramParser.parseProgramFromString(
+				"a := 1; b := true; print 1 + 2 == 3; print (1 < 2) == b; print !(a + 1 > 2); print a + 1 != 2; print b == 1;", myFactory);
+		assertEquals(Arrays.asList(true, true, true, false, false), program.doStartExecution());
+	}
+	
 	@Test
 	public void printLogicANDTest() {
 		System.out.println("PRINT LOGIC NOT TEST");
@@ -239,6 +296,91 @@ public class ParserTest {
 		System.out.println("*************************");
 	}
 	
+	private static final String[][] RECORDED_OUTPUTS = {
+			{ "a := 5;\nprint a;", "[5.0]" },
+			{ "a := 5;\na := a + a;\nprint a;", "[10.0]" },
+			{ "print true;print false;", "[true, false]" },
+			{ "print null;", "[null]" },
+			{ "a := true;print ! a;", "[false]" },
+			{ "a := 0.0;while a < 10:{a := a + 0.5;a := a + 0.5;if 0.0 < a:{ print a; if a == 5.0:{ break; }}}print a;",
+					"[1.0, 2.0, 3.0, 4.0, 5.0, 5.0]" },
+			{ "def p: { print 1; break; print 2; } invoke p; invoke p;", "[1.0, 1.0]" },
+			//A break outside of any loop in a procedure ends the procedure, not the loop the procedure is invoked from.
+			//The interpreter before ProgramCode printed [1.0, 0.0]: the break left the while loop of the caller.
+			{ "def p: { print 1; break; print 2; } i := 0; while i < 3: { invoke p; i := i + 1; } print i;", "[1.0, 1.0, 1.0, 3.0]" },
+			//A break in an inner loop only ends that loop. The interpreter before ProgramCode printed [0.0, 1.0, 2.0, 3.0],
+			//a 0.0 this program can't print, since j is at least 1 when it is printed.
+			{ "i := 0; while i < 3: { j := 0; while true: { j := j + 1; if j > i: break; print j; } i := i + 1; } print i;",
+					"[1.0, 1.0, 2.0, 3.0]" },
+	};
+	
+	@Test
+	public void programs_PrintRecordedOutputs() {
+		for (String[] recorded : RECORDED_OUTPUTS) {
+			Program program = ProgramParser.parseProgramFromString(recorded[0], new ProgramFactory());
+			assertEquals(recorded[0], recorded[1], program.doStartExecution().toString());
+			assertEquals(recorded[1], program.doStartExecution().toString());
+		}
+	}
+	
+	/**
+	 * Programs taking actions, with the output the interpreter before ProgramCode printed for them when run uninterrupted.
+	 */
+	private static final String[][] RESUMED_PROGRAMS = {
+			{ "i := 0; while i < 2: { j := 0; while j < 2: { k := 0; while k < 2: { print k; turn 0.1; k := k + 1; } print j; j := j + 1; } print i; i := i + 1; } print 99;",
+					"[0.0, 1.0, 0.0, 0.0, 1.0, 1.0, 0.0, 0.0, 1.0, 0.0, 0.0, 1.0, 1.0, 1.0, 99.0]" },
+			{ "def step: { print n; turn 0.1; n := n + 1; } n := 0; while n < 5: { invoke step; if n == 3: print 33; } print 100;",
+					"[0.0, 1.0, 2.0, 33.0, 3.0, 4.0, 100.0]" },
+			{ "v := true; i := 0; while i < 3: { if v: { print 1; turn 0.1; v := false; print 2; } else { print 3; turn 0.1; turn 0.1; v := true; print 4; } i := i + 1; } print i;",
+					"[1.0, 2.0, 3.0, 4.0, 1.0, 2.0, 3.0]" },
+			{ "def p: { print 1; while true: { turn 0.1; print 2; break; } turn 0.1; print 3; break; print 4; } "
+					+ "def g: { print 10; invoke p; turn 0.1; print 20; break; print 30; } print 0; invoke g; print 100;",
+					"[0.0, 10.0, 1.0, 2.0, 3.0, 20.0, 100.0]" },
+	};
+	
+	@Test
+	public void resume_MatchesUninterrupted() {
+		for (String[] recorded : RESUMED_PROGRAMS) {
+			String text = recorded[0];
+			Worm uninterrupted = new Worm(new Location(1, 1), new Direction(0), null, new Radius(1), Name.DEFAULT_NAME, null);
+			Program program = ProgramParser.parseProgramFromString(text, new ProgramFactory());
+			uninterrupted.assignProgram(program, new SimpleActionHandler(facade));
+			List<Object> expected = program.doStartExecution();
+			assertNotNull(text, expected);
+			assertEquals(text, recorded[1], expected.toString());
+			
+			Worm resumed = new Worm(new Location(1, 1), new Direction(0), null, new Radius(1), Name.DEFAULT_NAME, null);
+			program = ProgramParser.parseProgramFromString(text, new ProgramFactory());
+			resumed.assignProgram(program, new SimpleActionHandler(facade));
+			List<Object> result = null;
+			int runs = 0;
+			while(result == null && runs < 30) {
+				resumed.setActionPoints(2);
+				result = program.doStartExecution();
+				runs++;
+				if(result == null) {
+					//Suspended on the turn that ran out of action points.
+					assertTrue(program.getCode().getProgramCounter() > 0);
+				}
+			}
+			assertEquals(text, expected, result);
+			assertEquals(text, uninterrupted.getDirection().getAngle(), resumed.getDirection().getAngle(), 1e-9);
+			assertEquals(0, program.getCode().getProgramCounter());
+			assertEquals(0, program.getCode().getCallDepth());
+		}
+	}
+	
+	@Test
+	public void resume_InsideProcedure() {
+		Worm worm = new Worm(new Location(1, 1), new Direction(0), null, new Radius(1), Name.DEFAULT_NAME, null);
+		Program program = ProgramParser.parseProgramFromString(RESUMED_PROGRAMS[1][0], new ProgramFactory());
+		worm.assignProgram(program, new SimpleActionHandler(facade));
+		worm.setActionPoints(2);
+		assertNull(program.doStartExecution());
+		assertEquals(1, program.getCode().getCallDepth());
+		assertEquals(0.2, worm.getDirection().getAngle(), 1e-9);
+	}
+	
 	boolean[][] map10x10 = new boolean[][] { { false, false, false, false, false, false, false, false, false, false },
 		{ true, true, true, true, true, true, true, true, true, false },
 		{ true, true, true, true, true, true, true, true, true, false },
@@ -0,0 +1,164 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import worms.exceptions.InvalidLocationException;
+import worms.internal.gui.Level;
+import worms.model.Projectile.Projectile_Type;
+import worms.model.ShapeHelp.Circle;
+import worms.model.ShapeHelp.Trajectory;
+import worms.model.values.Direction;
+import worms.model.values.HP;
+import worms.model.values.Location;
+import worms.model.values.Name;
+import worms.model.values.Radius;
+
+public class ProjectileTest {
+
+	private static final double TIME_STEP = 1e-4;
+
+	/**
+	 * Drops worms onto the ground of the given world at random columns, and adds those that end up next to terrain.
+	 */
+	private static List<Worm> populate(World world, Random random, int count) {
+		List<Worm> worms = new ArrayList<Worm>();
+		for (int attempt = 0; attempt < 20 * count && worms.size() < count; attempt++) {
+			double radius = 0.25 + random.nextDouble() * 0.5;
+			if (2 * radius >= world.getWorldWidth() || 2 * radius >= world.getWorldHeight()) {
+				return worms;
+			}
+			Location location = new Location(radius + random.nextDouble() * (world.getWorldWidth() - 2 * radius),
+					radius + random.nextDouble() * (world.getWorldHeight() - 2 * radius));
+			if (!world.isPassable(location, new Radius(radius))) {
+				continue;
+			}
+			Worm worm = new Worm(location, new Direction(random.nextDouble() * Math.PI), null, new Radius(radius), Name.DEFAULT_NAME, null);
+			worm.setWorld(world);
+			worm.setLocation(location);
+			worm.setHitPoints(new HP(BigInteger.valueOf(100000)));
+			worm.fall();
+			if (worm.isTerminated() || !world.isAdjacantToImpassableTerrain(worm.getLocation(), worm.getRadius())) {
+				continue;
+			}
+			worm.setWorld(null);
+			world.addGameObject(worm);
+			worms.add(worm);
+		}
+		return worms;
+	}
+
+	/**
+	 * The original landing search of a projectile: every step is checked against the terrain.
+	 */
+	private static double jumpTimeByStepping(World world, Projectile projectile, double deltaT) {
+		double time = 0.0;
+		Location location = new Location(projectile.jumpStep(time));
+		while (world.isPassable(location, projectile.getRadius())
+				&& world.fullyContains(new Circle(location, projectile.getRadius()).getBoundingRectangle())) {
+			if (world.isAdjacantToImpassableTerrain(location, projectile.getRadius())) {
+				break;
+			}
+			location = new Location(projectile.jumpStep(time));
+			time += deltaT;
+		}
+		return time;
+	}
+
+	/**
+	 * The original hit search of a projectile: every step is checked against every worm.
+	 */
+	private static Set<Worm> hitsByStepping(World world, Projectile projectile, double jumpTime, double deltaT) {
+		Set<Worm> hitWorms = new HashSet<Worm>();
+		for (double i = 0.0; i < jumpTime; i += deltaT) {
+			for (Worm worm : world.<Worm>getAllObjectsOfType(Worm.class)) {
+				if (worm.overlapsWith(new Circle(new Location(projectile.jumpStep(i)), projectile.getRadius()))) {
+					hitWorms.add(worm);
+				}
+			}
+		}
+		return hitWorms;
+	}
+
+	@Test
+	public void jump_MatchesStepping_AllLevels() {
+		Random random = new Random(10);
+		int hits = 0;
+		for (Level level : Level.getAvailableLevels()) {
+			World world = WorldFixtures.loadWorld(level);
+			List<Worm> worms = populate(world, random, 12);
+			for (int shot = 0; shot < 2 * worms.size(); shot++) {
+				Worm shooter = worms.get(shot % worms.size());
+				if (shooter.isTerminated()) {
+					continue;
+				}
+				shooter.setDirection(new Direction(random.nextDouble() * Math.PI));
+				Projectile projectile;
+				try {
+					projectile = Projectile.createProjectile(Projectile_Type.values()[shot % 2], shooter);
+				} catch (InvalidLocationException exc) {
+					continue;
+				}
+				String message = level.getName() + " shot " + shot;
+				double jumpTime = jumpTimeByStepping(world, projectile, TIME_STEP);
+				assertEquals(message, jumpTime, projectile.getJumpTime(TIME_STEP), 0);
+
+				Location landing = new Location(projectile.jumpStep(jumpTime));
+				if (!world.fullyContains(new Circle(landing, projectile.getRadius()).getBoundingRectangle())) {
+					continue;
+				}
+				Set<Worm> expected = hitsByStepping(world, projectile, jumpTime, TIME_STEP);
+				Map<Worm, BigInteger> hitPoints = new HashMap<Worm, BigInteger>();
+				for (Worm worm : world.<Worm>getAllObjectsOfType(Worm.class)) {
+					hitPoints.put(worm, worm.getHitPoints());
+				}
+				projectile.jump(TIME_STEP);
+				assertEquals(message, landing, projectile.getLocation());
+				Set<Worm> hit = new HashSet<Worm>();
+				for (Map.Entry<Worm, BigInteger> entry : hitPoints.entrySet()) {
+					if (!entry.getKey().getHitPoints().equals(entry.getValue())) {
+						hit.add(entry.getKey());
+					}
+				}
+				assertEquals(message, expected, hit);
+				assertEquals(message, !expected.isEmpty(), projectile.isTerminated());
+				hits += expected.size();
+			}
+		}
+		assertTrue("no shot hit a worm", hits > 0);
+	}
+
+	@Test
+	public void trajectory_TimesWithinCoverCloseApproaches() {
+		Random random = new Random(4);
+		for (int sample = 0; sample < 200; sample++) {
+			Trajectory trajectory = new Trajectory(new Location(random.nextDouble() * 10, random.nextDouble() * 10),
+					(random.nextDouble() * 2 - 1) * 8, (random.nextDouble() * 2 - 1) * 8, 5.0);
+			Location center = new Location(random.nextDouble() * 20 - 5, random.nextDouble() * 20 - 5);
+			double distance = 0.2 + random.nextDouble() * 3;
+			double[] times = trajectory.getTimesWithin(center, distance, 0, 3);
+			assertEquals(0, times.length % 2);
+			for (double time = 0; time <= 3; time += 0.001) {
+				double x = trajectory.getX(time) - center.getX();
+				double y = trajectory.getY(time) - center.getY();
+				boolean covered = false;
+				for (int i = 0; i < times.length; i += 2) {
+					covered |= times[i] <= time && time <= times[i + 1];
+				}
+				if (Math.abs(x) < distance && Math.abs(y) < distance) {
+					assertTrue("sample " + sample + " at " + time, covered);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package worms.model;
+
+import java.math.BigInteger;
+
+import worms.internal.gui.Level;
+import worms.model.values.Direction;
+import worms.model.values.HP;
+import worms.model.values.Location;
+import worms.model.values.Name;
+import worms.model.values.Radius;
+
+/**
+ * Benchmark for the marches of a worm through the terrain. Run as a Java application from the project directory.
+ *
+ * A worm is placed in the most open air of Skulls and looks for the furthest location over 10 units
+ * in every direction of the upper half plane.
+ */
+public class RayBenchmark {
+
+	private static final double RADIUS = 0.5;
+
+	private static final double DISTANCE = 10;
+
+	private static final int DIRECTIONS = 90;
+
+	private static final int ROUNDS = 20;
+
+	public static void main(String[] args) {
+		Level skulls = null;
+		for (Level level : Level.getAvailableLevels()) {
+			if (level.getName().equals("Skulls")) {
+				skulls = level;
+			}
+		}
+		World world = WorldFixtures.loadWorld(skulls);
+		// the most open spot of the map, so the rays travel far before they hit terrain
+		Location location = null;
+		double best = -1;
+		for (double x = RADIUS; x < world.getWorldWidth() - RADIUS; x += 0.25) {
+			for (double y = RADIUS; y < world.getWorldHeight() - RADIUS; y += 0.25) {
+				double clearance = world.getClearance(new Location(x, y), new Radius(RADIUS));
+				if (clearance > best) {
+					best = clearance;
+					location = new Location(x, y);
+				}
+			}
+		}
+		Worm worm = new Worm(location, new Direction(0), null, new Radius(RADIUS), Name.DEFAULT_NAME, null);
+		worm.setWorld(world);
+		worm.setLocation(location);
+		worm.setHitPoints(new HP(BigInteger.valueOf(100000)));
+		System.out.println("Worm at " + location);
+
+		long furthest = Long.MAX_VALUE, noMove = Long.MAX_VALUE, adjacent = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < DIRECTIONS; i++) {
+				worm.getFurthestLocationInDirection(direction(i), DISTANCE);
+			}
+			furthest = Math.min(furthest, System.nanoTime() - start);
+			start = System.nanoTime();
+			for (int i = 0; i < DIRECTIONS; i++) {
+				worm.getFurthestLocationInDirectionNoMove(direction(i), DISTANCE);
+			}
+			noMove = Math.min(noMove, System.nanoTime() - start);
+			start = System.nanoTime();
+			for (int i = 0; i < DIRECTIONS; i++) {
+				worm.getFurthestAdjacentLocationInDirection(direction(i), DISTANCE);
+			}
+			adjacent = Math.min(adjacent, System.nanoTime() - start);
+		}
+		System.out.println(String.format("getFurthestLocationInDirection:         %.3f ms per direction", furthest / 1e6 / DIRECTIONS));
+		System.out.println(String.format("getFurthestLocationInDirectionNoMove:   %.3f ms per direction", noMove / 1e6 / DIRECTIONS));
+		System.out.println(String.format("getFurthestAdjacentLocationInDirection: %.3f ms per direction", adjacent / 1e6 / DIRECTIONS));
+	}
+
+	private static Direction direction(int i) {
+		return new Direction(Math.PI * i / (DIRECTIONS - 1));
+	}
+}
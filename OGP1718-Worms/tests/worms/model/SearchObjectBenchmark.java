@@ -0,0 +1,99 @@
+package worms.model;
+
+import java.util.Random;
+
+import worms.model.values.Location;
+import worms.model.values.Radius;
+
+/**
+ * Benchmark for the search of the searchobj expression among 10000 game objects, checking every object at every sampled point,
+ * and looking up the objects in the cell of every sampled point in the spatial hash of their world.
+ * Run as a Java application from the project directory.
+ *
+ * The world has ten ledges with a row of food on each.
+ */
+public class SearchObjectBenchmark {
+
+	private static final int LEDGES = 10;
+
+	private static final int PER_LEDGE = 1000;
+
+	private static final int SEARCHES = 200;
+
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) {
+		World world = WorldFixtures.ledgeWorld(PER_LEDGE + 2, LEDGES);
+		for (int ledge = 0; ledge < LEDGES; ledge++) {
+			for (int i = 0; i < PER_LEDGE; i++) {
+				world.addGameObject(new Food(new Location(i + 1.5, 5 * ledge + 1.21), new Radius(0.2), null));
+			}
+		}
+		System.out.println(world.getAllGameObjects().size() + " objects");
+
+		Random random = new Random(42);
+		Location[] origins = new Location[SEARCHES];
+		double[] angles = new double[SEARCHES];
+		for (int i = 0; i < SEARCHES; i++) {
+			origins[i] = new Location(1 + random.nextDouble() * PER_LEDGE, 5 * random.nextInt(LEDGES) + 2.5);
+			angles[i] = random.nextDouble() * 2 * Math.PI;
+		}
+
+		for (int round = 0; round < 2; round++) {
+			measure("searchobj, objects", SEARCHES, new Search() {
+				int next = 0;
+
+				public double run() {
+					int i = next++ % SEARCHES;
+					return searchByObjects(world, origins[i], angles[i]) == null ? 0 : 1;
+				}
+			});
+			measure("searchobj, cells", SEARCHES, new Search() {
+				int next = 0;
+
+				public double run() {
+					int i = next++ % SEARCHES;
+					return world.searchObject(origins[i], angles[i], null) == null ? 0 : 1;
+				}
+			});
+		}
+	}
+
+	private interface Search {
+		double run();
+	}
+
+	/**
+	 * The original search of the searchobj expression: every sampled point is checked against the surface of every object.
+	 */
+	private static GameObject searchByObjects(World world, Location origin, double angle) {
+		double distance = 0.1f;
+		while (true) {
+			double x = origin.getX() + Math.cos(angle) * distance;
+			double y = origin.getY() + Math.sin(angle) * distance;
+			Location location = new Location(x, y);
+			for (Object object : world.getAllGameObjects()) {
+				if (((GameObject) object).getSurface().contains(location)) {
+					return (GameObject) object;
+				}
+			}
+			distance += 0.1f;
+			if (x < 0 || y < 0 || x > world.getWorldWidth() || y > world.getWorldHeight()) {
+				return null;
+			}
+		}
+	}
+
+	private static void measure(String name, int calls, Search search) {
+		long best = Long.MAX_VALUE;
+		double sink = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < calls; i++) {
+				sink += search.run();
+			}
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		System.out.println(String.format("%-20s %10.1f us/call (%s)", name, best / 1e3 / calls, sink));
+	}
+}
@@ -0,0 +1,158 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import worms.model.ShapeHelp.Circle;
+import worms.model.ShapeHelp.Rectangle;
+import worms.model.values.Direction;
+import worms.model.values.Location;
+import worms.model.values.Name;
+import worms.model.values.Radius;
+
+public class SpatialHashTest {
+
+	private static <T extends GameObject> HashSet<GameObject> overlapping(List<T> objects, Location center, Radius radius) {
+		HashSet<GameObject> result = new HashSet<GameObject>();
+		for (GameObject gameObject : objects) {
+			if (gameObject.overlapsWith(new Circle(center, radius))) {
+				result.add(gameObject);
+			}
+		}
+		return result;
+	}
+
+	@Test
+	public void queryCircle_MatchesFullScan() {
+		Random random = new Random(8);
+		SpatialHash hash = new SpatialHash(1.0);
+		List<Worm> worms = new ArrayList<Worm>();
+		for (int i = 0; i < 300; i++) {
+			Worm worm = new Worm(new Location(random.nextDouble() * 50, random.nextDouble() * 50), new Direction(0), null,
+					new Radius(0.25 + random.nextDouble() * 2), Name.DEFAULT_NAME, null);
+			worms.add(worm);
+			hash.add(worm);
+		}
+		for (int round = 0; round < 5; round++) {
+			for (int query = 0; query < 200; query++) {
+				Location center = new Location(random.nextDouble() * 60 - 5, random.nextDouble() * 60 - 5);
+				Radius radius = new Radius(0.1 + random.nextDouble() * (query % 20 == 0 ? 40 : 3));
+				List<Worm> found = hash.queryCircle(center, radius, Worm.class);
+				assertEquals(found.size(), new HashSet<GameObject>(found).size());
+				assertEquals(overlapping(worms, center, radius), new HashSet<GameObject>(found));
+				assertTrue(hash.queryCircle(center, radius, Food.class).isEmpty());
+			}
+			//move a third of the worms, and drop a few
+			for (int i = 0; i < worms.size(); i += 3) {
+				worms.get(i).setLocation(new Location(random.nextDouble() * 50, random.nextDouble() * 50));
+				hash.update(worms.get(i));
+			}
+			for (int i = 0; i < 10; i++) {
+				hash.remove(worms.remove(random.nextInt(worms.size())));
+			}
+			assertEquals(worms.size(), hash.size());
+		}
+	}
+
+	@Test
+	public void queryRectangle_MatchesFullScan() {
+		Random random = new Random(11);
+		SpatialHash hash = new SpatialHash(1.0);
+		List<Worm> worms = new ArrayList<Worm>();
+		for (int i = 0; i < 300; i++) {
+			Worm worm = new Worm(new Location(random.nextDouble() * 50, random.nextDouble() * 50), new Direction(0), null,
+					new Radius(0.25 + random.nextDouble() * 2), Name.DEFAULT_NAME, null);
+			worms.add(worm);
+			hash.add(worm);
+		}
+		for (int query = 0; query < 500; query++) {
+			Rectangle rectangle = new Rectangle(new Location(random.nextDouble() * 60 - 5, random.nextDouble() * 60 - 5),
+					new Location(0.1 + random.nextDouble() * (query % 20 == 0 ? 40 : 5), 0.1 + random.nextDouble() * 5));
+			HashSet<GameObject> expected = new HashSet<GameObject>();
+			for (Worm worm : worms) {
+				if (rectangle.intersects(new Circle(worm).getBoundingRectangle())) {
+					expected.add(worm);
+				}
+			}
+			List<Worm> found = hash.queryRectangle(rectangle, Worm.class);
+			assertEquals(found.size(), new HashSet<GameObject>(found).size());
+			assertEquals(expected, new HashSet<GameObject>(found));
+			assertTrue(hash.queryRectangle(rectangle, Food.class).isEmpty());
+		}
+	}
+
+	@Test
+	public void queryOverlapping_MatchesFullScan() {
+		World world = WorldFixtures.floorWorld(30, 30);
+		Random random = new Random(10);
+		for (int i = 0; i < 200; i++) {
+			double radius = 0.25 + random.nextDouble() * (i % 25 == 0 ? 4 : 0.5);
+			Location location = new Location(5 + random.nextDouble() * 20, 1 + radius * 1.05);
+			GameObject gameObject = (i % 3 == 0) ? new Food(location, new Radius(radius), null)
+					: new Worm(location, new Direction(0), null, new Radius(radius), Name.DEFAULT_NAME, null);
+			world.addGameObject(gameObject);
+			gameObject.setLocation(new Location(5 + random.nextDouble() * 20, 5 + random.nextDouble() * 20));
+		}
+		List<Worm> worms = world.getAllObjectsOfType(Worm.class);
+		List<Food> foods = world.getAllObjectsOfType(Food.class);
+		int overlaps = 0;
+		for (Worm worm : worms) {
+			HashSet<GameObject> others = overlapping(worms, worm.getLocation(), worm.getRadius());
+			others.remove(worm);
+			overlaps += others.size();
+			assertEquals(others, new HashSet<GameObject>(world.queryOverlapping(worm, Worm.class)));
+			assertEquals(overlapping(foods, worm.getLocation(), worm.getRadius()), new HashSet<GameObject>(world.queryOverlapping(worm, Food.class)));
+		}
+		assertTrue(overlaps > 0);
+	}
+
+	@Test
+	public void queryCircle_FollowsWorldChanges() {
+		World world = WorldFixtures.floorWorld(20, 20);
+		Random random = new Random(9);
+		List<GameObject> objects = new ArrayList<GameObject>();
+		for (int i = 0; i < 40; i++) {
+			double radius = 0.3 + random.nextDouble() * 0.4;
+			Location location = new Location(1 + random.nextDouble() * 18, 1 + radius * 1.05);
+			GameObject gameObject = (i % 2 == 0)
+					? new Worm(location, new Direction(0), null, new Radius(radius), Name.DEFAULT_NAME, null)
+					: new Food(location, new Radius(radius), null);
+			world.addGameObject(gameObject);
+			objects.add(gameObject);
+		}
+		for (int step = 0; step < 200; step++) {
+			GameObject gameObject = objects.get(random.nextInt(objects.size()));
+			if (step % 50 == 49) {
+				world.removeGameObject(gameObject);
+				objects.remove(gameObject);
+			} else {
+				gameObject.setLocation(new Location(1 + random.nextDouble() * 18, 1 + random.nextDouble() * 17));
+			}
+			Location center = new Location(random.nextDouble() * 20, random.nextDouble() * 20);
+			Radius radius = new Radius(0.5 + random.nextDouble() * 3);
+			assertEquals(overlapping(world.getAllObjectsOfType(Worm.class), center, radius),
+					new HashSet<GameObject>(world.queryCircle(center, radius, Worm.class)));
+			assertEquals(overlapping(world.getAllObjectsOfType(Food.class), center, radius),
+					new HashSet<GameObject>(world.queryCircle(center, radius, Food.class)));
+		}
+	}
+
+	@Test
+	public void queryCircle_FollowsGrowth() {
+		World world = WorldFixtures.floorWorld(20, 20);
+		Worm worm = new Worm(new Location(10, 1.46), new Direction(0), null, new Radius(0.45), Name.DEFAULT_NAME, null);
+		world.addGameObject(worm);
+		Location probe = new Location(10, 2.5);
+		Radius probeRadius = new Radius(0.5);
+		assertTrue(world.queryCircle(probe, probeRadius, Worm.class).isEmpty());
+		worm.grow(new Location(10, 1.7), 1.5);
+		assertEquals(Arrays.asList(worm), world.queryCircle(probe, probeRadius, Worm.class));
+	}
+}
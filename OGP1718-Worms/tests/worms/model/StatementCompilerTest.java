@@ -0,0 +1,130 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import worms.facade.Facade;
+import worms.model.values.Direction;
+import worms.model.values.Location;
+import worms.model.values.Name;
+import worms.model.values.Radius;
+import worms.parser.statements.StatementCompiler;
+import worms.programs.ProgramParser;
+
+public class StatementCompilerTest {
+
+	private static final String[] PROGRAMS = {
+			"a := 5; a := a + a; print a; print a == 10; print null;",
+			"i := 0; while i < 5: { if i == 3: { print i; } else { print i + 10; } i := i + 1; }",
+			"i := 0; while true: { i := i + 1; if 3 < i: break; } print i;",
+			"def count: { while n < 4: { n := n + 1; print n; } } n := 0; invoke count; n := 1; invoke count;",
+			"def one: { invoke two; print 1; } def two: { print 2; } invoke one; invoke two;",
+			"a := true; b := false; if a && !b: print a || b; else print 0;",
+			"i := 0; while i < 3: { j := 0; while true: { j := j + 1; if j > i: break; print j; } i := i + 1; } print i;",
+	};
+
+	private static Program parse(String text, boolean compiling) {
+		return ProgramParser.parseProgramFromString(text, new ProgramFactory(compiling));
+	}
+
+	@Test
+	public void compiled_MatchesInterpreted() {
+		for (String text : PROGRAMS) {
+			Program interpreted = parse(text, false);
+			Program compiled = parse(text, true);
+			List<Object> expected = interpreted.doStartExecution();
+			assertFalse(expected.isEmpty());
+			assertEquals(text, expected, compiled.doStartExecution());
+			assertEquals(text, interpreted.getGlobals(), compiled.getGlobals());
+		}
+	}
+
+	@Test
+	public void nestedBreak_LeavesInnerLoop() {
+		for (boolean compiling : new boolean[] { false, true }) {
+			Program program = parse(PROGRAMS[PROGRAMS.length - 1], compiling);
+			assertEquals(Arrays.asList(1.0, 1.0, 2.0, 3.0), program.doStartExecution());
+		}
+	}
+
+	private static final String[] BREAK_PROGRAMS = {
+			"i := 0; while i < 3: { j := 0; while true: { j := j + 1; if j > i: { break; } else { print j; } } print i; i := i + 1; }",
+			"i := 0; while i < 2: { j := 0; while j < 5: { k := 0; while true: { k := k + 1; if k > j: break; } if j == i: break; j := j + 1; } "
+					+ "print j; i := i + 1; } print i;",
+			"def p: { print 1; break; print 2; } i := 0; while i < 3: { invoke p; i := i + 1; } print i;",
+			"def p: { while true: { print 1; break; } print 2; } i := 0; while i < 2: { invoke p; if i == 1: break; i := i + 1; } print i;",
+			"i := 0; while i < 3: { j := 0; while true: { j := j + 1; if j > i: break; print j; } turn 0.1; print i; i := i + 1; }",
+	};
+
+	@Test
+	public void breaks_MatchInterpreted() {
+		for (String text : BREAK_PROGRAMS) {
+			List<List<Object>> results = new ArrayList<List<Object>>();
+			List<Object> globals = new ArrayList<Object>();
+			for (boolean compiling : new boolean[] { false, true }) {
+				World world = WorldFixtures.floorWorld(10, 5);
+				Worm worm = new Worm(new Location(4, 1.52), Direction.DEFAULT_DIRECTION, null, new Radius(0.5), Name.DEFAULT_NAME, null);
+				world.addGameObject(worm);
+				Program program = parse(text, compiling);
+				program.assignProgram(worm, new SimpleActionHandler(new Facade()));
+				results.add(program.doStartExecution());
+				globals.add(program.getGlobals());
+			}
+			assertFalse(text, results.get(0).isEmpty());
+			assertEquals(text, results.get(0), results.get(1));
+			assertEquals(text, globals.get(0), globals.get(1));
+		}
+	}
+
+	@Test
+	public void compiled_TypeErrors() {
+		try {
+			parse("a := 1; while a: { print a; }", true).doStartExecution();
+			fail();
+		} catch (IllegalStateException e) {
+		}
+		try {
+			parse("a := 1; print a < true;", true).doStartExecution();
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	@Test
+	public void isCompilable_Procedures() throws IOException {
+		Program program = ProgramParser.parseProgramFromFile("programs/program.txt", new ProgramFactory());
+		assertTrue(new StatementCompiler(new ArrayList<>(program.getProcedures().values())).isCompilable("updateNearestWorm"));
+
+		program = parse("def a: { invoke b; } def b: { invoke a; } def c: { move; } def d: { invoke c; } def e: { print 1; break; } "
+				+ "def f: { while true: { break; } } invoke f;", false);
+		StatementCompiler compiler = new StatementCompiler(new ArrayList<>(program.getProcedures().values()));
+		assertTrue(compiler.isCompilable("a"));
+		assertTrue(compiler.isCompilable("b"));
+		assertFalse(compiler.isCompilable("c"));
+		assertFalse(compiler.isCompilable("d"));
+		assertFalse(compiler.isCompilable("e"));
+		assertTrue(compiler.isCompilable("f"));
+	}
+
+	@Test
+	public void compiled_ActionsStayInterpreted() {
+		String text = "i := 0; while i < 3: { j := 0; while j < 2: { print j; j := j + 1; } turn 0.1; print getdir self; i := i + 1; }";
+		List<List<Object>> results = new ArrayList<List<Object>>();
+		for (boolean compiling : new boolean[] { false, true }) {
+			World world = WorldFixtures.floorWorld(10, 5);
+			Worm worm = new Worm(new Location(4, 1.52), Direction.DEFAULT_DIRECTION, null, new Radius(0.5), Name.DEFAULT_NAME, null);
+			world.addGameObject(worm);
+			Program program = parse(text, compiling);
+			program.assignProgram(worm, new SimpleActionHandler(new Facade()));
+			results.add(program.doStartExecution());
+		}
+		assertEquals(9, results.get(0).size());
+		assertEquals(results.get(0), results.get(1));
+	}
+}
@@ -0,0 +1,99 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import worms.parser.statements.StateAssignment;
+import worms.parser.statements.StatePrint;
+import worms.parser.statements.StateSequence;
+import worms.parser.statements.StatementOptimizer;
+import worms.programs.ProgramParser;
+
+public class StatementOptimizerTest {
+
+	private static final String[] PROGRAMS = {
+			"a := 6.28 + 0.2 + 0.1; print a; print 1 < 2 && !(3 == 4); print null == null;",
+			"debug := false; if true: { print 1; } else { print 2; } if false: print 3; print 4;",
+			"i := 0; while false: { print i; } while i < 3: { if 1 + 1 == 2: { i := i + 1; } if true: { if true: print i; } }",
+			"def p: { if true: { break; } print 1; } invoke p; print 2;",
+			"i := 0; while true: { i := i + 1; if 3 < i: { if true: break; } } print i;",
+	};
+
+	private static Program parse(String text, boolean optimizing) {
+		ProgramFactory factory = new ProgramFactory();
+		factory.setOptimizing(optimizing);
+		return ProgramParser.parseProgramFromString(text, factory);
+	}
+
+	@Test
+	public void optimized_MatchesUnoptimized() {
+		for (String text : PROGRAMS) {
+			Program unoptimized = parse(text, false);
+			Program optimized = parse(text, true);
+			assertEquals(text, unoptimized.doStartExecution(), optimized.doStartExecution());
+			assertEquals(text, unoptimized.getGlobals(), optimized.getGlobals());
+			assertTrue(text, StatementOptimizer.countNodes(optimized) < StatementOptimizer.countNodes(unoptimized));
+		}
+	}
+
+	@Test
+	public void optimized_FoldsConstants() {
+		Program program = parse("a := 6.28 + 0.2 + 0.1;", true);
+		assertTrue(program.getMain() instanceof StateAssignment);
+		assertEquals(2, program.getMain().getExpression().getNumberOfNodes());
+		program.doStartExecution();
+		assertEquals(6.58, (Double)program.getGlobals().get("a"), 1e-9);
+
+		program = parse("a := 6.28 + 0.2 + 0.1;", false);
+		assertEquals(6, program.getMain().getExpression().getNumberOfNodes());
+	}
+
+	@Test
+	public void optimized_KeepsSourceLocations() {
+		String text = "if true: {\n  print 1;\n} else {\n  print 2;\n}";
+		Program optimized = parse(text, true);
+		assertTrue(optimized.getMain() instanceof StatePrint);
+		assertEquals(2, optimized.getMain().getSource().getLine());
+		assertEquals(2, optimized.getMain().getSource().getColumn());
+
+		optimized = parse("print 0;\nif false: print 1;", true);
+		assertTrue(optimized.getMain() instanceof StatePrint);
+		optimized = parse("if false: print 1;", true);
+		assertTrue(optimized.getMain() instanceof StateSequence);
+		assertEquals(0, ((StateSequence)optimized.getMain()).getSequenceLength());
+	}
+
+	@Test
+	public void optimized_DefersErrors() {
+		Program program = parse("print 1 + true;", true);
+		try {
+			program.doStartExecution();
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+		program = parse("if 1: print 1;", true);
+		try {
+			program.doStartExecution();
+			fail();
+		} catch (IllegalStateException e) {
+		}
+	}
+
+	@Test
+	public void countNodes_ProgramFiles() throws IOException {
+		for (File file : new File("programs").listFiles()) {
+			ProgramFactory factory = new ProgramFactory();
+			factory.setOptimizing(false);
+			Program unoptimized = ProgramParser.parseProgramFromFile(file.getPath(), factory);
+			if(unoptimized == null) {
+				continue;
+			}
+			Program optimized = ProgramParser.parseProgramFromFile(file.getPath(), new ProgramFactory());
+			assertTrue(file.getName(), StatementOptimizer.countNodes(optimized) <= StatementOptimizer.countNodes(unoptimized));
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package worms.model;
+
+import worms.model.values.Direction;
+import worms.model.values.Location;
+import worms.model.values.Name;
+import worms.model.values.Radius;
+
+/**
+ * Benchmark for Team.mergeTeams, merging two teams of equal size whose worms' names interleave alphabetically.
+ * Run as a Java application from the project directory; the time per worm should only grow with the logarithm of the team size.
+ */
+public class TeamMergeBenchmark {
+
+	private static final int[] SIZES = { 625, 1250, 2500, 5000 };
+
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) {
+		World world = new World(new boolean[][] { { true, true }, { true, true } });
+		for (int repeat = 0; repeat < 2; repeat++) {
+			for (int size : SIZES) {
+				long best = Long.MAX_VALUE;
+				for (int round = 0; round < ROUNDS; round++) {
+					Team receiving = new Team(world, Name.DEFAULT_NAME);
+					Team supplying = new Team(world, Name.DEFAULT_NAME);
+					receiving.addWorm(createWorms(size, 0));
+					supplying.addWorm(createWorms(size, 1));
+					long start = System.nanoTime();
+					receiving.mergeTeams(supplying);
+					best = Math.min(best, System.nanoTime() - start);
+				}
+				System.out.println(String.format("2 x %5d worms: %8.2f ms, %6.0f ns per worm", size, best / 1e6, (double) best / (2 * size)));
+			}
+		}
+	}
+
+	/**
+	 * Creates worms named after every other number from the given one, so that two teams created from 0 and 1 interleave.
+	 */
+	private static Worm[] createWorms(int count, int first) {
+		Worm[] worms = new Worm[count];
+		for (int i = 0; i < count; i++) {
+			int number = first + 2 * i;
+			String name = "Worm " + (char) ('A' + number / 676 % 26) + (char) ('A' + number / 26 % 26) + (char) ('A' + number % 26);
+			worms[i] = new Worm(new Location(1, 1), Direction.DEFAULT_DIRECTION, null, new Radius(0.3), new Name(name), null);
+		}
+		return worms;
+	}
+}
@@ -2,9 +2,15 @@ package worms.model;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import worms.exceptions.InvalidWormNameException;
 import worms.model.values.Direction;
 import worms.model.values.Location;
 import worms.model.values.Name;
@@ -42,4 +48,147 @@ public class TeamTest {
 		assertTrue(t.getAlphabeticalListTeamRoster().get(4).getName().equals("Worm CC"));
 	}
 
+	private static Worm newWorm(String name, double radius) {
+		return new Worm(new Location(1, 1), Direction.DEFAULT_DIRECTION, null, new Radius(radius), new Name(name), null);
+	}
+
+	private static String nameOf(int i) {
+		return "Worm " + (char) ('A' + i / 26 / 26 % 26) + (char) ('A' + i / 26 % 26) + (char) ('A' + i % 26);
+	}
+
+	@Test
+	public void canHaveWormInTeam_MatchesPairwise() {
+		World w = new World(passableMap);
+		Random random = new Random(18);
+		for (int round = 0; round < 50; round++) {
+			Team t = new Team(w, Name.DEFAULT_NAME);
+			List<Worm> members = new ArrayList<Worm>();
+			for (int i = 0; i < 20; i++) {
+				Worm worm = newWorm(nameOf(random.nextInt(30)), 0.25 + random.nextDouble() * 0.3);
+				boolean expected = true;
+				for (Worm member : members) {
+					expected &= member.hasCorrectTeamMass(worm) && worm.hasCorrectTeamMass(member) && !member.hasTheSameNameAs(worm);
+				}
+				assertEquals(expected, t.canHaveWormInTeam(worm));
+				if (expected) {
+					t.addWorm(worm);
+					members.add(worm);
+				} else {
+					try {
+						t.addWorm(worm);
+						fail();
+					} catch (IllegalArgumentException exc) {
+					}
+				}
+				if (random.nextInt(4) == 0 && !members.isEmpty()) {
+					t.removeWorm(members.remove(random.nextInt(members.size())));
+				}
+			}
+			List<Worm> sorted = new ArrayList<Worm>(members);
+			sorted.sort((a, b) -> a.getName().compareTo(b.getName()));
+			assertEquals(sorted, t.getAlphabeticalListTeamRoster());
+			assertEquals(members.size(), t.getNumberOfWorms());
+		}
+	}
+
+	@Test
+	public void roster_FollowsNamesAndMasses() {
+		World w = new World(passableMap);
+		Team t = new Team(w, Name.DEFAULT_NAME);
+		Worm a = newWorm("Worm A", 0.3), b = newWorm("Worm B", 0.3);
+		t.addWorm(a, b);
+		a.setName(new Name("Worm C"));
+		assertEquals(Arrays.asList(b, a), t.getAlphabeticalListTeamRoster());
+		assertTrue(t.hasAsWorm(a));
+		try {
+			a.setName(new Name("Worm B"));
+			fail();
+		} catch (InvalidWormNameException exc) {
+		}
+		assertEquals("Worm C", a.getName());
+
+		//A worm that grows heavy keeps the lighter worms out.
+		Worm c = newWorm("Worm D", 0.3);
+		assertTrue(t.canHaveWormInTeam(c));
+		a.setRadius(new Radius(0.45));
+		assertFalse(t.canHaveWormInTeam(c));
+		t.removeWorm(a);
+		assertTrue(t.canHaveWormInTeam(c));
+		try {
+			t.removeWorm(a);
+			fail();
+		} catch (IllegalArgumentException exc) {
+		}
+	}
+
+	@Test
+	public void addWorm_Bulk() {
+		World w = new World(passableMap);
+		Team t = new Team(w, Name.DEFAULT_NAME);
+		Worm[] worms = new Worm[1000];
+		for (int i = 0; i < worms.length; i++) {
+			worms[i] = newWorm(nameOf(worms.length - 1 - i), 0.3);
+		}
+		long start = System.nanoTime();
+		t.addWorm(worms);
+		long elapsed = System.nanoTime() - start;
+		assertEquals(1000, t.getNumberOfWorms());
+		assertSame(worms[worms.length - 1], t.getAlphabeticalListTeamRoster().get(0));
+		assertTrue("took " + elapsed / 1e6 + " ms", elapsed < 1e9);
+	}
+
+	@Test
+	public void mergeTeams_MatchesAddingEachWorm() {
+		World w = new World(passableMap);
+		Random random = new Random(19);
+		int merged = 0;
+		for (int round = 0; round < 200; round++) {
+			Team receiving = new Team(w, Name.DEFAULT_NAME);
+			Team supplying = new Team(w, Name.DEFAULT_NAME);
+			for (Team team : new Team[] { receiving, supplying }) {
+				for (int i = 0; i < 8; i++) {
+					Worm worm = newWorm(nameOf(random.nextInt(200)), 0.25 + random.nextDouble() * (round % 2 == 0 ? 0.05 : 0.15));
+					if (team.canHaveWormInTeam(worm)) {
+						team.addWorm(worm);
+					}
+				}
+			}
+			List<Worm> receivingBefore = receiving.getAlphabeticalListTeamRoster();
+			List<Worm> supplyingBefore = supplying.getAlphabeticalListTeamRoster();
+			boolean expected = true;
+			for (Worm worm : supplyingBefore) {
+				expected &= receiving.canHaveWormInTeam(worm);
+			}
+			try {
+				receiving.mergeTeams(supplying);
+				assertTrue(expected);
+				List<Worm> all = new ArrayList<Worm>(receivingBefore);
+				all.addAll(supplyingBefore);
+				all.sort((a, b) -> a.getName().compareTo(b.getName()));
+				assertEquals(all, receiving.getAlphabeticalListTeamRoster());
+				assertEquals(0, supplying.getNumberOfWorms());
+				for (Worm worm : all) {
+					assertSame(receiving, worm.getTeam());
+					assertTrue(receiving.hasAsWorm(worm));
+				}
+				merged++;
+			} catch (IllegalArgumentException exc) {
+				assertFalse(expected);
+				assertEquals(receivingBefore, receiving.getAlphabeticalListTeamRoster());
+				assertEquals(supplyingBefore, supplying.getAlphabeticalListTeamRoster());
+				for (Worm worm : supplyingBefore) {
+					assertSame(supplying, worm.getTeam());
+				}
+			}
+			//The masses follow the merge: the lightest and the heaviest worm of both teams.
+			double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+			for (Worm worm : receiving.getAlphabeticalListTeamRoster()) {
+				min = Math.min(min, worm.getMass());
+				max = Math.max(max, worm.getMass());
+			}
+			assertEquals(min, receiving.getMinimumMass(), 0);
+			assertEquals(max, receiving.getMaximumMass(), 0);
+		}
+		assertTrue(merged > 0 && merged < 200);
+	}
 }
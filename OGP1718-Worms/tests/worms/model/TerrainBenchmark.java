@@ -0,0 +1,122 @@
+package worms.model;
+
+import java.util.Random;
+
+import worms.internal.gui.Level;
+import worms.model.ShapeHelp.BoundaryRectangle;
+import worms.model.ShapeHelp.Circle;
+import worms.model.ShapeHelp.Rectangle;
+import worms.model.terrain.SummedAreaTable;
+import worms.model.terrain.TerrainGrid;
+import worms.model.values.Location;
+import worms.model.values.Radius;
+
+/**
+ * Microbenchmark for the terrain box checks behind World.isPassable(Location, Radius).
+ * Run as a Java application from the project directory; prints nanoseconds per query.
+ * 
+ * Compares, for boxes around random locations, the original tile-intersection loop,
+ * a scan over the cells of the box and a summed-area table lookup.
+ */
+public class TerrainBenchmark {
+
+	private static final double[] RADII = { 0.25, 0.5, 1, 2, 5 };
+
+	private static final int QUERIES = 2000;
+
+	private static final int ROUNDS = 5;
+
+	private static volatile int sink;
+
+	public static void main(String[] args) {
+		for (Level level : Level.getAvailableLevels()) {
+			level.load();
+			boolean[][] map = level.getPassableMap();
+			World world = new World(level.getWorldWidth(), level.getWorldHeight(), map);
+			TerrainGrid terrain = new TerrainGrid(map);
+			SummedAreaTable table = new SummedAreaTable(terrain);
+			BoundaryRectangle[][] tiles = world.getPassableMap();
+			System.out.println(level.getName() + " (" + terrain.getColumns() + "x" + terrain.getRows() + ")");
+			System.out.println(String.format("  %6s %14s %14s %14s %14s", "radius", "tile loop", "cell scan", "summed-area", "isPassable"));
+			for (double radius : RADII) {
+				Location[] locations = randomLocations(world, new Random(17));
+				Radius r = new Radius(radius);
+				long tileLoop = Long.MAX_VALUE, cellScan = Long.MAX_VALUE, summedArea = Long.MAX_VALUE, passable = Long.MAX_VALUE;
+				for (int round = 0; round < ROUNDS; round++) {
+					long start = System.nanoTime();
+					for (Location location : locations) {
+						sink += tileLoop(world, tiles, location, r) ? 1 : 0;
+					}
+					tileLoop = Math.min(tileLoop, System.nanoTime() - start);
+					start = System.nanoTime();
+					for (Location location : locations) {
+						sink += cellScan(world, terrain, location, radius) ? 1 : 0;
+					}
+					cellScan = Math.min(cellScan, System.nanoTime() - start);
+					start = System.nanoTime();
+					for (Location location : locations) {
+						sink += summedArea(world, table, location, radius) ? 1 : 0;
+					}
+					summedArea = Math.min(summedArea, System.nanoTime() - start);
+					start = System.nanoTime();
+					for (Location location : locations) {
+						sink += world.isPassable(location, r) ? 1 : 0;
+					}
+					passable = Math.min(passable, System.nanoTime() - start);
+				}
+				System.out.println(String.format("  %6.2f %11d ns %11d ns %11d ns %11d ns", radius, tileLoop / QUERIES,
+						cellScan / QUERIES, summedArea / QUERIES, passable / QUERIES));
+			}
+		}
+	}
+
+	private static Location[] randomLocations(World world, Random random) {
+		Location[] locations = new Location[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			locations[i] = new Location(random.nextDouble() * world.getWorldWidth(), random.nextDouble() * world.getWorldHeight());
+		}
+		return locations;
+	}
+
+	private static boolean tileLoop(World world, BoundaryRectangle[][] tiles, Location location, Radius radius) {
+		Rectangle bound = new Circle(location, radius).getBoundingRectangle();
+		Rectangle realStuff = new Rectangle(world.getRealWorldLoc(bound.getCenter()), world.getRealWorldLoc(bound.getSize()));
+		for (int x = -2; x < realStuff.getSize().getX() + 1; x++) {
+			for (int y = -2; y < realStuff.getSize().getY() + 1; y++) {
+				int xCoord = x + (int) realStuff.getCenter().getX();
+				int yCoord = y + (int) realStuff.getCenter().getY();
+				if (xCoord >= 0 && xCoord < tiles[0].length && yCoord >= 0 && yCoord < tiles.length) {
+					if (!tiles[yCoord][xCoord].isPassable() && tiles[yCoord][xCoord].intersects(realStuff)) {
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	private static int[] cellRange(World world, Location location, double radius) {
+		double left = (location.getX() - radius) / world.getWidthRatio();
+		double right = left + radius * 2 / world.getWidthRatio();
+		double bottom = (location.getY() - radius) / world.getHeightRatio();
+		double top = bottom + radius * 2 / world.getHeightRatio();
+		return new int[] { (int) Math.floor(bottom), (int) Math.floor(left), (int) Math.ceil(top) - 1, (int) Math.ceil(right) - 1 };
+	}
+
+	private static boolean cellScan(World world, TerrainGrid terrain, Location location, double radius) {
+		int[] range = cellRange(world, location, radius);
+		for (int i = Math.max(range[0], 0); i <= Math.min(range[2], terrain.getRows() - 1); i++) {
+			for (int j = Math.max(range[1], 0); j <= Math.min(range[3], terrain.getColumns() - 1); j++) {
+				if (!terrain.isPassableCell(i, j)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static boolean summedArea(World world, SummedAreaTable table, Location location, double radius) {
+		int[] range = cellRange(world, location, radius);
+		return !table.containsImpassable(range[0], range[1], range[2], range[3]);
+	}
+}
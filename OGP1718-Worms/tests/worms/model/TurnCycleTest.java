@@ -0,0 +1,100 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import worms.model.values.Direction;
+import worms.model.values.Location;
+import worms.model.values.Name;
+import worms.model.values.Radius;
+
+public class TurnCycleTest {
+
+	private static Worm newWorm() {
+		return new Worm(new Location(1, 1), Direction.DEFAULT_DIRECTION, null, new Radius(0.25), Name.DEFAULT_NAME, null);
+	}
+
+	@Test
+	public void basicOrder() {
+		TurnCycle cycle = new TurnCycle();
+		assertNull(cycle.getCurrent());
+		assertNull(cycle.getNext());
+		cycle.advance();
+		assertTrue(cycle.getOrder().isEmpty());
+
+		Worm a = newWorm(), b = newWorm(), c = newWorm();
+		cycle.add(a);
+		assertSame(a, cycle.getCurrent());
+		assertSame(a, cycle.getNext());
+		cycle.add(b);
+		cycle.add(c);
+		assertEquals(Arrays.asList(a, b, c), cycle.getOrder());
+		assertSame(b, cycle.getNext());
+
+		cycle.advance();
+		assertEquals(Arrays.asList(b, c, a), cycle.getOrder());
+		cycle.remove(b);
+		assertEquals(Arrays.asList(c, a), cycle.getOrder());
+		cycle.remove(b);
+		assertEquals(2, cycle.size());
+		cycle.remove(a);
+		cycle.remove(c);
+		assertTrue(cycle.isEmpty());
+		assertNull(cycle.getCurrent());
+
+		try {
+			cycle.add(null);
+			fail();
+		} catch (IllegalArgumentException exc) {
+		}
+		cycle.add(a);
+		try {
+			cycle.add(a);
+			fail();
+		} catch (IllegalArgumentException exc) {
+		}
+	}
+
+	@Test
+	public void matchesList_RandomGame() {
+		Random random = new Random(16);
+		List<Worm> worms = new ArrayList<Worm>();
+		for (int i = 0; i < 50; i++) {
+			worms.add(newWorm());
+		}
+		TurnCycle cycle = new TurnCycle();
+		//The original turn cycle: the current worm first, ending a turn moves it to the back.
+		LinkedList<Worm> list = new LinkedList<Worm>();
+		for (int step = 0; step < 20000; step++) {
+			Worm worm = worms.get(random.nextInt(worms.size()));
+			switch (random.nextInt(3)) {
+			case 0:
+				if (!list.contains(worm)) {
+					cycle.add(worm);
+					list.add(worm);
+				}
+				break;
+			case 1:
+				cycle.remove(worm);
+				list.remove(worm);
+				break;
+			default:
+				cycle.advance();
+				if (!list.isEmpty()) {
+					list.add(list.removeFirst());
+				}
+			}
+			assertEquals(list, cycle.getOrder());
+			assertEquals(list.isEmpty() ? null : list.getFirst(), cycle.getCurrent());
+			assertEquals(list.isEmpty() ? null : list.get(1 % list.size()), cycle.getNext());
+			assertEquals(list.contains(worm), cycle.contains(worm));
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package worms.model;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import worms.internal.gui.Level;
+import worms.model.values.Direction;
+import worms.model.values.HP;
+import worms.model.values.Location;
+import worms.model.values.Name;
+import worms.model.values.Radius;
+
+/**
+ * Worlds and worms shared by the tests and benchmarks.
+ * The worlds built from a map measure one metre per cell.
+ */
+public class WorldFixtures {
+
+	private WorldFixtures() {
+	}
+
+	/**
+	 * Returns a new world with the terrain of the given level.
+	 */
+	public static World loadWorld(Level level) {
+		level.load();
+		return new World(level.getWorldWidth(), level.getWorldHeight(), level.getPassableMap());
+	}
+
+	/**
+	 * Returns a new world of the given width and height, passable except for its bottom row.
+	 */
+	public static World floorWorld(int width, int height) {
+		boolean[][] map = new boolean[height][width];
+		for (boolean[] row : map) {
+			Arrays.fill(row, true);
+		}
+		Arrays.fill(map[height - 1], false);
+		return new World(width, height, map);
+	}
+
+	/**
+	 * Returns a new world of the given width, made up of the given number of ledges stacked on top of each other.
+	 * Every ledge is five rows high, the bottom one of which is impassable.
+	 */
+	public static World ledgeWorld(int width, int ledges) {
+		boolean[][] map = new boolean[5 * ledges][width];
+		for (int row = 0; row < map.length; row++) {
+			Arrays.fill(map[row], row % 5 != 4);
+		}
+		return new World(width, 5 * ledges, map);
+	}
+
+	/**
+	 * Places a worm with plenty of hit points at the given location in the given world,
+	 * without the usual adjacency checks and without adding it to the world.
+	 */
+	public static Worm placeWorm(World world, Location location, double radius) {
+		Worm worm = new Worm(location, new Direction(0), null, new Radius(radius), Name.DEFAULT_NAME, null);
+		worm.setWorld(world);
+		worm.setLocation(location);
+		worm.setHitPoints(new HP(BigInteger.valueOf(100000)));
+		return worm;
+	}
+}
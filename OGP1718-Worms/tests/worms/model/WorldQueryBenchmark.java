@@ -0,0 +1,53 @@
+package worms.model;
+
+import java.lang.management.ManagementFactory;
+
+import worms.model.values.Direction;
+import worms.model.values.Location;
+import worms.model.values.Name;
+import worms.model.values.Radius;
+
+/**
+ * Allocation and time benchmark for looking up the worms of a world, as done every turn by World.getWinner.
+ * Run as a Java application from the project directory.
+ *
+ * A wide world with a floor holds a row of teamless worms; the game is started before measuring.
+ */
+public class WorldQueryBenchmark {
+
+	private static final int WORMS = 500;
+
+	private static final int CALLS = 200000;
+
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) {
+		World world = WorldFixtures.floorWorld(WORMS + 2, 4);
+		for (int i = 0; i < WORMS; i++) {
+			world.addGameObject(new Worm(new Location(i + 1.5, 1.26), Direction.DEFAULT_DIRECTION, null, new Radius(0.25),
+					Name.DEFAULT_NAME, null));
+		}
+		world.startGame();
+
+		measure("getWinner", () -> world.getWinner());
+		measure("getAllObjectsOfType", () -> world.getAllObjectsOfType(Worm.class).size());
+		measure("getObjectsOfType", () -> world.getObjectsOfType(Worm.class).size());
+	}
+
+	private static void measure(String name, Runnable call) {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		long best = Long.MAX_VALUE;
+		long bytes = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			long allocated = threads.getThreadAllocatedBytes(thread);
+			long start = System.nanoTime();
+			for (int i = 0; i < CALLS; i++) {
+				call.run();
+			}
+			best = Math.min(best, System.nanoTime() - start);
+			bytes = threads.getThreadAllocatedBytes(thread) - allocated;
+		}
+		System.out.println(String.format("%-20s %8.1f ns/call %10.1f bytes/call", name, (double) best / CALLS, (double) bytes / CALLS));
+	}
+}
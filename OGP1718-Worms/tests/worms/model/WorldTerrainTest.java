@@ -0,0 +1,261 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import worms.internal.gui.Level;
+import worms.model.ShapeHelp.BoundaryRectangle;
+import worms.model.ShapeHelp.Circle;
+import worms.model.ShapeHelp.Rectangle;
+import worms.model.interfaces.ITerrain;
+import worms.model.terrain.ColumnHeightIndex;
+import worms.model.terrain.DistanceField;
+import worms.model.terrain.SummedAreaTable;
+import worms.model.terrain.TerrainGrid;
+import worms.model.terrain.TerrainPyramid;
+import worms.model.values.Location;
+import worms.model.values.Radius;
+
+public class WorldTerrainTest {
+
+	private static final int SAMPLES_PER_LEVEL = 40;
+
+	private static final long DISTANCE_FIELD_BUDGET_MS = 2000;
+
+	/**
+	 * The original point query: scans every tile of the map.
+	 */
+	private static boolean isPassableByScan(World world, Location location) {
+		Location realWorldLoc = world.getRealWorldLoc(location);
+		return !Arrays.stream(world.getPassableMap()).flatMap(x -> Arrays.stream(x))
+				.anyMatch(tile -> !tile.isPassable() && tile.containsPoint(realWorldLoc));
+	}
+
+	/**
+	 * The original surface query: intersects the bounding rectangle with the tiles around it.
+	 */
+	private static boolean isPassableByTiles(World world, BoundaryRectangle[][] tiles, Location location, Radius radius) {
+		Rectangle bound = new Circle(location, radius).getBoundingRectangle();
+		Rectangle realStuff = new Rectangle(world.getRealWorldLoc(bound.getCenter()), world.getRealWorldLoc(bound.getSize()));
+		for (int x = -2; x < realStuff.getSize().getX() + 1; x++) {
+			for (int y = -2; y < realStuff.getSize().getY() + 1; y++) {
+				int xCoord = x + (int) realStuff.getCenter().getX();
+				int yCoord = y + (int) realStuff.getCenter().getY();
+				if (xCoord >= 0 && xCoord < tiles[0].length && yCoord >= 0 && yCoord < tiles.length) {
+					BoundaryRectangle tile = tiles[yCoord][xCoord];
+					if (!tile.isPassable() && tile.intersects(realStuff)) {
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	@Test
+	public void terrain_MatchesPassableMap() {
+		boolean[][] map = new boolean[70][130];
+		Random random = new Random(42);
+		for (boolean[] row : map) {
+			for (int j = 0; j < row.length; j++) {
+				row[j] = random.nextBoolean();
+			}
+		}
+		World world = new World(13, 7, map);
+		ITerrain terrain = world.getTerrain();
+		BoundaryRectangle[][] tiles = world.getPassableMap();
+		assertEquals(70, terrain.getRows());
+		assertEquals(130, terrain.getColumns());
+		for (int i = 0; i < 70; i++) {
+			for (int j = 0; j < 130; j++) {
+				assertEquals(map[70 - i - 1][j], terrain.isPassableCell(i, j));
+				assertEquals(map[70 - i - 1][j], tiles[i][j].isPassable());
+				assertEquals(new Location(j, i), tiles[i][j].getCenter());
+			}
+		}
+	}
+
+	@Test
+	public void pointPassability_SmallMap() {
+		boolean[][] map = new boolean[][] { { true, false, true }, { true, true, false }, { false, true, true } };
+		World world = new World(6, 6, map);
+		for (double x = -1; x <= 7; x += 0.5) {
+			for (double y = -1; y <= 7; y += 0.5) {
+				Location loc = new Location(x, y);
+				assertEquals(loc.toString(), isPassableByScan(world, loc), world.isPassable(loc));
+			}
+		}
+	}
+
+	@Test
+	public void pointPassability_AllLevels() {
+		Random random = new Random(1718);
+		for (Level level : Level.getAvailableLevels()) {
+			World world = WorldFixtures.loadWorld(level);
+			BoundaryRectangle[][] tiles = world.getPassableMap();
+			int rows = tiles.length;
+			int columns = tiles[0].length;
+			for (int sample = 0; sample < SAMPLES_PER_LEVEL; sample++) {
+				// half of the samples land exactly on tile edges and corners
+				double x = (sample % 2 == 0) ? random.nextInt(columns + 1) : random.nextDouble() * columns;
+				double y = (sample % 4 < 2) ? random.nextInt(rows + 1) : random.nextDouble() * rows;
+				Location loc = new Location(x * world.getWidthRatio(), y * world.getHeightRatio());
+				assertEquals(level.getName() + " " + loc, isPassableByScan(world, loc), world.isPassable(loc));
+			}
+		}
+	}
+
+	@Test
+	public void surfacePassability_AllLevels() {
+		Random random = new Random(1718);
+		for (Level level : Level.getAvailableLevels()) {
+			World world = WorldFixtures.loadWorld(level);
+			BoundaryRectangle[][] tiles = world.getPassableMap();
+			for (int sample = 0; sample < 20 * SAMPLES_PER_LEVEL; sample++) {
+				Location loc = new Location(random.nextDouble() * world.getWorldWidth(),
+						random.nextDouble() * world.getWorldHeight());
+				Radius radius = new Radius(0.05 + random.nextDouble() * 1.5);
+				Radius adjacentRadius = new Radius(radius.getRadius() * 1.1);
+				boolean passable = isPassableByTiles(world, tiles, loc, radius);
+				String message = level.getName() + " " + loc + " r=" + radius.getRadius();
+				assertEquals(message, passable, world.isPassable(loc, radius));
+				assertEquals(message, passable && !isPassableByTiles(world, tiles, loc, adjacentRadius),
+						world.isAdjacantToImpassableTerrain(loc, radius));
+			}
+		}
+	}
+
+	@Test
+	public void surfacePassability_TileEdges() {
+		boolean[][] map = new boolean[][] { { true, true, true, true }, { true, false, true, true },
+				{ true, true, true, false }, { true, true, true, true } };
+		World world = new World(4, 4, map);
+		BoundaryRectangle[][] tiles = world.getPassableMap();
+		for (double x = 0; x <= 4; x += 0.25) {
+			for (double y = 0; y <= 4; y += 0.25) {
+				for (double r = 0.25; r <= 1.5; r += 0.25) {
+					Location loc = new Location(x, y);
+					assertEquals(loc + " r=" + r, isPassableByTiles(world, tiles, loc, new Radius(r)),
+							world.isPassable(loc, new Radius(r)));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void distanceField_BuildBudget() {
+		for (Level level : Level.getAvailableLevels()) {
+			level.load();
+			TerrainGrid terrain = new TerrainGrid(level.getPassableMap());
+			long start = System.nanoTime();
+			DistanceField field = new DistanceField(terrain);
+			long elapsed = (System.nanoTime() - start) / 1000000;
+			assertTrue(level.getName() + " took " + elapsed + " ms", elapsed < DISTANCE_FIELD_BUDGET_MS);
+			assertEquals(terrain.getRows(), field.getRows());
+			assertEquals(terrain.getColumns(), field.getColumns());
+		}
+	}
+
+	@Test
+	public void distanceField_SmallMap() {
+		boolean[][] map = new boolean[][] { { true, true, true, true, true }, { true, true, true, true, true },
+				{ true, true, true, true, true }, { true, true, true, true, false } };
+		DistanceField field = new DistanceField(new TerrainGrid(map));
+		assertEquals(0, field.getDistance(0, 4));
+		assertEquals(1, field.getDistance(1, 3));
+		assertEquals(2, field.getDistance(2, 2));
+		assertEquals(3, field.getDistance(3, 1));
+		assertEquals(4, field.getDistance(0, 0));
+		assertEquals(DistanceField.MAX_DISTANCE, new DistanceField(new TerrainGrid(new boolean[][] { { true } })).getDistance(0, 0));
+	}
+
+	@Test
+	public void summedAreaTable_RandomMap() {
+		Random random = new Random(7);
+		boolean[][] map = new boolean[33][71];
+		for (boolean[] row : map) {
+			for (int j = 0; j < row.length; j++) {
+				row[j] = random.nextInt(4) != 0;
+			}
+		}
+		TerrainGrid terrain = new TerrainGrid(map);
+		SummedAreaTable table = new SummedAreaTable(terrain);
+		for (int query = 0; query < 500; query++) {
+			int rowMin = random.nextInt(40) - 4, rowMax = rowMin + random.nextInt(12);
+			int columnMin = random.nextInt(80) - 4, columnMax = columnMin + random.nextInt(20);
+			int expected = 0;
+			for (int i = Math.max(rowMin, 0); i <= Math.min(rowMax, 32); i++) {
+				for (int j = Math.max(columnMin, 0); j <= Math.min(columnMax, 70); j++) {
+					expected += terrain.isPassableCell(i, j) ? 0 : 1;
+				}
+			}
+			assertEquals(expected, table.countImpassable(rowMin, columnMin, rowMax, columnMax));
+		}
+	}
+
+	private static byte bruteForceState(TerrainGrid terrain, int rowMin, int columnMin, int rowMax, int columnMax) {
+		byte state = 0;
+		for (int i = Math.max(rowMin, 0); i <= Math.min(rowMax, terrain.getRows() - 1); i++) {
+			for (int j = Math.max(columnMin, 0); j <= Math.min(columnMax, terrain.getColumns() - 1); j++) {
+				state |= terrain.isPassableCell(i, j) ? TerrainPyramid.PASSABLE : TerrainPyramid.SOLID;
+			}
+		}
+		return (state == 0) ? TerrainPyramid.PASSABLE : state;
+	}
+
+	@Test
+	public void terrainPyramid_RegionStates() {
+		Random random = new Random(11);
+		boolean[][] map = new boolean[45][77];
+		for (int i = 0; i < 45; i++) {
+			for (int j = 0; j < 77; j++) {
+				// open sky on top, rock at the bottom, some noise in between
+				map[i][j] = (i < 15) || (i < 30 && random.nextInt(3) != 0);
+			}
+		}
+		TerrainGrid terrain = new TerrainGrid(map);
+		TerrainPyramid pyramid = new TerrainPyramid(terrain);
+		assertEquals(8, pyramid.getLevels());
+		assertEquals(1, pyramid.getNodeRows(pyramid.getLevels() - 1));
+		assertEquals(TerrainPyramid.MIXED, pyramid.getState(pyramid.getLevels() - 1, 0, 0));
+		for (int query = 0; query < 2000; query++) {
+			int rowMin = random.nextInt(50) - 3, rowMax = rowMin + random.nextInt(20);
+			int columnMin = random.nextInt(80) - 3, columnMax = columnMin + random.nextInt(30);
+			byte expected = bruteForceState(terrain, rowMin, columnMin, rowMax, columnMax);
+			assertEquals(expected, pyramid.getRegionState(rowMin, columnMin, rowMax, columnMax));
+			if (rowMin >= 0 && columnMin >= 0 && rowMax < 45 && columnMax < 77) {
+				byte enclosing = pyramid.getEnclosingState(rowMin, columnMin, rowMax, columnMax);
+				assertTrue(enclosing == TerrainPyramid.MIXED || enclosing == expected);
+			}
+		}
+	}
+
+	@Test
+	public void columnHeightIndex_RandomMap() {
+		Random random = new Random(3);
+		boolean[][] map = new boolean[60][25];
+		for (boolean[] row : map) {
+			for (int j = 0; j < row.length; j++) {
+				row[j] = random.nextInt(5) != 0;
+			}
+		}
+		TerrainGrid terrain = new TerrainGrid(map);
+		ColumnHeightIndex index = new ColumnHeightIndex(terrain);
+		for (int j = 0; j < 25; j++) {
+			for (int row = -2; row < 63; row++) {
+				int expected = -1;
+				for (int i = Math.min(row, 59); i >= 0; i--) {
+					if (!terrain.isPassableCell(i, j)) {
+						expected = i;
+						break;
+					}
+				}
+				assertEquals(expected, index.getHighestImpassableRow(j, row));
+			}
+		}
+	}
+}
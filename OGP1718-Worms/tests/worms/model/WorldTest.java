@@ -2,6 +2,14 @@ package worms.model;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
 
 import org.junit.Before;
 import org.junit.Test;
@@ -48,6 +56,40 @@ public class WorldTest {
 		assertTrue(GameObjectTypeID.typeExists(wo.getClass()));
 	}
 
+	@Test
+	public void testGOID_Shared() throws InterruptedException {
+		Food f1 = new Food(new Location(2, 2), new Radius(World.getFoodRadius()), null);
+		Food f2 = new Food(new Location(2, 2), new Radius(World.getFoodRadius()), null);
+		Worm wo = new Worm(new Location(2, 2), Direction.DEFAULT_DIRECTION, null, new Radius(World.getWormMinimumRadius()), Name.DEFAULT_NAME,null);
+		assertSame(f1.getTypeID(), f2.getTypeID());
+		assertSame(GameObjectTypeID.getTypeIDOf(Food.class), f1.getTypeID());
+		assertNotEquals(f1.getTypeID(), wo.getTypeID());
+		assertEquals(f1.getTypeID(), new GameObjectTypeID(Food.class));
+
+		List<Class<? extends GameObject>> types = Arrays.asList(Worm.class, Food.class, Projectile.class, GameObject.class);
+		GameObjectTypeID[][] found = new GameObjectTypeID[8][types.size()];
+		Thread[] threads = new Thread[found.length];
+		for (int t = 0; t < threads.length; t++) {
+			GameObjectTypeID[] row = found[t];
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < types.size(); i++) {
+					row[i] = GameObjectTypeID.getTypeIDOf(types.get(i));
+				}
+			});
+			threads[t].start();
+		}
+		HashSet<Long> ids = new HashSet<Long>();
+		for (int t = 0; t < threads.length; t++) {
+			threads[t].join();
+			for (int i = 0; i < types.size(); i++) {
+				assertSame(found[0][i], found[t][i]);
+				assertSame(types.get(i), found[t][i].getGameObjectType());
+				ids.add(found[t][i].getID());
+			}
+		}
+		assertEquals(types.size(), ids.size());
+	}
+
 	@Test
 	public void testWorldOutOfBounds() {
 		try {
@@ -94,4 +136,128 @@ public class WorldTest {
 		assertEquals(3, w.getAllObjectsOfType(Worm.class).size());
 		assertEquals(3, w.getAllObjectsOfType(Food.class).size());
 	}
+
+	@Test
+	public void getObjectsOfType_FollowsWorld() {
+		World w = new World(4, 4, passableMapAdjacent);
+		Collection<Worm> worms = w.getObjectsOfType(Worm.class);
+		assertTrue(worms.isEmpty());
+
+		Worm first = new Worm(new Location(1, 1.26), Direction.DEFAULT_DIRECTION, null, new Radius(0.25), Name.DEFAULT_NAME, null);
+		Worm second = new Worm(new Location(3, 1.26), Direction.DEFAULT_DIRECTION, null, new Radius(0.25), Name.DEFAULT_NAME, null);
+		w.addGameObject(first);
+		w.addGameObject(second);
+		w.addGameObject(new Food(new Location(2, 1.21), new Radius(0.2), null));
+
+		assertEquals(2, worms.size());
+		assertTrue(worms.contains(first) && worms.contains(second));
+		assertEquals(1, w.getObjectsOfType(Food.class).size());
+		assertSame(worms, w.getObjectsOfType(Worm.class));
+
+		w.removeGameObject(first);
+		assertEquals(1, worms.size());
+		assertFalse(worms.contains(first));
+		assertEquals(new ArrayList<Worm>(worms), w.getAllObjectsOfType(Worm.class));
+
+		try {
+			worms.clear();
+			fail();
+		} catch (UnsupportedOperationException exc) {
+		}
+		assertEquals(1, worms.size());
+	}
+
+	@Test
+	public void searchObject_MatchesSampling() {
+		World w = WorldFixtures.ledgeWorld(40, 4);
+		Random random = new Random(14);
+		List<GameObject> objects = new ArrayList<GameObject>();
+		for (int ledge = 0; ledge < 4; ledge++) {
+			for (int i = 0; i < 20; i++) {
+				double radius = 0.25 + random.nextDouble() * 0.5;
+				Location location = new Location(1 + random.nextDouble() * 38, 5 * ledge + 1 + radius * 1.05);
+				GameObject object = (i % 3 == 0) ? new Food(location, new Radius(radius), null)
+						: new Worm(location, Direction.DEFAULT_DIRECTION, null, new Radius(radius), Name.DEFAULT_NAME, null);
+				try {
+					w.addGameObject(object);
+					objects.add(object);
+				} catch (IllegalStateException exc) {
+				}
+			}
+		}
+		int hits = 0;
+		for (int search = 0; search < 500; search++) {
+			if (search % 25 == 24) {
+				w.removeGameObject(objects.remove(random.nextInt(objects.size())));
+			}
+			GameObject from = objects.get(random.nextInt(objects.size()));
+			double angle = random.nextDouble() * 2 * Math.PI;
+			//The objects met at the first sampled point that lies in any object.
+			Set<GameObject> expected = new HashSet<GameObject>();
+			double distance = 0.1f;
+			while (expected.isEmpty()) {
+				double x = from.getLocation().getX() + Math.cos(angle) * distance;
+				double y = from.getLocation().getY() + Math.sin(angle) * distance;
+				for (Object object : w.getAllGameObjects()) {
+					if (object != from && ((GameObject) object).getSurface().contains(new Location(x, y))) {
+						expected.add((GameObject) object);
+					}
+				}
+				distance += 0.1f;
+				if (x < 0 || y < 0 || x > w.getWorldWidth() || y > w.getWorldHeight()) {
+					break;
+				}
+			}
+			GameObject found = w.searchObject(from.getLocation(), angle, from);
+			if (expected.isEmpty()) {
+				assertNull(found);
+			} else {
+				assertTrue(expected.contains(found));
+				hits++;
+			}
+		}
+		assertTrue(hits > 0 && hits < 500);
+	}
+
+	@Test
+	public void getWinner_FollowsDeathsAndTeams() {
+		World w = new World(4, 4, passableMapAdjacent);
+		Worm[] worms = new Worm[4];
+		for (int i = 0; i < worms.length; i++) {
+			worms[i] = new Worm(new Location(0.5 + i, 1.26), Direction.DEFAULT_DIRECTION, null, new Radius(0.25),
+					new Name("Worm " + (char) ('A' + i)), null);
+			w.addGameObject(worms[i]);
+		}
+		w.createTeam(new Name("Red"));
+		w.createTeam(new Name("Blue"));
+		Team red = w.getTeam(new Name("Red"));
+		Team blue = w.getTeam(new Name("Blue"));
+		red.addWorm(worms[0], worms[1]);
+		blue.addWorm(worms[2]);
+		assertNull(w.getWinner());
+
+		w.startGame();
+		assertNull(w.getWinner());
+		worms[3].terminate();
+		assertNull(w.getWinner());
+		worms[2].terminate();
+		assertEquals("Red", w.getWinner());
+		assertEquals("Red", w.getWinner());
+		//Asking for the winner changes nothing, not even the empty team.
+		assertFalse(blue.isTerminated());
+
+		red.removeWorm(worms[1]);
+		assertNull(w.getWinner());
+		worms[0].terminate();
+		assertEquals("Worm B", w.getWinner());
+		assertTrue(w.onlyWormsWithoutTeamInWorld());
+		assertTrue(w.onlyOneWorm());
+
+		blue.addWorm(worms[1]);
+		assertEquals("Blue", w.getWinner());
+		blue.terminate();
+		assertEquals("Worm B", w.getWinner());
+		worms[1].terminate();
+		assertNull(w.getWinner());
+	}
 }
@@ -0,0 +1,295 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import worms.internal.gui.Level;
+import worms.model.ShapeHelp.Circle;
+import worms.model.values.Direction;
+import worms.model.values.Location;
+import worms.model.values.Radius;
+
+public class WormMovementTest {
+
+	/**
+	 * The original fall: steps of 0.1, refined down to 0.0001, with a full passability check per step.
+	 * Returns the final height and the fall distance.
+	 */
+	private static double[] fallByStepping(World world, Location start, Radius radius) {
+		double fallDistance = 0.0;
+		double fallDistanceDelta = 0.1d;
+		Location wormLoc = start;
+		while (world.isPassable(wormLoc, radius)) {
+			fallDistance += fallDistanceDelta;
+			wormLoc = new Location(wormLoc.getX(), wormLoc.getY() - fallDistanceDelta);
+			if (!GameObject.isValidWorldLocation(wormLoc, world) || !world.isPassable(wormLoc, radius)) {
+				if (fallDistanceDelta < 0.1d / 100d) {
+					break;
+				} else {
+					wormLoc = new Location(wormLoc.getX(), wormLoc.getY() + fallDistanceDelta);
+					fallDistanceDelta /= 10d;
+				}
+			}
+		}
+		return new double[] { wormLoc.getY() + fallDistanceDelta, fallDistance };
+	}
+
+	@Test
+	public void fall_MatchesStepping_AllLevels() {
+		Random random = new Random(2018);
+		for (Level level : Level.getAvailableLevels()) {
+			World world = WorldFixtures.loadWorld(level);
+			for (int sample = 0; sample < 60; sample++) {
+				double radius = (sample % 3 == 0) ? 0.02 + random.nextDouble() * 0.05 : 0.25 + random.nextDouble();
+				if (2 * radius >= world.getWorldWidth() || 2 * radius >= world.getWorldHeight()) {
+					continue;
+				}
+				Location start = new Location(radius + random.nextDouble() * (world.getWorldWidth() - 2 * radius),
+						radius + random.nextDouble() * (world.getWorldHeight() - 2 * radius));
+				double[] expected = fallByStepping(world, start, new Radius(radius));
+				Worm worm = WorldFixtures.placeWorm(world, start, radius);
+				BigInteger hitPoints = worm.getHitPoints();
+				worm.fall();
+				String message = level.getName() + " " + start + " r=" + radius;
+				assertEquals(message, expected[0], worm.getY(), 0);
+				assertEquals(message, start.getX(), worm.getX(), 0);
+				assertEquals(message, hitPoints.add(BigInteger.valueOf((int) (expected[1] * -3))), worm.getHitPoints());
+			}
+		}
+	}
+
+	@Test
+	public void fall_OntoFloorOfWorld() {
+		boolean[][] map = new boolean[40][10];
+		for (boolean[] row : map) {
+			java.util.Arrays.fill(row, true);
+		}
+		World world = new World(10, 40, map);
+		Location start = new Location(5, 35);
+		double[] expected = fallByStepping(world, start, new Radius(0.5));
+		Worm worm = WorldFixtures.placeWorm(world, start, 0.5);
+		worm.fall();
+		assertEquals(expected[0], worm.getY(), 0);
+	}
+
+	/**
+	 * The original march of getFurthestLocationInDirection, with a full passability check per step.
+	 */
+	private static Location furthestByStepping(World world, Worm worm, Direction direction, double distance) {
+		Location finish = worm.getLocation();
+		for (double step = worm.getRadius().getRadius() * 0.1d; step <= distance; step += 0.1d) {
+			Location temp = stepFrom(worm, direction, step);
+			if (world.isPassable(temp, worm.getRadius()) && GameObject.isValidWorldLocation(temp, world)) {
+				finish = temp;
+			} else {
+				return finish;
+			}
+		}
+		Location furthest = stepFrom(worm, direction, distance);
+		return world.isPassable(furthest, worm.getRadius()) ? furthest : finish;
+	}
+
+	/**
+	 * The original march of getFurthestLocationInDirectionNoMove, in rounded steps of 0.01.
+	 */
+	private static Location furthestNoMoveByStepping(World world, Worm worm, Direction direction, double distance) {
+		Location finish = worm.getLocation();
+		for (double step = worm.getRadius().getRadius() * 0.1d; step <= distance; step += 0.01d) {
+			step = World.roundingHelper(step, 3);
+			Location temp = stepFrom(worm, direction, step);
+			if (world.isPassable(temp, worm.getRadius())) {
+				finish = temp;
+			} else {
+				return finish;
+			}
+		}
+		Location furthest = stepFrom(worm, direction, distance);
+		return world.isPassable(furthest, worm.getRadius()) ? furthest : finish;
+	}
+
+	/**
+	 * The original march of getFurthestAdjacentLocationInDirection, checking passability and adjacency per step.
+	 */
+	private static Location furthestAdjacentByStepping(World world, Worm worm, Direction direction, double distance) {
+		Location finish = worm.getLocation();
+		for (double step = 0.0; step <= distance; step += 0.1) {
+			Location temp = stepFrom(worm, direction, step);
+			if (step <= worm.getRadius().getRadius() * .1) {
+				continue;
+			}
+			if (world.isPassable(temp, worm.getRadius())) {
+				if (world.isAdjacantToImpassableTerrain(temp, worm.getRadius())) {
+					finish = temp;
+				}
+			} else {
+				return finish;
+			}
+		}
+		Location temp = stepFrom(worm, direction, distance);
+		if (world.isPassable(temp, worm.getRadius()) && GameObject.isValidWorldLocation(temp, world)
+				&& world.isAdjacantToImpassableTerrain(temp, worm.getRadius())) {
+			return temp;
+		}
+		return finish;
+	}
+
+	private static Location stepFrom(Worm worm, Direction direction, double distance) {
+		double x = Math.cos(direction.getAngle()) * distance;
+		double y = Math.sin(direction.getAngle()) * distance;
+		x += worm.getX();
+		y += worm.getY();
+		return new Location(x, y);
+	}
+
+	@Test
+	public void furthestLocations_MatchStepping_AllLevels() {
+		Random random = new Random(7);
+		for (Level level : Level.getAvailableLevels()) {
+			World world = WorldFixtures.loadWorld(level);
+			for (int sample = 0; sample < 150; sample++) {
+				double radius = (sample % 3 == 0) ? 0.02 + random.nextDouble() * 0.05 : 0.25 + random.nextDouble() * 0.5;
+				if (2 * radius >= world.getWorldWidth() || 2 * radius >= world.getWorldHeight()) {
+					continue;
+				}
+				Location start = new Location(radius + random.nextDouble() * (world.getWorldWidth() - 2 * radius),
+						radius + random.nextDouble() * (world.getWorldHeight() - 2 * radius));
+				Worm worm = WorldFixtures.placeWorm(world, start, radius);
+				Direction direction = new Direction(random.nextDouble() * Math.PI);
+				double distance = 0.05 + random.nextDouble() * 5;
+				String message = level.getName() + " " + start + " r=" + radius + " angle=" + direction.getAngle();
+				assertEquals(message, furthestByStepping(world, worm, direction, distance),
+						worm.getFurthestLocationInDirection(direction, distance));
+				assertEquals(message, furthestNoMoveByStepping(world, worm, direction, distance),
+						worm.getFurthestLocationInDirectionNoMove(direction, distance));
+				assertEquals(message, furthestAdjacentByStepping(world, worm, direction, radius),
+						worm.getFurthestAdjacentLocationInDirection(direction, radius));
+				assertEquals(message, furthestAdjacentByStepping(world, worm, direction, distance),
+						worm.getFurthestAdjacentLocationInDirection(direction, distance));
+			}
+		}
+	}
+
+	@Test
+	public void clearance_KeepsSurfacePassable() {
+		Random random = new Random(11);
+		for (Level level : Level.getAvailableLevels()) {
+			World world = WorldFixtures.loadWorld(level);
+			for (int sample = 0; sample < 500; sample++) {
+				Radius radius = new Radius(0.02 + random.nextDouble() * 0.6);
+				Location location = new Location(random.nextDouble() * world.getWorldWidth(), random.nextDouble() * world.getWorldHeight());
+				double clearance = world.getClearance(location, radius);
+				assertTrue(clearance >= 0);
+				if (clearance == 0) {
+					continue;
+				}
+				for (int probe = 0; probe < 20; probe++) {
+					Location moved = new Location(location.getX() + (random.nextDouble() * 2 - 1) * clearance,
+							location.getY() + (random.nextDouble() * 2 - 1) * clearance);
+					assertTrue(level.getName() + " " + location + " -> " + moved, world.isPassable(moved, radius));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Moves a worm placed at the given location, and returns where it ends up, or the class of the exception
+	 * the move failed with.
+	 */
+	private static Object moveFrom(World world, Location start, double radius, Direction direction) {
+		Worm worm = WorldFixtures.placeWorm(world, start, radius);
+		worm.setDirection(direction);
+		try {
+			worm.move();
+		} catch (RuntimeException exc) {
+			return exc.getClass();
+		}
+		return worm.getLocation();
+	}
+
+	@Test
+	public void move_ParallelScanMatchesSequential_AllLevels() {
+		boolean parallel = Worm.isParallelMovementScan();
+		try {
+			Random random = new Random(3);
+			for (Level level : Level.getAvailableLevels()) {
+				World world = WorldFixtures.loadWorld(level);
+				for (int sample = 0; sample < 40; sample++) {
+					double radius = 0.25 + random.nextDouble() * 0.5;
+					if (2 * radius >= world.getWorldWidth() || 2 * radius >= world.getWorldHeight()) {
+						continue;
+					}
+					Location start = new Location(radius + random.nextDouble() * (world.getWorldWidth() - 2 * radius),
+							radius + random.nextDouble() * (world.getWorldHeight() - 2 * radius));
+					Direction direction = new Direction(random.nextDouble() * 2 * Math.PI);
+					Worm.setParallelMovementScan(false);
+					Object sequential = moveFrom(world, start, radius, direction);
+					Worm.setParallelMovementScan(true);
+					Object scanned = moveFrom(world, start, radius, direction);
+					assertEquals(level.getName() + " " + start + " r=" + radius, sequential, scanned);
+				}
+			}
+		} finally {
+			Worm.setParallelMovementScan(parallel);
+		}
+	}
+
+	/**
+	 * The original landing search of a jump: every step of deltaT is checked for adjacency and passability.
+	 */
+	private static double jumpTimeByStepping(World world, Worm worm, double deltaT) {
+		Location lastAdjacentLocation = null;
+		double lastAdjacentTime = 0.0;
+		for (double i = deltaT; i < Double.POSITIVE_INFINITY; i += deltaT) {
+			Location wormLoc = new Location(worm.jumpStep(i));
+			if (world.isAdjacantToImpassableTerrain(wormLoc, worm.getRadius())) {
+				lastAdjacentLocation = wormLoc;
+				lastAdjacentTime = i;
+			}
+			if (!world.isPassable(wormLoc, worm.getRadius())
+					|| !world.fullyContains(new Circle(wormLoc, worm.getRadius()).getBoundingRectangle())) {
+				if (lastAdjacentLocation != null
+						&& worm.getLocation().getDistanceFrom(lastAdjacentLocation) < worm.getRadius().getRadius()) {
+					return 0;
+				}
+				return lastAdjacentTime;
+			}
+		}
+		return lastAdjacentTime;
+	}
+
+	@Test
+	public void jumpTime_MatchesStepping_AllLevels() {
+		Random random = new Random(5);
+		double[] deltas = { 0.01, 0.001, 0.0001 };
+		for (Level level : Level.getAvailableLevels()) {
+			World world = WorldFixtures.loadWorld(level);
+			for (int sample = 0; sample < 30; sample++) {
+				double radius = 0.25 + random.nextDouble() * 0.5;
+				if (2 * radius >= world.getWorldWidth() || 2 * radius >= world.getWorldHeight()) {
+					continue;
+				}
+				Location start = new Location(radius + random.nextDouble() * (world.getWorldWidth() - 2 * radius),
+						radius + random.nextDouble() * (world.getWorldHeight() - 2 * radius));
+				Worm worm = WorldFixtures.placeWorm(world, start, radius);
+				worm.setDirection(new Direction(random.nextDouble() * Math.PI));
+				double deltaT = deltas[sample % deltas.length];
+				double expected = jumpTimeByStepping(world, worm, deltaT);
+				String message = level.getName() + " " + start + " r=" + radius + " angle=" + worm.getDirection().getAngle();
+				if (expected == 0) {
+					try {
+						worm.getJumpTime(deltaT);
+						fail(message);
+					} catch (IllegalArgumentException exc) {
+						// too short, as before
+					}
+				} else {
+					assertEquals(message, expected, worm.getJumpTime(deltaT), 0);
+				}
+			}
+		}
+	}
+}
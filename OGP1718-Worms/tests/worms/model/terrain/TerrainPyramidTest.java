@@ -0,0 +1,38 @@
+package worms.model.terrain;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests changing cells of a terrain grid, which only this package may do.
+ */
+public class TerrainPyramidTest {
+
+	@Test
+	public void terrainPyramid_IncrementalUpdate() {
+		Random random = new Random(5);
+		boolean[][] map = new boolean[37][50];
+		for (boolean[] row : map) {
+			Arrays.fill(row, true);
+		}
+		TerrainGrid terrain = new TerrainGrid(map);
+		TerrainPyramid pyramid = new TerrainPyramid(terrain);
+		for (int change = 0; change < 300; change++) {
+			int row = random.nextInt(37), column = random.nextInt(50);
+			terrain.setPassableCell(row, column, random.nextInt(4) == 0);
+			pyramid.update(row, column);
+		}
+		TerrainPyramid rebuilt = new TerrainPyramid(terrain);
+		for (int level = 0; level < pyramid.getLevels(); level++) {
+			for (int i = 0; i < pyramid.getNodeRows(level); i++) {
+				for (int j = 0; j < pyramid.getNodeColumns(level); j++) {
+					assertEquals(rebuilt.getState(level, i, j), pyramid.getState(level, i, j));
+				}
+			}
+		}
+	}
+}